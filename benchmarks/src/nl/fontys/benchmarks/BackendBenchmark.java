@@ -0,0 +1,56 @@
+package nl.fontys.benchmarks;
+
+import nl.fontys.algorithms.EntropyBackend;
+import nl.fontys.algorithms.EntropyCompression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the entropy backends on the same input. The compression ratio follows from the processed and compressed MB/s that are reported next to every result.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BackendBenchmark {
+
+    @Param({"HUFFMAN", "TANS"})
+    public EntropyBackend backend;
+
+    private EntropyCompression entropyCompression;
+    private byte[] compressed;
+
+    @Setup
+    public void setUp(final BenchmarkInput input) {
+        entropyCompression = new EntropyCompression(backend);
+        compressed = entropyCompression.compress(input.bytes);
+    }
+
+    @Benchmark
+    public byte[] compress(final BenchmarkInput input, final Throughput throughput, final CompressedThroughput compressedThroughput) {
+        throughput.megabytes += input.megabytes;
+        compressedThroughput.compressedMegabytes += compressed.length / 1_000_000d;
+        return entropyCompression.compress(input.bytes);
+    }
+
+    @Benchmark
+    public byte[] decompress(final BenchmarkInput input, final Throughput throughput, final CompressedThroughput compressedThroughput) throws IOException {
+        throughput.megabytes += input.megabytes;
+        compressedThroughput.compressedMegabytes += compressed.length / 1_000_000d;
+        return entropyCompression.decompress(compressed);
+    }
+}
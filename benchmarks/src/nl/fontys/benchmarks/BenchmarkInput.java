@@ -0,0 +1,112 @@
+package nl.fontys.benchmarks;
+
+import nl.fontys.utilities.Constants;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * The input of every benchmark, generated once per trial for every combination of profile and size.
+ * The same bytes are also offered as text, where every byte is a single character, so that the text and binary alphabets encode the same content.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkInput {
+
+    /* A fixed seed keeps the generated input the same from release to release, so that the results can be compared. */
+    private static final long SEED = 42L;
+
+    @Param({"LOREM_IPSUM", "RANDOM", "SKEWED", "BINARY"})
+    public Profile profile;
+
+    @Param({"1024", "65536", "1048576"})
+    public int size;
+
+    public byte[] bytes;
+    public String text;
+    public long[] frequencies;
+    public double megabytes;
+
+    /**
+     * This method will generate the input for the current profile and size.
+     */
+    @Setup
+    public void setUp() {
+        bytes = profile.generate(size, new Random(SEED));
+        text = new String(bytes, StandardCharsets.ISO_8859_1);
+        megabytes = size / 1_000_000d;
+
+        frequencies = new long[256];
+        for (final byte b : bytes) {
+            frequencies[b & 0xFF]++;
+        }
+    }
+
+    /**
+     * The entropy profiles that the benchmarks are run with.
+     */
+    public enum Profile {
+        /* Natural text with a few dozen distinct characters. */
+        LOREM_IPSUM {
+            @Override
+            byte[] generate(final int size, final Random random) {
+                final byte[] lorem = Constants.LOREM_IPSUM.getBytes(StandardCharsets.ISO_8859_1);
+                final byte[] bytes = new byte[size];
+
+                for (int i = 0; i < size; i++) {
+                    bytes[i] = lorem[i % lorem.length];
+                }
+                return bytes;
+            }
+        },
+        /* Uniformly distributed bytes, which can't be compressed at all. Every code is 8 bits long. */
+        RANDOM {
+            @Override
+            byte[] generate(final int size, final Random random) {
+                final byte[] bytes = new byte[size];
+                random.nextBytes(bytes);
+                return bytes;
+            }
+        },
+        /* Every next byte is half as likely as the one before, which results in a few very short and many long codes. */
+        SKEWED {
+            @Override
+            byte[] generate(final int size, final Random random) {
+                final byte[] bytes = new byte[size];
+
+                for (int i = 0; i < size; i++) {
+                    bytes[i] = (byte) Long.numberOfTrailingZeros(random.nextLong());
+                }
+                return bytes;
+            }
+        },
+        /* Little-endian ints of small, slowly increasing values, which makes most of the bytes a 0 like in typical binary data. */
+        BINARY {
+            @Override
+            byte[] generate(final int size, final Random random) {
+                final byte[] bytes = new byte[size];
+                int value = 0;
+
+                for (int i = 0; i < size; i++) {
+                    if (i % 4 == 0) {
+                        value += random.nextInt(16);
+                    }
+                    bytes[i] = (byte) (value >>> (8 * (i % 4)));
+                }
+                return bytes;
+            }
+        };
+
+        /**
+         * This method will generate the given amount of bytes for this profile.
+         *
+         * @param size   The amount of bytes that should be generated.
+         * @param random The source of randomness that should be used.
+         * @return Returns the generated bytes.
+         */
+        abstract byte[] generate(int size, Random random);
+    }
+}
@@ -0,0 +1,26 @@
+package nl.fontys.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Counts the amount of compressed megabytes, which JMH reports as MB/s next to the processed megabytes of the Throughput class.
+ * The compression ratio is the processed MB/s divided by the compressed MB/s.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class CompressedThroughput {
+
+    public double compressedMegabytes;
+
+    /**
+     * This method will reset the counter before every iteration, as JMH divides it by the duration of a single iteration.
+     */
+    @Setup(Level.Iteration)
+    public void reset() {
+        compressedMegabytes = 0;
+    }
+}
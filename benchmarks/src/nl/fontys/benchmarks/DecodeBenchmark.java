@@ -0,0 +1,60 @@
+package nl.fontys.benchmarks;
+
+import nl.fontys.algorithms.HuffmanCompression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the decoding of input that has been encoded into memory up front, including reading the header and building the decoding table.
+ * The throughput is expressed in decoded megabytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DecodeBenchmark {
+
+    private HuffmanCompression huffmanCompression;
+    private byte[] encodedText;
+    private byte[] encodedBytes;
+
+    @Setup
+    public void setUp(final BenchmarkInput input) throws IOException {
+        huffmanCompression = new HuffmanCompression();
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(input.size + 1024);
+        huffmanCompression.encode(input.text, outputStream);
+        encodedText = outputStream.toByteArray();
+
+        outputStream.reset();
+        huffmanCompression.encodeBytes(input.bytes, outputStream);
+        encodedBytes = outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public String decodeText(final BenchmarkInput input, final Throughput throughput) throws IOException {
+        throughput.megabytes += input.megabytes;
+        return huffmanCompression.decode(new ByteArrayInputStream(encodedText));
+    }
+
+    @Benchmark
+    public byte[] decodeBytes(final BenchmarkInput input, final Throughput throughput) throws IOException {
+        throughput.megabytes += input.megabytes;
+        return huffmanCompression.decodeBytes(new ByteArrayInputStream(encodedBytes));
+    }
+}
@@ -0,0 +1,55 @@
+package nl.fontys.benchmarks;
+
+import nl.fontys.algorithms.HuffmanCompression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the encoding of the input into memory, including counting the frequencies, building the code and writing the header.
+ * Nothing is written to disk, so the results only depend on the encoder itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EncodeBenchmark {
+
+    private HuffmanCompression huffmanCompression;
+    private ByteArrayOutputStream outputStream;
+
+    @Setup
+    public void setUp(final BenchmarkInput input) {
+        huffmanCompression = new HuffmanCompression();
+        outputStream = new ByteArrayOutputStream(input.size + 1024);
+    }
+
+    @Benchmark
+    public HashMap<Character, String> encodeText(final BenchmarkInput input, final Throughput throughput) throws IOException {
+        outputStream.reset();
+        throughput.megabytes += input.megabytes;
+        return huffmanCompression.encode(input.text, outputStream);
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream encodeBytes(final BenchmarkInput input, final Throughput throughput) throws IOException {
+        outputStream.reset();
+        throughput.megabytes += input.megabytes;
+        huffmanCompression.encodeBytes(input.bytes, outputStream);
+        return outputStream;
+    }
+}
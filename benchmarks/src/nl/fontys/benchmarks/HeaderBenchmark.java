@@ -0,0 +1,59 @@
+package nl.fontys.benchmarks;
+
+import nl.fontys.algorithms.CanonicalHuffmanCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writing and reading the header of the canonical code, which is the fixed cost of every encoded file, block and stream.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class HeaderBenchmark {
+
+    private CanonicalHuffmanCode code;
+    private ByteArrayOutputStream outputStream;
+    private DataOutputStream dataOutputStream;
+    private byte[] header;
+
+    @Setup
+    public void setUp(final BenchmarkInput input) throws IOException {
+        code = CanonicalHuffmanCode.fromFrequencies(input.frequencies);
+        outputStream = new ByteArrayOutputStream();
+        dataOutputStream = new DataOutputStream(outputStream);
+
+        code.writeTo(dataOutputStream);
+        header = outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream writeHeader() throws IOException {
+        outputStream.reset();
+        code.writeTo(dataOutputStream);
+        return outputStream;
+    }
+
+    @Benchmark
+    public CanonicalHuffmanCode readHeader() throws IOException {
+        return CanonicalHuffmanCode.readFrom(new DataInputStream(new ByteArrayInputStream(header)));
+    }
+}
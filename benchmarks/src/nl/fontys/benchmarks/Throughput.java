@@ -0,0 +1,25 @@
+package nl.fontys.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Counts the amount of processed megabytes, which JMH reports as MB/s next to the amount of operations per second.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class Throughput {
+
+    public double megabytes;
+
+    /**
+     * This method will reset the counter before every iteration, as JMH divides it by the duration of a single iteration.
+     */
+    @Setup(Level.Iteration)
+    public void reset() {
+        megabytes = 0;
+    }
+}
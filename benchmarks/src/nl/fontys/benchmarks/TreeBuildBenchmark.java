@@ -0,0 +1,41 @@
+package nl.fontys.benchmarks;
+
+import nl.fontys.algorithms.CanonicalHuffmanCode;
+import nl.fontys.algorithms.HuffmanCodeLengths;
+import nl.fontys.algorithms.HuffmanDecodingTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building a code from frequencies that have been counted up front.
+ * The cost only depends on the amount of distinct symbols of the profile, not on the size of the input.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TreeBuildBenchmark {
+
+    @Benchmark
+    public int[] computeCodeLengths(final BenchmarkInput input) {
+        return HuffmanCodeLengths.compute(input.frequencies);
+    }
+
+    @Benchmark
+    public CanonicalHuffmanCode buildCanonicalCode(final BenchmarkInput input) {
+        return CanonicalHuffmanCode.fromFrequencies(input.frequencies);
+    }
+
+    @Benchmark
+    public HuffmanDecodingTable buildDecodingTable(final BenchmarkInput input) {
+        return CanonicalHuffmanCode.fromFrequencies(input.frequencies).getDecodingTable();
+    }
+}
@@ -0,0 +1,63 @@
+package nl.fontys.algorithms;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An InputStream that decodes a stream that has been written by the AdaptiveHuffmanOutputStream class.
+ * The frames are read and verified as described by the FramedInputStream class. The code is rebuilt at the same bytes as the encoder did,
+ * so every frame can be decoded as soon as it has been read.
+ */
+public class AdaptiveHuffmanInputStream extends FramedInputStream {
+
+    private final AdaptiveHuffmanModel model;
+    private HuffmanDecodingTable decodingTable;
+
+    /**
+     * Constructor for this class. The header will be read from the given InputStream straight away.
+     *
+     * @param inputStream The InputStream that the encoded bytes should be read from.
+     *                    This parameter is not allowed to be null.
+     * @throws UnsupportedFormatException Thrown when the InputStream does not contain an adaptive stream, or one of a format version that is not supported.
+     * @throws CorruptedDataException Thrown when the header is damaged, ends too early or contains an invalid rebuild interval.
+     * @throws IOException Thrown when the header could not be read from the given InputStream.
+     */
+    public AdaptiveHuffmanInputStream(final InputStream inputStream) throws IOException {
+        super(inputStream);
+
+        final int maxRebuildInterval = readHeader(AdaptiveHuffmanOutputStream.MAGIC, AdaptiveHuffmanOutputStream.FORMAT_VERSION, DataInputStream::readInt);
+        if (maxRebuildInterval < 1) throw new CorruptedDataException("The stream contains a rebuild interval of " + maxRebuildInterval + ", which is not valid.");
+
+        this.model = new AdaptiveHuffmanModel(maxRebuildInterval);
+        this.decodingTable = model.getCode().getDecodingTable();
+    }
+
+    /**
+     * This method will decode the given frame, after which the model is updated with the decoded bytes.
+     *
+     * @param words    The words that contain the bits of the frame.
+     * @param bitCount The amount of bits within the frame.
+     * @param decoded  The array that the decoded bytes should be written to.
+     * @return Returns the amount of decoded bytes.
+     * @throws CorruptedDataException Thrown when the frame continues past a rebuild of the code.
+     */
+    @Override
+    int decodeFrame(final long[] words, final int bitCount, final byte[] decoded) throws IOException {
+        /* The encoder ends a frame whenever it rebuilds its code, so a frame never holds more bytes than remain before the next rebuild. */
+        final int remaining = model.getRemaining();
+        final int decodedSize = decodingTable.decode(words, bitCount, decoded, 0, (int) Math.min(remaining + 1L, decoded.length));
+        if (decodedSize > remaining) throw new CorruptedDataException("The stream contains a frame that continues past a rebuild of the code.");
+
+        boolean rebuild = false;
+        for (int i = 0; i < decodedSize; i++) {
+            rebuild = model.count(decoded[i] & 0xFF);
+        }
+
+        if (rebuild) {
+            model.rebuild();
+            decodingTable = model.getCode().getDecodingTable();
+        }
+        return decodedSize;
+    }
+}
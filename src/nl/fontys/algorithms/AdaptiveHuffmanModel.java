@@ -0,0 +1,72 @@
+package nl.fontys.algorithms;
+
+/**
+ * The model that is shared by the AdaptiveHuffmanOutputStream and AdaptiveHuffmanInputStream classes.
+ * Both sides start with the same code and count every byte they encode or decode. After a fixed amount of bytes both sides rebuild the code
+ * from the bytes they have counted so far, which means that they always use the same code without the code ever being written to the stream.
+ * <p>
+ * The interval between two rebuilds starts small, so that short streams benefit from a fitting code early on, and doubles after every rebuild
+ * until it reaches the given maximum. The counts are halved after every rebuild, which lets the code follow a stream whose distribution changes over time.
+ */
+class AdaptiveHuffmanModel {
+
+    static final int MIN_REBUILD_INTERVAL = 1024;
+
+    private final long[] frequencies = new long[Alphabet.BINARY.getSize()];
+    private final int maxRebuildInterval;
+
+    private CanonicalHuffmanCode code;
+    private int rebuildInterval;
+    private int remaining;
+
+    /**
+     * Constructor for this class. The model starts with a code in which every byte is equally likely.
+     * @param maxRebuildInterval The maximum amount of bytes between two rebuilds of the code. This value should be above 0.
+     */
+    AdaptiveHuffmanModel(final int maxRebuildInterval) {
+        if (maxRebuildInterval < 1) throw new IllegalArgumentException("The maxRebuildInterval should be above 0.");
+
+        this.maxRebuildInterval = maxRebuildInterval;
+        this.code = HuffmanStreams.buildCode(frequencies, true);
+        this.rebuildInterval = Math.min(MIN_REBUILD_INTERVAL, maxRebuildInterval);
+        this.remaining = rebuildInterval;
+    }
+
+    /**
+     * This method will count the given byte.
+     *
+     * @param symbol The byte that has been encoded or decoded.
+     * @return Returns true when the code should be rebuilt before the next byte.
+     */
+    boolean count(final int symbol) {
+        frequencies[symbol]++;
+        return --remaining == 0;
+    }
+
+    /**
+     * This method will rebuild the code from the counted bytes and will start the next interval.
+     */
+    void rebuild() {
+        code = HuffmanStreams.buildCode(frequencies, true);
+
+        for (int symbol = 0; symbol < frequencies.length; symbol++) {
+            frequencies[symbol] >>>= 1;
+        }
+        rebuildInterval = Math.min(rebuildInterval * 2, maxRebuildInterval);
+        remaining = rebuildInterval;
+    }
+
+    /**
+     * @return Returns the current code.
+     */
+    CanonicalHuffmanCode getCode() {
+        return code;
+    }
+
+    /**
+     * @return Returns the amount of bytes that can still be counted before the code has to be rebuilt.
+     */
+    int getRemaining() {
+        return remaining;
+    }
+}
@@ -0,0 +1,66 @@
+package nl.fontys.algorithms;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An OutputStream that encodes every written byte in a single pass, without knowing the frequencies up front.
+ * The code adapts to the written bytes as described by the AdaptiveHuffmanModel class, so the stream can be used for live data such as logs and sockets.
+ * <p>
+ * The header of the stream contains the maximum rebuild interval, the encoded bytes are written in checksummed frames as described by the FramedOutputStream class.
+ * Besides whenever it's full or the stream is flushed, a frame also ends whenever the code is rebuilt, so the encoded bytes never lag behind
+ * the written bytes by more than a single frame.
+ */
+public class AdaptiveHuffmanOutputStream extends FramedOutputStream {
+
+    public static final int MAGIC = 0x48554641;
+    public static final int FORMAT_VERSION = 1;
+    public static final int DEFAULT_REBUILD_INTERVAL = 64 * 1024;
+
+    private final AdaptiveHuffmanModel model;
+
+    /**
+     * Constructor for this class. The code will be rebuilt at least every DEFAULT_REBUILD_INTERVAL bytes.
+     *
+     * @param outputStream The OutputStream that the encoded bytes should be written to.
+     *                     This parameter is not allowed to be null.
+     * @throws IOException Thrown when the header could not be written to the given OutputStream.
+     */
+    public AdaptiveHuffmanOutputStream(final OutputStream outputStream) throws IOException {
+        this(outputStream, DEFAULT_REBUILD_INTERVAL);
+    }
+
+    /**
+     * Constructor for this class. The rebuild interval will be written to the given OutputStream straight away.
+     *
+     * @param outputStream       The OutputStream that the encoded bytes should be written to.
+     *                           This parameter is not allowed to be null.
+     * @param maxRebuildInterval The maximum amount of bytes between two rebuilds of the code. A shorter interval follows changes
+     *                           in the distribution sooner, at the cost of rebuilding the code more often. This value should be above 0.
+     * @throws IOException Thrown when the header could not be written to the given OutputStream.
+     */
+    public AdaptiveHuffmanOutputStream(final OutputStream outputStream, final int maxRebuildInterval) throws IOException {
+        super(outputStream, FRAME_SIZE);
+
+        this.model = new AdaptiveHuffmanModel(maxRebuildInterval);
+        writeHeader(MAGIC, FORMAT_VERSION, header -> header.writeInt(maxRebuildInterval));
+    }
+
+    /**
+     * This method will encode a single symbol into the current frame and will update the model.
+     * The frame is written before the code is rebuilt, so that a frame is always encoded with a single code.
+     *
+     * @param symbol The symbol that should be encoded.
+     * @throws IOException Thrown when a frame could not be written.
+     */
+    @Override
+    void writeSymbol(final int symbol) throws IOException {
+        final CanonicalHuffmanCode code = model.getCode();
+        writeCode(code.getCode(symbol), code.getLength(symbol));
+
+        if (model.count(symbol)) {
+            writeFrame();
+            model.rebuild();
+        }
+    }
+}
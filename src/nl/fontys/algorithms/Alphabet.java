@@ -0,0 +1,45 @@
+package nl.fontys.algorithms;
+
+/**
+ * The alphabets that symbols can be taken from.
+ * TEXT contains every Java char, BINARY contains every unsigned byte value.
+ */
+public enum Alphabet {
+
+    TEXT(1, 1 << 16),
+    BINARY(2, 1 << 8);
+
+    private final int id;
+    private final int size;
+
+    Alphabet(final int id, final int size) {
+        this.id = id;
+        this.size = size;
+    }
+
+    /**
+     * @return Returns the id that identifies this alphabet within an encoded file.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return Returns the amount of symbols within this alphabet.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * This method will return the alphabet for the given id.
+     * @param id The id of the alphabet.
+     * @return Returns the alphabet for the given id, or null when there is no alphabet for the given id.
+     */
+    public static Alphabet fromId(final int id) {
+        for (final Alphabet alphabet : values()) {
+            if (alphabet.id == id) return alphabet;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,343 @@
+package nl.fontys.algorithms;
+
+import nl.fontys.utilities.BitWriter;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A canonical Huffman code. The bitcodes of a canonical code follow from the code lengths alone,
+ * which means that only the symbols and their code lengths have to be stored next to the encoded text.
+ * A code never changes once it has been created, so it can be shared by any number of threads.
+ */
+public class CanonicalHuffmanCode {
+
+    public static final int MAX_CODE_LENGTH = BitWriter.MAX_WRITE_LENGTH;
+
+    /* The longest code length fits within 6 bits, so the highest bit of its byte tells whether every symbol has been written as a single byte. */
+    private static final int BYTE_SYMBOLS_FLAG = 0x80;
+
+    /* An amount of codes of a single length is at most the 65536 symbols of the text alphabet, which takes 3 bytes of 7 bits each. */
+    private static final int MAX_VARINT_SIZE = 3;
+
+    /* The symbols are stored in canonical order, meaning that they're sorted by their code length first and by their value second. */
+    private final int[] symbols;
+    private final int[] lengths;
+    private final long[] codes;
+
+    /* The same codes and lengths, but indexed by the symbol itself so that the encoder can look them up without any hashing or boxing. */
+    private final long[] codesBySymbol;
+    private final int[] lengthsBySymbol;
+
+    /* The table is only built when it's requested. It's volatile so that a table that has been built by one thread is safely published to every other thread.
+       Two threads may both build the table at the same time, which is harmless as both tables are equal. */
+    private volatile HuffmanDecodingTable decodingTable;
+
+    /**
+     * Constructor for this class.
+     * The given arrays should already be in canonical order. Use fromCodeLengths to create a code from unordered lengths.
+     */
+    private CanonicalHuffmanCode(final int[] symbols, final int[] lengths) {
+        this.symbols = symbols;
+        this.lengths = lengths;
+        this.codes = new long[symbols.length];
+
+        /* Every next code is the previous code plus one, shifted to the left whenever the code length increases.
+           The codes are stored reversed so that the first bit of a code is stored in the least significant bit, as that's the bit that will be written first. */
+        long code = 0;
+        int previousLength = 0;
+
+        int maxSymbol = 0;
+
+        for (int i = 0; i < symbols.length; i++) {
+            code <<= lengths[i] - previousLength;
+            codes[i] = reverse(code, lengths[i]);
+            previousLength = lengths[i];
+            maxSymbol = Math.max(maxSymbol, symbols[i]);
+            code++;
+        }
+
+        this.codesBySymbol = new long[maxSymbol + 1];
+        this.lengthsBySymbol = new int[maxSymbol + 1];
+
+        for (int i = 0; i < symbols.length; i++) {
+            codesBySymbol[symbols[i]] = codes[i];
+            lengthsBySymbol[symbols[i]] = lengths[i];
+        }
+    }
+
+    /**
+     * This method will create a canonical code for the given symbols and code lengths.
+     *
+     * @param symbols The symbols that the code should be created for. This parameter is not allowed to be null.
+     * @param lengths The code length of every symbol. Every length should be between 1 and MAX_CODE_LENGTH.
+     *                This parameter is not allowed to be null.
+     * @param count   The amount of symbols within the given arrays.
+     * @return Returns an object of the CanonicalHuffmanCode class.
+     */
+    public static CanonicalHuffmanCode fromCodeLengths(final int[] symbols, final int[] lengths, final int count) {
+        if (symbols == null || lengths == null) throw new IllegalArgumentException("The symbols and lengths are not allowed to be null.");
+        else if (count < 1 || count > symbols.length || count > lengths.length) throw new IllegalArgumentException("The count does not match the given arrays.");
+
+        /* Sorting on a single long per symbol keeps this free of boxing. The length ends up in the high bits so it takes precedence over the symbol. */
+        final long[] order = new long[count];
+        for (int i = 0; i < count; i++) {
+            if (lengths[i] < 1 || lengths[i] > MAX_CODE_LENGTH) throw new IllegalArgumentException("The code length " + lengths[i] + " is not supported.");
+            order[i] = ((long) lengths[i] << 32) | symbols[i];
+        }
+        Arrays.sort(order);
+
+        final int[] sortedSymbols = new int[count];
+        final int[] sortedLengths = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            sortedSymbols[i] = (int) order[i];
+            sortedLengths[i] = (int) (order[i] >>> 32);
+        }
+        return new CanonicalHuffmanCode(sortedSymbols, sortedLengths);
+    }
+
+    /**
+     * This method will create a canonical code for the given frequencies.
+     *
+     * @param frequencies The frequency of every symbol, indexed by the symbol itself. At least one symbol should have a frequency above 0.
+     *                    This parameter is not allowed to be null.
+     * @return Returns an object of the CanonicalHuffmanCode class containing a code for every symbol with a frequency above 0.
+     */
+    public static CanonicalHuffmanCode fromFrequencies(final long[] frequencies) {
+        return fromFrequencies(frequencies, MAX_CODE_LENGTH);
+    }
+
+    /**
+     * This method will create a canonical code for the given frequencies, where no code is longer than the given maxLength.
+     *
+     * @param frequencies The frequency of every symbol, indexed by the symbol itself. At least one symbol should have a frequency above 0.
+     *                    This parameter is not allowed to be null.
+     * @param maxLength   The maximum length of a code.
+     * @return Returns an object of the CanonicalHuffmanCode class containing a code for every symbol with a frequency above 0.
+     */
+    public static CanonicalHuffmanCode fromFrequencies(final long[] frequencies, final int maxLength) {
+        final int[] lengthsBySymbol = HuffmanCodeLengths.compute(frequencies, maxLength);
+        final int[] symbols = new int[lengthsBySymbol.length];
+        final int[] lengths = new int[lengthsBySymbol.length];
+        int count = 0;
+
+        for (int symbol = 0; symbol < lengthsBySymbol.length; symbol++) {
+            if (lengthsBySymbol[symbol] > 0) {
+                symbols[count] = symbol;
+                lengths[count++] = lengthsBySymbol[symbol];
+            }
+        }
+        if (count == 0) throw new IllegalArgumentException("At least one symbol should have a frequency above 0.");
+
+        return fromCodeLengths(symbols, lengths, count);
+    }
+
+    /**
+     * This method will create a canonical code for the given frequencies.
+     *
+     * @param frequencies The frequency of every symbol, indexed by the symbol itself. At least one symbol should have a frequency above 0.
+     *                    This parameter is not allowed to be null.
+     * @return Returns an object of the CanonicalHuffmanCode class containing a code for every symbol with a frequency above 0.
+     */
+    public static CanonicalHuffmanCode fromFrequencies(final int[] frequencies) {
+        return fromFrequencies(frequencies, MAX_CODE_LENGTH);
+    }
+
+    /**
+     * This method will create a canonical code for the given frequencies, where no code is longer than the given maxLength.
+     *
+     * @param frequencies The frequency of every symbol, indexed by the symbol itself. At least one symbol should have a frequency above 0.
+     *                    This parameter is not allowed to be null.
+     * @param maxLength   The maximum length of a code.
+     * @return Returns an object of the CanonicalHuffmanCode class containing a code for every symbol with a frequency above 0.
+     */
+    public static CanonicalHuffmanCode fromFrequencies(final int[] frequencies, final int maxLength) {
+        if (frequencies == null) throw new IllegalArgumentException("The frequencies are not allowed to be null.");
+
+        final long[] longFrequencies = new long[frequencies.length];
+        for (int symbol = 0; symbol < frequencies.length; symbol++) {
+            longFrequencies[symbol] = frequencies[symbol];
+        }
+        return fromFrequencies(longFrequencies, maxLength);
+    }
+
+    /**
+     * This method will read a canonical code that has been written by the writeTo method.
+     *
+     * @param inputStream The stream that the code should be read from. This parameter is not allowed to be null.
+     * @return Returns an object of the CanonicalHuffmanCode class.
+     * @throws IOException Thrown when the code could not be read from the given stream.
+     *                     A CorruptedDataException is thrown when the stream does not contain a valid code.
+     */
+    public static CanonicalHuffmanCode readFrom(final DataInputStream inputStream) throws IOException {
+        if (inputStream == null) throw new IllegalArgumentException("The inputStream is not allowed to be null.");
+
+        final int firstByte = inputStream.readUnsignedByte();
+        final boolean byteSymbols = (firstByte & BYTE_SYMBOLS_FLAG) != 0;
+        final int maxLength = firstByte & ~BYTE_SYMBOLS_FLAG;
+        if (maxLength > MAX_CODE_LENGTH) throw new CorruptedDataException("The code contains a code length of " + maxLength + " bits, which exceeds the maximum of " + MAX_CODE_LENGTH + ".");
+
+        final int[] counts = new int[maxLength + 1];
+        long total = 0;
+
+        /* The codes of every length take up a part of the code space. A code that takes up more than the whole code space can't be a prefix code. */
+        long usedCodeSpace = 0;
+
+        for (int length = 1; length <= maxLength; length++) {
+            counts[length] = readVarint(inputStream);
+            if (counts[length] < 0 || counts[length] > 1L << length) throw new CorruptedDataException("The code contains " + counts[length] + " codes of " + length + " bits, which is not possible.");
+
+            total += counts[length];
+            usedCodeSpace += (long) counts[length] << (maxLength - length);
+        }
+        if (total > (byteSymbols ? Alphabet.BINARY : Alphabet.TEXT).getSize() || usedCodeSpace > 1L << maxLength) throw new CorruptedDataException("The code contains more codes than fit within " + maxLength + " bits.");
+        else if (total == 0) throw new CorruptedDataException("The code does not contain any codes.");
+
+        final int[] symbols = new int[(int) total];
+        final int[] lengths = new int[(int) total];
+        int index = 0;
+
+        for (int length = 1; length <= maxLength; length++) {
+            for (int i = 0; i < counts[length]; i++, index++) {
+                symbols[index] = byteSymbols ? inputStream.readUnsignedByte() : inputStream.readChar();
+                lengths[index] = length;
+            }
+        }
+        return new CanonicalHuffmanCode(symbols, lengths);
+    }
+
+    /**
+     * This method will write this code to the given stream.
+     * Only the longest code length, the amount of symbols per code length and the symbols themselves are written.
+     * The amounts are written as varints, which takes a single byte for less than 128 symbols of a length. When every symbol fits within a byte,
+     * which is the case for the binary alphabet, the symbols take a single byte each and the highest bit of the longest code length is set.
+     *
+     * @param outputStream The stream that the code should be written to. This parameter is not allowed to be null.
+     * @throws IOException Thrown when the code could not be written to the given stream.
+     */
+    public void writeTo(final DataOutputStream outputStream) throws IOException {
+        if (outputStream == null) throw new IllegalArgumentException("The outputStream is not allowed to be null.");
+
+        final int maxLength = getMaxLength();
+        final int[] counts = new int[maxLength + 1];
+
+        for (final int length : lengths) {
+            counts[length]++;
+        }
+
+        final boolean byteSymbols = getMaxSymbol() <= 0xFF;
+        outputStream.writeByte(maxLength | (byteSymbols ? BYTE_SYMBOLS_FLAG : 0));
+        for (int length = 1; length <= maxLength; length++) {
+            writeVarint(outputStream, counts[length]);
+        }
+        for (final int symbol : symbols) {
+            if (byteSymbols) {
+                outputStream.writeByte(symbol);
+            } else {
+                outputStream.writeChar(symbol);
+            }
+        }
+    }
+
+    /**
+     * This method will write the given value 7 bits at a time, starting with the lowest bits, where the highest bit of every byte tells whether another byte follows.
+     */
+    private static void writeVarint(final DataOutputStream outputStream, final int value) throws IOException {
+        int rest = value;
+        while (rest >= 0x80) {
+            outputStream.writeByte(rest & 0x7F | 0x80);
+            rest >>>= 7;
+        }
+        outputStream.writeByte(rest);
+    }
+
+    /**
+     * This method will read a value that has been written by the writeVarint method.
+     * @throws CorruptedDataException Thrown when the varint takes more than MAX_VARINT_SIZE bytes.
+     */
+    private static int readVarint(final DataInputStream inputStream) throws IOException {
+        int value = 0;
+
+        for (int i = 0; i < MAX_VARINT_SIZE; i++) {
+            final int b = inputStream.readUnsignedByte();
+            value |= (b & 0x7F) << (7 * i);
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new CorruptedDataException("The code contains an amount of codes that takes more than " + MAX_VARINT_SIZE + " bytes.");
+    }
+
+    /**
+     * This method will return the bitcodes of this code as a HashMap<Character, String>, where every bitcode is a String of 0's and 1's.
+     * @return Returns a HashMap containing every character with its according bitcode.
+     */
+    public HashMap<Character, String> toBitCodeHashMap() {
+        final HashMap<Character, String> bitCodes = new HashMap<>();
+
+        for (int i = 0; i < symbols.length; i++) {
+            final StringBuilder bitcode = new StringBuilder();
+
+            for (int bit = 0; bit < lengths[i]; bit++) {
+                bitcode.append((codes[i] >>> bit & 1L) != 0 ? '1' : '0');
+            }
+            bitCodes.put((char) symbols[i], bitcode.toString());
+        }
+        return bitCodes;
+    }
+
+    /**
+     * @return Returns the decoding table for this code. The table is generated the first time it's requested.
+     */
+    public HuffmanDecodingTable getDecodingTable() {
+        HuffmanDecodingTable table = decodingTable;
+        if (table == null) {
+            table = new HuffmanDecodingTable(symbols, codes, lengths, symbols.length);
+            decodingTable = table;
+        }
+        return table;
+    }
+
+    /**
+     * @param symbol The symbol that the code should be returned for.
+     * @return Returns the code of the given symbol, where the first bit of the code is stored in the least significant bit.
+     */
+    public long getCode(final int symbol) {
+        return symbol < codesBySymbol.length ? codesBySymbol[symbol] : 0L;
+    }
+
+    /**
+     * @param symbol The symbol that the code length should be returned for.
+     * @return Returns the length of the code of the given symbol. Returns 0 when the given symbol has no code.
+     */
+    public int getLength(final int symbol) {
+        return symbol < lengthsBySymbol.length ? lengthsBySymbol[symbol] : 0;
+    }
+
+    /**
+     * @return Returns the highest symbol that has a code.
+     */
+    public int getMaxSymbol() {
+        return codesBySymbol.length - 1;
+    }
+
+    /**
+     * @return Returns the longest code length of this code.
+     */
+    public int getMaxLength() {
+        return lengths[lengths.length - 1];
+    }
+
+    /**
+     * This method will reverse the given amount of lowest bits of the given code.
+     *
+     * @param code   The code that should be reversed.
+     * @param length The amount of bits of the code.
+     * @return Returns the reversed code.
+     */
+    private static long reverse(final long code, final int length) {
+        return Long.reverse(code) >>> (64 - length);
+    }
+}
@@ -0,0 +1,28 @@
+package nl.fontys.algorithms;
+
+/**
+ * Thrown when the checksum of a block of compressed data does not match the checksum that has been stored next to it.
+ */
+public class ChecksumMismatchException extends CorruptedDataException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int block;
+
+    /**
+     * Constructor for this class.
+     * @param block The index of the damaged block, where -1 refers to the header.
+     */
+    public ChecksumMismatchException(final int block) {
+        super(block < 0 ? "The checksum of the header does not match." : "The checksum of block " + block + " does not match.");
+
+        this.block = block;
+    }
+
+    /**
+     * @return Returns the index of the damaged block, or -1 when the header is damaged.
+     */
+    public int getBlock() {
+        return block;
+    }
+}
@@ -0,0 +1,111 @@
+package nl.fontys.algorithms;
+
+import nl.fontys.utilities.BitWriter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * The buffers that a single thread reuses for every call to a codec, together with the layout of the encoded bytes that every codec shares.
+ * The encoded bytes consist of the amount of symbols and the amount of encoded bits, followed by the encoded bits themselves.
+ * The buffers only ever grow.
+ */
+final class CodecScratch {
+
+    static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+    /* The scratch buffers don't depend on the code, so a single set per thread is shared by every codec. */
+    private static final ThreadLocal<CodecScratch> SCRATCH = ThreadLocal.withInitial(CodecScratch::new);
+
+    private BitWriter bitWriter;
+    private long[] words = new long[0];
+
+    private CodecScratch() { }
+
+    /**
+     * @return Returns the scratch buffers of the current thread.
+     */
+    static CodecScratch get() {
+        return SCRATCH.get();
+    }
+
+    /**
+     * @param symbolCount The amount of symbols that will be written, which is used as the initial capacity of a new BitWriter.
+     * @return Returns an empty BitWriter.
+     */
+    BitWriter getBitWriter(final int symbolCount) {
+        if (bitWriter == null) {
+            bitWriter = new BitWriter(symbolCount);
+        }
+        bitWriter.reset();
+        return bitWriter;
+    }
+
+    /**
+     * This method will read the remaining bytes of the given ByteBuffer as little-endian words.
+     * The words after the encoded bits are cleared, as a decoder may peek past the last bit.
+     * @return Returns the words. The array may be longer than the encoded bits.
+     */
+    long[] getWords(final ByteBuffer byteBuffer, final long bitCount) {
+        final int wordCount = (int) ((bitCount + 63) / 64) + 1;
+        if (words.length < wordCount) {
+            words = new long[Math.max(wordCount, words.length * 2)];
+        } else {
+            Arrays.fill(words, 0, wordCount, 0L);
+        }
+
+        byteBuffer.order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; byteBuffer.remaining() > 0; i++) {
+            if (byteBuffer.remaining() >= 8) {
+                words[i] = byteBuffer.getLong();
+            } else {
+                for (int shift = 0; byteBuffer.remaining() > 0; shift += 8) {
+                    words[i] |= (byteBuffer.get() & 0xFFL) << shift;
+                }
+            }
+        }
+        return words;
+    }
+
+    /**
+     * This method will put the header and the bits of the given BitWriter into a new byte array, after the given amount of reserved bytes.
+     */
+    static byte[] toEncodedBytes(final int reserved, final int symbolCount, final BitWriter bitWriter) {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(reserved + HEADER_SIZE + (int) ((bitWriter.getBitCount() + 7) / 8));
+        byteBuffer.position(reserved);
+        byteBuffer.putInt(symbolCount);
+        byteBuffer.putLong(bitWriter.getBitCount());
+        bitWriter.writeTo(byteBuffer);
+        return byteBuffer.array();
+    }
+
+    /**
+     * This method will read the amount of symbols from the header of the given encoded bytes.
+     */
+    static int readSymbolCount(final ByteBuffer byteBuffer) throws IOException {
+        if (byteBuffer.remaining() < HEADER_SIZE) throw new CorruptedDataException("The encoded bytes are too short to contain a header.");
+
+        final int symbolCount = byteBuffer.getInt();
+        if (symbolCount < 0) throw new CorruptedDataException("The encoded bytes contain an invalid amount of symbols.");
+        return symbolCount;
+    }
+
+    /**
+     * This method will read the amount of bits from the header of the given encoded bytes and will check that all of them are present.
+     */
+    static long readBitCount(final ByteBuffer byteBuffer) throws IOException {
+        final long bitCount = byteBuffer.getLong();
+        if (bitCount < 0 || (bitCount + 7) / 8 != byteBuffer.remaining()) throw new CorruptedDataException("The encoded bytes do not contain " + bitCount + " bits.");
+        return bitCount;
+    }
+
+    /**
+     * This method will check that the given amount of symbols can be encoded within the given amount of bits, for a code in which every symbol takes at least a single bit.
+     * A damaged header could otherwise make the decoder allocate an output for far more symbols than the encoded bytes can hold.
+     */
+    static void checkSymbolCount(final int symbolCount, final long bitCount) throws IOException {
+        if (symbolCount > bitCount) throw new CorruptedDataException("The encoded bytes contain " + symbolCount + " symbols within " + bitCount + " bits, while every symbol takes at least a single bit.");
+    }
+}
@@ -0,0 +1,184 @@
+package nl.fontys.algorithms;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the cumulative metrics of every compression and decompression that is recorded by it.
+ * The counters are adders instead of locks or atomics, so that any number of threads can record their calls without contending with each other.
+ * The metrics can be exposed over JMX by registering an instance with the register method.
+ */
+public class CompressionMetrics implements CompressionMetricsMBean {
+
+    public static final String DOMAIN = "nl.fontys.algorithms";
+
+    private static final CompressionMetrics DEFAULT = new CompressionMetrics();
+
+    private final LongAdder compressions = new LongAdder();
+    private final LongAdder decompressions = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder decompressedBytes = new LongAdder();
+    private final LongAdder symbolCount = new LongAdder();
+    private final LongAdder encodedBitCount = new LongAdder();
+    private final DoubleAdder entropyBitCount = new DoubleAdder();
+
+    private final LongAdder countNanos = new LongAdder();
+    private final LongAdder treeBuildNanos = new LongAdder();
+    private final LongAdder encodeNanos = new LongAdder();
+    private final LongAdder writeNanos = new LongAdder();
+    private final LongAdder readNanos = new LongAdder();
+    private final LongAdder decodeNanos = new LongAdder();
+
+    /**
+     * @return Returns the instance that every compression class records to, unless it has been given its own instance. The static methods of HuffmanStreams always record to it.
+     */
+    public static CompressionMetrics getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * This method will add the given compression to the metrics.
+     * @param report The report of the compression. This parameter is not allowed to be null.
+     */
+    public void record(final CompressionReport report) {
+        if (report == null) throw new IllegalArgumentException("The report is not allowed to be null.");
+
+        compressions.increment();
+        bytesIn.add(report.getBytesIn());
+        bytesOut.add(report.getBytesOut());
+        symbolCount.add(report.getSymbolCount());
+        encodedBitCount.add(report.getEncodedBitCount());
+        entropyBitCount.add(report.getEntropyBitCount());
+        countNanos.add(report.getCountNanos());
+        treeBuildNanos.add(report.getTreeBuildNanos());
+        encodeNanos.add(report.getEncodeNanos());
+        writeNanos.add(report.getWriteNanos());
+    }
+
+    /**
+     * This method will add a decompression to the metrics.
+     *
+     * @param bytes  The size of the decompressed text or bytes.
+     * @param read   The time in nanoseconds that has been spent on reading and verifying the compressed file.
+     * @param decode The time in nanoseconds that has been spent on decoding the symbols.
+     */
+    public void recordDecompression(final long bytes, final long read, final long decode) {
+        decompressions.increment();
+        decompressedBytes.add(bytes);
+        readNanos.add(read);
+        decodeNanos.add(decode);
+    }
+
+    /**
+     * This method will register this instance with the platform MBeanServer, under the DOMAIN and the given name.
+     *
+     * @param name The name that this instance should be registered as. This parameter is not allowed to be null nor an empty String.
+     * @return Returns the ObjectName that this instance has been registered as.
+     * @throws JMException Thrown when this instance could not be registered, for example because the name is already in use.
+     */
+    public ObjectName register(final String name) throws JMException {
+        if (name == null || name.isEmpty()) throw new IllegalArgumentException("The name is not allowed to be null nor an empty String.");
+
+        final ObjectName objectName = new ObjectName(DOMAIN + ":type=CompressionMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    @Override
+    public long getCompressions() {
+        return compressions.sum();
+    }
+
+    @Override
+    public long getDecompressions() {
+        return decompressions.sum();
+    }
+
+    @Override
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    @Override
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    @Override
+    public long getDecompressedBytes() {
+        return decompressedBytes.sum();
+    }
+
+    @Override
+    public double getCompressionRatio() {
+        final long out = bytesOut.sum();
+        return out == 0 ? 0 : (double) bytesIn.sum() / out;
+    }
+
+    @Override
+    public double getAverageCodeLength() {
+        final long symbols = symbolCount.sum();
+        return symbols == 0 ? 0 : (double) encodedBitCount.sum() / symbols;
+    }
+
+    @Override
+    public double getEntropy() {
+        final long symbols = symbolCount.sum();
+        return symbols == 0 ? 0 : entropyBitCount.sum() / symbols;
+    }
+
+    @Override
+    public long getCountNanos() {
+        return countNanos.sum();
+    }
+
+    @Override
+    public long getTreeBuildNanos() {
+        return treeBuildNanos.sum();
+    }
+
+    @Override
+    public long getEncodeNanos() {
+        return encodeNanos.sum();
+    }
+
+    @Override
+    public long getWriteNanos() {
+        return writeNanos.sum();
+    }
+
+    @Override
+    public long getReadNanos() {
+        return readNanos.sum();
+    }
+
+    @Override
+    public long getDecodeNanos() {
+        return decodeNanos.sum();
+    }
+
+    /**
+     * This method will set every metric back to 0. Calls that are recorded while the metrics are reset may be partially kept.
+     */
+    @Override
+    public void reset() {
+        compressions.reset();
+        decompressions.reset();
+        bytesIn.reset();
+        bytesOut.reset();
+        decompressedBytes.reset();
+        symbolCount.reset();
+        encodedBitCount.reset();
+        entropyBitCount.reset();
+        countNanos.reset();
+        treeBuildNanos.reset();
+        encodeNanos.reset();
+        writeNanos.reset();
+        readNanos.reset();
+        decodeNanos.reset();
+    }
+}
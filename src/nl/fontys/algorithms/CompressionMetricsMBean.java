@@ -0,0 +1,38 @@
+package nl.fontys.algorithms;
+
+/**
+ * The management interface of the CompressionMetrics class, through which the cumulative metrics can be read over JMX.
+ * Every time is the total in nanoseconds over every recorded call.
+ */
+public interface CompressionMetricsMBean {
+
+    long getCompressions();
+
+    long getDecompressions();
+
+    long getBytesIn();
+
+    long getBytesOut();
+
+    long getDecompressedBytes();
+
+    double getCompressionRatio();
+
+    double getAverageCodeLength();
+
+    double getEntropy();
+
+    long getCountNanos();
+
+    long getTreeBuildNanos();
+
+    long getEncodeNanos();
+
+    long getWriteNanos();
+
+    long getReadNanos();
+
+    long getDecodeNanos();
+
+    void reset();
+}
@@ -0,0 +1,189 @@
+package nl.fontys.algorithms;
+
+/**
+ * The measurements of a single compression. A report never changes once it has been created.
+ */
+public class CompressionReport {
+
+    private final long bytesIn;
+    private final long bytesOut;
+    private final long symbolCount;
+    private final long encodedBitCount;
+    private final long unlimitedBitCount;
+    private final double entropyBitCount;
+
+    private final long countNanos;
+    private final long treeBuildNanos;
+    private final long encodeNanos;
+    private final long writeNanos;
+
+    /**
+     * Constructor for this class.
+     *
+     * @param bytesIn         The size of the original text or bytes.
+     * @param bytesOut        The size of the compressed file, including its header.
+     * @param symbolCount     The amount of symbols that have been encoded.
+     * @param encodedBitCount The amount of bits that the symbols have been encoded into, excluding the header.
+     * @param entropyBitCount The amount of bits that the symbols would take up at their entropy, which is the least that any code can achieve.
+     * @param countNanos      The time that has been spent on counting the frequencies.
+     * @param treeBuildNanos  The time that has been spent on building the code.
+     * @param encodeNanos     The time that has been spent on encoding the symbols.
+     * @param writeNanos      The time that has been spent on writing the compressed file.
+     */
+    CompressionReport(final long bytesIn, final long bytesOut, final long symbolCount, final long encodedBitCount, final double entropyBitCount,
+                      final long countNanos, final long treeBuildNanos, final long encodeNanos, final long writeNanos) {
+        this(bytesIn, bytesOut, symbolCount, encodedBitCount, encodedBitCount, entropyBitCount, countNanos, treeBuildNanos, encodeNanos, writeNanos);
+    }
+
+    /**
+     * Constructor for this class, for a compression of which the code lengths have been limited.
+     *
+     * @param bytesIn           The size of the original text or bytes.
+     * @param bytesOut          The size of the compressed file, including its header.
+     * @param symbolCount       The amount of symbols that have been encoded.
+     * @param encodedBitCount   The amount of bits that the symbols have been encoded into, excluding the header.
+     * @param unlimitedBitCount The amount of bits that the symbols would have been encoded into without the limit on the code length.
+     * @param entropyBitCount   The amount of bits that the symbols would take up at their entropy, which is the least that any code can achieve.
+     * @param countNanos        The time that has been spent on counting the frequencies.
+     * @param treeBuildNanos    The time that has been spent on building the code.
+     * @param encodeNanos       The time that has been spent on encoding the symbols.
+     * @param writeNanos        The time that has been spent on writing the compressed file.
+     */
+    CompressionReport(final long bytesIn, final long bytesOut, final long symbolCount, final long encodedBitCount, final long unlimitedBitCount, final double entropyBitCount,
+                      final long countNanos, final long treeBuildNanos, final long encodeNanos, final long writeNanos) {
+        this.bytesIn = bytesIn;
+        this.bytesOut = bytesOut;
+        this.symbolCount = symbolCount;
+        this.encodedBitCount = encodedBitCount;
+        this.unlimitedBitCount = unlimitedBitCount;
+        this.entropyBitCount = entropyBitCount;
+        this.countNanos = countNanos;
+        this.treeBuildNanos = treeBuildNanos;
+        this.encodeNanos = encodeNanos;
+        this.writeNanos = writeNanos;
+    }
+
+    /**
+     * @return Returns the size of the original text or bytes.
+     */
+    public long getBytesIn() {
+        return bytesIn;
+    }
+
+    /**
+     * @return Returns the size of the compressed file, including its header.
+     */
+    public long getBytesOut() {
+        return bytesOut;
+    }
+
+    /**
+     * @return Returns the amount of symbols that have been encoded.
+     */
+    public long getSymbolCount() {
+        return symbolCount;
+    }
+
+    /**
+     * @return Returns the amount of bits that the symbols have been encoded into, excluding the header.
+     */
+    public long getEncodedBitCount() {
+        return encodedBitCount;
+    }
+
+    /**
+     * @return Returns the amount of bits that the symbols would have been encoded into without the limit on the code length.
+     *         Equals the encoded bit count when the code lengths have not been limited, or when the limit did not change them.
+     */
+    public long getUnlimitedBitCount() {
+        return unlimitedBitCount;
+    }
+
+    /**
+     * @return Returns the amount of bits that the limit on the code length has added to the encoded bits.
+     */
+    public long getLengthLimitCost() {
+        return encodedBitCount - unlimitedBitCount;
+    }
+
+    /**
+     * @return Returns the size of the original text or bytes divided by the size of the compressed file.
+     */
+    public double getCompressionRatio() {
+        return bytesOut == 0 ? 0 : (double) bytesIn / bytesOut;
+    }
+
+    /**
+     * @return Returns the average length of a code in bits.
+     */
+    public double getAverageCodeLength() {
+        return symbolCount == 0 ? 0 : (double) encodedBitCount / symbolCount;
+    }
+
+    /**
+     * @return Returns the entropy of the symbols in bits per symbol. The average code length of a Huffman code is less than 1 bit above it.
+     */
+    public double getEntropy() {
+        return symbolCount == 0 ? 0 : entropyBitCount / symbolCount;
+    }
+
+    /**
+     * @return Returns the time in nanoseconds that has been spent on counting the frequencies.
+     */
+    public long getCountNanos() {
+        return countNanos;
+    }
+
+    /**
+     * @return Returns the time in nanoseconds that has been spent on building the code.
+     */
+    public long getTreeBuildNanos() {
+        return treeBuildNanos;
+    }
+
+    /**
+     * @return Returns the time in nanoseconds that has been spent on encoding the symbols.
+     */
+    public long getEncodeNanos() {
+        return encodeNanos;
+    }
+
+    /**
+     * @return Returns the time in nanoseconds that has been spent on writing the compressed file.
+     */
+    public long getWriteNanos() {
+        return writeNanos;
+    }
+
+    /**
+     * @return Returns the amount of bits that the symbols would take up at their entropy.
+     */
+    double getEntropyBitCount() {
+        return entropyBitCount;
+    }
+
+    /**
+     * This method will calculate how many bits the symbols with the given frequencies take up at their entropy.
+     *
+     * @param frequencies The frequency of every symbol. This parameter is not allowed to be null.
+     * @return Returns the sum of the frequency times the amount of information of a single occurrence of every symbol.
+     */
+    static double getEntropyBitCount(final long[] frequencies) {
+        long total = 0;
+        for (final long frequency : frequencies) {
+            total += frequency;
+        }
+
+        double entropyBitCount = 0;
+        for (final long frequency : frequencies) {
+            if (frequency > 0) entropyBitCount += frequency * (Math.log((double) total / frequency) / Math.log(2));
+        }
+        return entropyBitCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d bytes in, %d bytes out, ratio %.4f, %.4f bits per symbol against an entropy of %.4f, count %d ns, tree %d ns, encode %d ns, write %d ns",
+                bytesIn, bytesOut, getCompressionRatio(), getAverageCodeLength(), getEntropy(), countNanos, treeBuildNanos, encodeNanos, writeNanos);
+    }
+}
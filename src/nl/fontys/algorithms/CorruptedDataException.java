@@ -0,0 +1,29 @@
+package nl.fontys.algorithms;
+
+import java.io.IOException;
+
+/**
+ * Thrown when compressed data has been recognised, but is damaged or truncated.
+ * This includes a checksum that does not match, a header that contains impossible values and data that ends before all of its bits have been read.
+ */
+public class CorruptedDataException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor for this class.
+     * @param message The message that describes the damage.
+     */
+    public CorruptedDataException(final String message) {
+        super(message);
+    }
+
+    /**
+     * Constructor for this class.
+     * @param message The message that describes the damage.
+     * @param cause   The exception that revealed the damage.
+     */
+    public CorruptedDataException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,76 @@
+package nl.fontys.algorithms;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * The entropy coders that bytes can be compressed with. The ID of a backend is stored within the compressed bytes,
+ * so that they can be decompressed without knowing the backend up front.
+ */
+public enum EntropyBackend {
+    /* Prefix codes that cost at least a single bit per byte, but that need the smallest model. */
+    HUFFMAN(1) {
+        @Override
+        public EntropyCodec createCodec(final long[] frequencies) {
+            return new HuffmanCodec(HuffmanStreams.buildCode(frequencies, false));
+        }
+
+        @Override
+        public EntropyCodec readCodec(final DataInputStream inputStream) throws IOException {
+            return new HuffmanCodec(CanonicalHuffmanCode.readFrom(inputStream));
+        }
+    },
+    /* Table-based asymmetric numeral systems, which spend a fractional amount of bits per byte and come close to the entropy of skewed distributions. */
+    TANS(2) {
+        @Override
+        public EntropyCodec createCodec(final long[] frequencies) {
+            return TansCodec.fromFrequencies(frequencies);
+        }
+
+        @Override
+        public EntropyCodec readCodec(final DataInputStream inputStream) throws IOException {
+            return TansCodec.readFrom(inputStream);
+        }
+    };
+
+    private final int id;
+
+    EntropyBackend(final int id) {
+        this.id = id;
+    }
+
+    /**
+     * This method will create a codec for the given frequency model.
+     *
+     * @param frequencies The frequency of every byte, indexed by the byte itself. This parameter is not allowed to be null.
+     * @return Returns a codec that can encode every byte with a frequency above 0.
+     */
+    public abstract EntropyCodec createCodec(long[] frequencies);
+
+    /**
+     * This method will read a codec of this backend, of which the model has been written by the writeModelTo method.
+     *
+     * @param inputStream The stream that the model should be read from. This parameter is not allowed to be null.
+     * @return Returns the codec.
+     * @throws IOException Thrown when the model could not be read from the given stream.
+     */
+    public abstract EntropyCodec readCodec(DataInputStream inputStream) throws IOException;
+
+    /**
+     * @return Returns the ID by which this backend is stored.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @param id The ID of a backend.
+     * @return Returns the backend with the given ID, or null when there is no backend with the given ID.
+     */
+    public static EntropyBackend fromId(final int id) {
+        for (final EntropyBackend backend : values()) {
+            if (backend.id == id) return backend;
+        }
+        return null;
+    }
+}
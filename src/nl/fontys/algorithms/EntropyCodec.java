@@ -0,0 +1,42 @@
+package nl.fontys.algorithms;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * An encoder and decoder for bytes that has been built from a frequency model.
+ * Every implementation is immutable, so a single codec can be shared by any number of threads.
+ */
+public interface EntropyCodec {
+
+    /**
+     * @return Returns the backend that this codec belongs to.
+     */
+    EntropyBackend getBackend();
+
+    /**
+     * This method will encode the given bytes.
+     *
+     * @param bytes The bytes that should be encoded. Every byte should be part of the model of this codec.
+     *              This parameter is not allowed to be null.
+     * @return Returns the encoded bytes.
+     */
+    byte[] encodeBytes(byte[] bytes);
+
+    /**
+     * This method will decode bytes that have been encoded by the encodeBytes method of a codec with the same model.
+     *
+     * @param encoded The encoded bytes. This parameter is not allowed to be null.
+     * @return Returns the decoded bytes.
+     * @throws IOException Thrown when the given bytes are not valid encoded bytes.
+     */
+    byte[] decodeBytes(byte[] encoded) throws IOException;
+
+    /**
+     * This method will write the model of this codec, so that EntropyBackend.readCodec can create the same codec from it.
+     *
+     * @param outputStream The stream that the model should be written to. This parameter is not allowed to be null.
+     * @throws IOException Thrown when the model could not be written to the given stream.
+     */
+    void writeModelTo(DataOutputStream outputStream) throws IOException;
+}
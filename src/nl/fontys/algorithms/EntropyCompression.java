@@ -0,0 +1,173 @@
+package nl.fontys.algorithms;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * Compresses bytes with a chosen entropy backend. The ID of the backend and the model of its codec are stored within the compressed bytes,
+ * so the bytes can be decompressed by any instance, regardless of the backend that it compresses with.
+ * <p>
+ * The compressed bytes consist of a magic number, the format version and the ID of the backend, followed by the model and the encoded bytes of the codec.
+ * The compressed bytes end with the CRC32 checksum of everything before it, which is verified before anything is decoded.
+ * Every compression and decompression is recorded to a CompressionMetrics instance.
+ */
+public class EntropyCompression {
+
+    public static final int MAGIC = 0x48554645;
+    public static final int FORMAT_VERSION = 1;
+
+    /* The magic number, the format version and the ID of the backend precede the model, while the checksum follows the encoded bytes. */
+    private static final int HEADER_SIZE = Integer.BYTES + 2;
+    private static final int CHECKSUM_SIZE = Integer.BYTES;
+
+    private final EntropyBackend backend;
+    private final CompressionMetrics metrics;
+
+    /**
+     * Constructor for this class. Bytes will be compressed with the Huffman backend.
+     */
+    public EntropyCompression() {
+        this(EntropyBackend.HUFFMAN);
+    }
+
+    /**
+     * Constructor for this class.
+     * @param backend The backend that bytes should be compressed with. This parameter is not allowed to be null.
+     */
+    public EntropyCompression(final EntropyBackend backend) {
+        this(backend, CompressionMetrics.getDefault());
+    }
+
+    /**
+     * Constructor for this class.
+     * @param backend The backend that bytes should be compressed with. This parameter is not allowed to be null.
+     * @param metrics The metrics that every compression and decompression should be recorded to. This parameter is not allowed to be null.
+     */
+    public EntropyCompression(final EntropyBackend backend, final CompressionMetrics metrics) {
+        if (backend == null) throw new IllegalArgumentException("The backend is not allowed to be null.");
+        else if (metrics == null) throw new IllegalArgumentException("The metrics are not allowed to be null.");
+
+        this.backend = backend;
+        this.metrics = metrics;
+    }
+
+    /**
+     * This method will compress the given bytes.
+     *
+     * @param bytes The bytes that should be compressed. This parameter is not allowed to be null.
+     * @return Returns the compressed bytes.
+     */
+    public byte[] compress(final byte[] bytes) {
+        if (bytes == null) throw new IllegalArgumentException("The bytes are not allowed to be null.");
+
+        final long start = System.nanoTime();
+        final long[] frequencies = new long[Alphabet.BINARY.getSize()];
+        for (final byte b : bytes) {
+            frequencies[b & 0xFF]++;
+        }
+
+        final long counted = System.nanoTime();
+        final EntropyCodec codec = backend.createCodec(frequencies);
+
+        final long built = System.nanoTime();
+        final byte[] encoded = codec.encodeBytes(bytes);
+
+        final long encodedAt = System.nanoTime();
+        try {
+            final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(encoded.length + 1024);
+            final DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+            final CRC32 checksum = new CRC32();
+
+            dataOutputStream.writeInt(MAGIC);
+            dataOutputStream.writeByte(FORMAT_VERSION);
+            dataOutputStream.writeByte(backend.getId());
+            codec.writeModelTo(dataOutputStream);
+            dataOutputStream.write(encoded);
+
+            checksum.update(byteArrayOutputStream.toByteArray());
+            dataOutputStream.writeInt((int) checksum.getValue());
+
+            /* Every codec starts its encoded bytes with the amount of symbols, followed by the amount of encoded bits. */
+            final byte[] compressed = byteArrayOutputStream.toByteArray();
+            final long encodedBitCount = ByteBuffer.wrap(encoded).getLong(Integer.BYTES);
+            metrics.record(new CompressionReport(bytes.length, compressed.length, bytes.length, encodedBitCount, CompressionReport.getEntropyBitCount(frequencies),
+                    counted - start, built - counted, encodedAt - built, System.nanoTime() - encodedAt));
+            return compressed;
+        } catch (IOException e) {
+            throw new IllegalStateException("A ByteArrayOutputStream is not able to throw an IOException.", e);
+        }
+    }
+
+    /**
+     * This method will decompress bytes that have been compressed by the compress method, with any backend.
+     *
+     * @param compressed The compressed bytes. This parameter is not allowed to be null.
+     * @return Returns the decompressed bytes.
+     * @throws UnsupportedFormatException Thrown when the given bytes are not compressed bytes, or have been compressed in an unsupported format version or with an unknown backend.
+     * @throws CorruptedDataException Thrown when the given bytes are damaged or not complete.
+     * @throws IOException Thrown when the given bytes are not valid compressed bytes.
+     */
+    public byte[] decompress(final byte[] compressed) throws IOException {
+        final long start = System.nanoTime();
+        final EntropyBackend compressedBackend = readBackend(compressed);
+        if (compressed.length < HEADER_SIZE + CHECKSUM_SIZE) throw new CorruptedDataException("The compressed bytes are too short to contain a header and a checksum.");
+
+        final int contentLength = compressed.length - CHECKSUM_SIZE;
+        final CRC32 checksum = new CRC32();
+        checksum.update(compressed, 0, contentLength);
+        if ((int) checksum.getValue() != ByteBuffer.wrap(compressed).getInt(contentLength)) throw new ChecksumMismatchException(0);
+
+        final ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(compressed, HEADER_SIZE, contentLength - HEADER_SIZE);
+        final DataInputStream dataInputStream = new DataInputStream(byteArrayInputStream);
+        final EntropyCodec codec;
+        try {
+            codec = compressedBackend.readCodec(dataInputStream);
+        } catch (EOFException e) {
+            throw new CorruptedDataException("The compressed bytes end before the model has been read.", e);
+        }
+        final byte[] encoded = new byte[byteArrayInputStream.available()];
+        dataInputStream.readFully(encoded);
+
+        final long read = System.nanoTime();
+        final byte[] bytes = codec.decodeBytes(encoded);
+        metrics.recordDecompression(bytes.length, read - start, System.nanoTime() - read);
+        return bytes;
+    }
+
+    /**
+     * This method will return the backend that the given bytes have been compressed with.
+     *
+     * @param compressed The compressed bytes. This parameter is not allowed to be null.
+     * @return Returns the backend that the given bytes have been compressed with.
+     * @throws UnsupportedFormatException Thrown when the given bytes are not compressed bytes, or have been compressed in an unsupported format version or with an unknown backend.
+     * @throws CorruptedDataException Thrown when the given bytes are too short to contain the ID of the backend.
+     */
+    public static EntropyBackend readBackend(final byte[] compressed) throws IOException {
+        if (compressed == null) throw new IllegalArgumentException("The compressed bytes are not allowed to be null.");
+        else if (compressed.length < HEADER_SIZE) throw new CorruptedDataException("The compressed bytes are too short to contain a header.");
+
+        final ByteBuffer byteBuffer = ByteBuffer.wrap(compressed);
+        if (byteBuffer.getInt() != MAGIC) throw new UnsupportedFormatException("The bytes do not start with the magic number of compressed bytes.");
+
+        final int version = byteBuffer.get() & 0xFF;
+        if (version != FORMAT_VERSION) throw new UnsupportedFormatException("The bytes have been compressed with format version " + version + ", while only version " + FORMAT_VERSION + " is supported.");
+
+        final int id = byteBuffer.get() & 0xFF;
+        final EntropyBackend backend = EntropyBackend.fromId(id);
+        if (backend == null) throw new UnsupportedFormatException("The bytes have been compressed with an unknown backend " + id + ".");
+        return backend;
+    }
+
+    /**
+     * @return Returns the backend that this instance compresses with.
+     */
+    public EntropyBackend getBackend() {
+        return backend;
+    }
+}
@@ -0,0 +1,205 @@
+package nl.fontys.algorithms;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * The framing that is shared by the HuffmanInputStream and AdaptiveHuffmanInputStream classes, which reads a stream that has been written by a FramedOutputStream.
+ * Only a single frame is held in memory at a time. The checksum of every frame is verified before the frame is decoded, so nothing is decoded from damaged bits.
+ */
+abstract class FramedInputStream extends InputStream {
+
+    /**
+     * Reads the part of the header that belongs to a subclass.
+     *
+     * @param <T> The type of the header.
+     */
+    interface HeaderReader<T> {
+
+        /**
+         * @param inputStream The InputStream that the header should be read from.
+         * @return Returns the header that has been read.
+         * @throws IOException Thrown when the header could not be read or is not valid.
+         */
+        T readFrom(DataInputStream inputStream) throws IOException;
+    }
+
+    private final DataInputStream inputStream;
+    private final CRC32 checksum = new CRC32();
+
+    /* A frame encodes at most the frame size in bytes, so it can't hold more bits than that many codes of the maximum length. */
+    private int frameSize;
+    private int maxFrameBits;
+
+    private byte[] frame = new byte[0];
+    private long[] words = new long[0];
+    private byte[] decoded = new byte[0];
+    private int decodedSize;
+    private int decodedPosition;
+    private int frameIndex;
+    private boolean finished;
+
+    /**
+     * Constructor for this class. Nothing is read until the subclass reads its header.
+     *
+     * @param inputStream The InputStream that the encoded bytes should be read from.
+     *                    This parameter is not allowed to be null.
+     */
+    FramedInputStream(final InputStream inputStream) {
+        if (inputStream == null) throw new IllegalArgumentException("The inputStream is not allowed to be null.");
+
+        this.inputStream = new DataInputStream(inputStream);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (decodedPosition == decodedSize && !readFrame()) return -1;
+
+        return decoded[decodedPosition++] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+        if (bytes == null) throw new IllegalArgumentException("The bytes are not allowed to be null.");
+        else if (offset < 0 || length < 0 || offset + length > bytes.length) throw new IndexOutOfBoundsException();
+        else if (length == 0) return 0;
+
+        if (decodedPosition == decodedSize && !readFrame()) return -1;
+
+        final int count = Math.min(length, decodedSize - decodedPosition);
+        System.arraycopy(decoded, decodedPosition, bytes, offset, count);
+        decodedPosition += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return decodedSize - decodedPosition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+
+    /**
+     * This method will read and verify the header of the stream. It should be called exactly once, from the constructor of the subclass.
+     *
+     * @param magic        The magic number that identifies the kind of stream.
+     * @param version      The format version that is supported.
+     * @param headerReader The HeaderReader that reads the part of the header that belongs to the subclass.
+     *                     This parameter is not allowed to be null.
+     * @param <T>          The type of the header of the subclass.
+     * @return Returns the header of the subclass.
+     * @throws UnsupportedFormatException Thrown when the InputStream does not contain this kind of stream, or one of a format version that is not supported.
+     * @throws CorruptedDataException Thrown when the header is damaged, ends too early or contains an invalid frame size.
+     * @throws IOException Thrown when the header could not be read.
+     */
+    final <T> T readHeader(final int magic, final int version, final HeaderReader<T> headerReader) throws IOException {
+        if (headerReader == null) throw new IllegalArgumentException("The headerReader is not allowed to be null.");
+
+        /* Every byte of the header passes through the checksum on its way from the InputStream. */
+        checksum.reset();
+        final DataInputStream headerInputStream = new DataInputStream(new CheckedInputStream(inputStream, checksum));
+        try {
+            if (headerInputStream.readInt() != magic) throw new UnsupportedFormatException("The stream does not start with the magic number of this kind of compressed stream.");
+
+            final int streamVersion = headerInputStream.readUnsignedByte();
+            if (streamVersion != version) throw new UnsupportedFormatException("The stream has been written with format version " + streamVersion + ", while only version " + version + " is supported.");
+
+            final int streamFrameSize = headerInputStream.readInt();
+            final T header = headerReader.readFrom(headerInputStream);
+            if ((int) checksum.getValue() != inputStream.readInt()) throw new ChecksumMismatchException(-1);
+            else if (streamFrameSize < 1 || streamFrameSize > FramedOutputStream.MAX_FRAME_SIZE) throw new CorruptedDataException("The stream contains a frame size of " + streamFrameSize + ", which is not valid.");
+
+            this.frameSize = streamFrameSize;
+            this.maxFrameBits = streamFrameSize * CanonicalHuffmanCode.MAX_CODE_LENGTH;
+            return header;
+        } catch (EOFException e) {
+            throw new CorruptedDataException("The stream ends before the whole header has been read.", e);
+        }
+    }
+
+    /**
+     * This method will decode the given frame.
+     *
+     * @param words    The words that contain the bits of the frame. The words after the frame only contain 0's.
+     * @param bitCount The amount of bits within the frame.
+     * @param decoded  The array that the decoded bytes should be written to, which can hold the frame size in bytes.
+     * @return Returns the amount of decoded bytes.
+     * @throws IOException Thrown when the frame is not valid.
+     */
+    abstract int decodeFrame(long[] words, int bitCount, byte[] decoded) throws IOException;
+
+    /**
+     * This method will read and decode the next frame.
+     * @return Returns true when a frame has been read, returns false when the end of the stream has been reached.
+     * @throws CorruptedDataException Thrown when the frame is damaged or the stream ends before its end has been read.
+     * @throws IOException Thrown when the frame could not be read.
+     */
+    private boolean readFrame() throws IOException {
+        if (finished) return false;
+
+        try {
+            return readFrameBits();
+        } catch (EOFException e) {
+            throw new CorruptedDataException("The stream ends before its end has been read.", e);
+        }
+    }
+
+    /**
+     * This method will read the next frame, verify its checksum and decode it. A frame that decodes into no bytes at all is rejected.
+     * @return Returns true when a frame has been read, returns false when the end of the stream has been reached.
+     * @throws IOException Thrown when the frame could not be read.
+     */
+    private boolean readFrameBits() throws IOException {
+        final int bitCount = inputStream.readInt();
+        if (bitCount == 0) {
+            finished = true;
+            return false;
+        }
+        if (bitCount < 0 || bitCount > maxFrameBits) throw new CorruptedDataException("The stream contains a frame of " + bitCount + " bits, which is not a valid frame.");
+
+        final int byteCount = (bitCount + 7) / 8;
+        final int wordCount = (byteCount + 7) / 8;
+
+        /* The buffers only grow up to the size of the largest frame, after which they're reused for every next frame. */
+        if (frame.length < wordCount * 8) {
+            frame = new byte[wordCount * 8];
+            words = new long[wordCount];
+        }
+        if (decoded.length < frameSize) {
+            decoded = new byte[frameSize];
+        }
+        inputStream.readFully(frame, 0, byteCount);
+
+        checksum.reset();
+        checksum.update(frame, 0, byteCount);
+        if ((int) checksum.getValue() != inputStream.readInt()) throw new ChecksumMismatchException(frameIndex);
+        frameIndex++;
+
+        Arrays.fill(frame, byteCount, wordCount * 8, (byte) 0);
+        ByteBuffer.wrap(frame, 0, wordCount * 8).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(words, 0, wordCount);
+
+        /* The decoding table may peek one word past the frame, which should not contain any bits of a previous frame. */
+        Arrays.fill(words, wordCount, Math.min(wordCount + 1, words.length), 0L);
+
+        try {
+            decodedSize = decodeFrame(words, bitCount, decoded);
+        } catch (IllegalStateException e) {
+            throw new CorruptedDataException(e.getMessage(), e);
+        }
+
+        /* An encoder never writes a frame without a whole code in it, and the reads would otherwise return the bytes of the previous frame again. */
+        if (decodedSize == 0) throw new CorruptedDataException("The stream contains a frame of " + bitCount + " bits that does not contain a single code.");
+        decodedPosition = 0;
+        return true;
+    }
+}
@@ -0,0 +1,201 @@
+package nl.fontys.algorithms;
+
+import nl.fontys.utilities.BitWriter;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * The framing that is shared by the HuffmanOutputStream and AdaptiveHuffmanOutputStream classes, which only differ in the code that encodes each byte.
+ * The stream starts with a magic number, the format version, the frame size and the header of the subclass, followed by the CRC32 checksum of those.
+ * The encoded bytes are written in frames of at most the frame size in bytes, so the memory usage does not depend on the amount of written bytes.
+ * A frame consists of its amount of encoded bits, the encoded bits themselves and the CRC32 checksum of the encoded bits. A frame with 0 bits marks the end of the stream.
+ */
+abstract class FramedOutputStream extends OutputStream {
+
+    /**
+     * Writes the part of the header that belongs to a subclass.
+     */
+    interface HeaderWriter {
+
+        /**
+         * @param outputStream The OutputStream that the header should be written to.
+         * @throws IOException Thrown when the header could not be written.
+         */
+        void writeTo(DataOutputStream outputStream) throws IOException;
+    }
+
+    public static final int FRAME_SIZE = 64 * 1024;
+    public static final int MAX_FRAME_SIZE = 16 * 1024 * 1024;
+
+    private final DataOutputStream outputStream;
+    private final int frameSize;
+    private final BitWriter bitWriter;
+
+    /* The bits of a frame pass through the checksum on their way to the OutputStream, so they don't have to be copied for it. */
+    private final CRC32 checksum = new CRC32();
+    private final OutputStream checkedOutputStream;
+
+    private int frameSymbols;
+    private long size;
+    private long encodedBitCount;
+    private boolean finished;
+    private boolean closed;
+
+    /**
+     * Constructor for this class. Nothing is written until the subclass writes its header.
+     *
+     * @param outputStream The OutputStream that the encoded bytes should be written to.
+     *                     This parameter is not allowed to be null.
+     * @param frameSize    The amount of bytes that a single frame encodes. Larger frames spend fewer bytes on their lengths and checksums,
+     *                     while smaller frames are written sooner and take less memory. This value should be between 1 and MAX_FRAME_SIZE.
+     */
+    FramedOutputStream(final OutputStream outputStream, final int frameSize) {
+        if (outputStream == null) throw new IllegalArgumentException("The outputStream is not allowed to be null.");
+        else if (frameSize < 1 || frameSize > MAX_FRAME_SIZE) throw new IllegalArgumentException("The frameSize should be between 1 and " + MAX_FRAME_SIZE + ".");
+
+        this.outputStream = new DataOutputStream(outputStream);
+        this.frameSize = frameSize;
+        this.bitWriter = new BitWriter(frameSize + 8);
+        this.checkedOutputStream = new CheckedOutputStream(this.outputStream, checksum);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        writeSymbol(b & 0xFF);
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+        if (bytes == null) throw new IllegalArgumentException("The bytes are not allowed to be null.");
+        else if (offset < 0 || length < 0 || offset + length > bytes.length) throw new IndexOutOfBoundsException();
+
+        for (int i = offset; i < offset + length; i++) {
+            writeSymbol(bytes[i] & 0xFF);
+        }
+    }
+
+    /**
+     * This method will write the current frame, even if it isn't full yet, and will flush the underlying OutputStream.
+     * @throws IOException Thrown when the frame could not be written.
+     */
+    @Override
+    public void flush() throws IOException {
+        writeFrame();
+        outputStream.flush();
+    }
+
+    /**
+     * This method will write the last frame and the end of the stream without closing the underlying OutputStream, which makes it possible to write more data after it.
+     * Nothing can be written to this stream afterwards.
+     * @throws IOException Thrown when the end of the stream could not be written.
+     */
+    public void finish() throws IOException {
+        if (finished) return;
+
+        finished = true;
+        writeFrame();
+        outputStream.writeInt(0);
+        outputStream.flush();
+        size += Integer.BYTES;
+    }
+
+    /**
+     * This method will write the last frame and the end of the stream, after which the underlying OutputStream will be closed.
+     * @throws IOException Thrown when the end of the stream could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+
+        closed = true;
+        try {
+            finish();
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    /**
+     * @return Returns the amount of bytes that have been written to the underlying OutputStream so far.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return Returns the amount of bits that the frames that have been written so far contain, excluding the header and the lengths and checksums of the frames.
+     */
+    public long getEncodedBitCount() {
+        return encodedBitCount;
+    }
+
+    /**
+     * This method will write the header of the stream. It should be called exactly once, from the constructor of the subclass.
+     *
+     * @param magic        The magic number that identifies the kind of stream.
+     * @param version      The format version of the stream.
+     * @param headerWriter The HeaderWriter that writes the part of the header that belongs to the subclass.
+     *                     This parameter is not allowed to be null.
+     * @throws IOException Thrown when the header could not be written.
+     */
+    final void writeHeader(final int magic, final int version, final HeaderWriter headerWriter) throws IOException {
+        if (headerWriter == null) throw new IllegalArgumentException("The headerWriter is not allowed to be null.");
+
+        /* Every byte of the header passes through the checksum on its way to the OutputStream. */
+        checksum.reset();
+        final DataOutputStream headerOutputStream = new DataOutputStream(checkedOutputStream);
+        headerOutputStream.writeInt(magic);
+        headerOutputStream.writeByte(version);
+        headerOutputStream.writeInt(frameSize);
+        headerWriter.writeTo(headerOutputStream);
+        outputStream.writeInt((int) checksum.getValue());
+        size = outputStream.size();
+    }
+
+    /**
+     * This method will encode a single symbol, which is called for every written byte.
+     *
+     * @param symbol The symbol that should be encoded.
+     * @throws IOException Thrown when a frame could not be written.
+     */
+    abstract void writeSymbol(int symbol) throws IOException;
+
+    /**
+     * This method will add the code of a single byte to the current frame, after which the frame is written once it holds the frame size in bytes.
+     * Frames only end between two codes, so that every frame can be decoded on its own.
+     *
+     * @param code   The bits of the code, where the first bit is stored in the least significant bit.
+     * @param length The amount of bits within the code.
+     * @throws IOException Thrown when the frame could not be written.
+     */
+    final void writeCode(final long code, final int length) throws IOException {
+        if (finished) throw new IllegalStateException("The stream has already been finished.");
+
+        bitWriter.write(code, length);
+        if (++frameSymbols == frameSize) {
+            writeFrame();
+        }
+    }
+
+    /**
+     * This method will write the current frame to the underlying OutputStream, if it contains any bits.
+     * @throws IOException Thrown when the frame could not be written.
+     */
+    final void writeFrame() throws IOException {
+        if (bitWriter.getBitCount() == 0) return;
+
+        outputStream.writeInt((int) bitWriter.getBitCount());
+        checksum.reset();
+        bitWriter.writeTo(checkedOutputStream);
+        outputStream.writeInt((int) checksum.getValue());
+
+        size += Integer.BYTES * 2 + (bitWriter.getBitCount() + 7) / 8;
+        encodedBitCount += bitWriter.getBitCount();
+        bitWriter.reset();
+        frameSymbols = 0;
+    }
+}
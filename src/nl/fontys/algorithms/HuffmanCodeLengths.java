@@ -0,0 +1,238 @@
+package nl.fontys.algorithms;
+
+import java.util.Arrays;
+
+public class HuffmanCodeLengths {
+
+    /* Symbols and frequencies are sorted together as a single long, with the symbol in the lowest bits. */
+    private static final int SYMBOL_BITS = 16;
+    private static final long MAX_FREQUENCY = (1L << (63 - SYMBOL_BITS)) - 1;
+
+    private HuffmanCodeLengths() { }
+
+    /**
+     * This method will calculate the length of the Huffman code of every symbol for the given frequencies.
+     *
+     * @param frequencies The frequency of every symbol, indexed by the symbol itself. There can be at most 65536 symbols.
+     *                    This parameter is not allowed to be null.
+     * @return Returns the code length of every symbol, indexed by the symbol itself. Symbols with a frequency of 0 get a length of 0.
+     * A single symbol gets a length of 1.
+     */
+    public static int[] compute(final long[] frequencies) {
+        return compute(frequencies, CanonicalHuffmanCode.MAX_CODE_LENGTH);
+    }
+
+    /**
+     * This method will calculate the length of the Huffman code of every symbol for the given frequencies, where no code is longer than the given maxLength.
+     *
+     * @param frequencies The frequency of every symbol, indexed by the symbol itself. There can be at most 65536 symbols.
+     *                    This parameter is not allowed to be null.
+     * @param maxLength   The maximum length of a code. 2^maxLength should be at least the amount of symbols with a frequency above 0.
+     * @return Returns the code length of every symbol, indexed by the symbol itself. Symbols with a frequency of 0 get a length of 0.
+     */
+    public static int[] compute(final long[] frequencies, final int maxLength) {
+        if (frequencies == null) throw new IllegalArgumentException("The frequencies are not allowed to be null.");
+        else if (frequencies.length > 1 << SYMBOL_BITS) throw new IllegalArgumentException("There can be at most " + (1 << SYMBOL_BITS) + " symbols.");
+
+        final long[] keys = new long[frequencies.length];
+        int count = 0;
+
+        for (int symbol = 0; symbol < frequencies.length; symbol++) {
+            if (frequencies[symbol] < 0 || frequencies[symbol] > MAX_FREQUENCY) throw new IllegalArgumentException("The frequency " + frequencies[symbol] + " is not supported.");
+            else if (frequencies[symbol] > 0) keys[count++] = (frequencies[symbol] << SYMBOL_BITS) | symbol;
+        }
+        Arrays.sort(keys, 0, count);
+
+        final int[] symbols = new int[count];
+        for (int i = 0; i < count; i++) {
+            symbols[i] = (int) (keys[i] & ((1 << SYMBOL_BITS) - 1));
+            keys[i] >>>= SYMBOL_BITS;
+        }
+        computeInPlace(keys, count, maxLength);
+
+        final int[] lengths = new int[frequencies.length];
+        for (int i = 0; i < count; i++) {
+            lengths[symbols[i]] = (int) keys[i];
+        }
+        return lengths;
+    }
+
+    /**
+     * This method will replace the given weights by the length of their Huffman code, where no code is longer than the given maxLength.
+     * Whenever the regular Huffman code would contain a longer code, the lengths are calculated by the package-merge algorithm instead,
+     * which gives the optimal code lengths within the given maximum.
+     *
+     * @param weights   The weights of the symbols, sorted in ascending order. Every weight should be above 0.
+     *                  This parameter is not allowed to be null.
+     * @param count     The amount of weights within the given array.
+     * @param maxLength The maximum length of a code. 2^maxLength should be at least the given count.
+     */
+    public static void computeInPlace(final long[] weights, final int count, final int maxLength) {
+        if (weights == null) throw new IllegalArgumentException("The weights are not allowed to be null.");
+        else if (count < 0 || count > weights.length) throw new IllegalArgumentException("The count does not match the given weights.");
+        else if (maxLength < 1 || maxLength > CanonicalHuffmanCode.MAX_CODE_LENGTH) throw new IllegalArgumentException("The maxLength should be between 1 and " + CanonicalHuffmanCode.MAX_CODE_LENGTH + ".");
+        else if (maxLength < 31 && count > 1 << maxLength) throw new IllegalArgumentException(count + " symbols do not fit within codes of at most " + maxLength + " bits.");
+
+        /* A tree of count leaves is never deeper than count - 1, so the regular algorithm can't exceed the maximum either. */
+        if (count - 1 <= maxLength) {
+            computeInPlace(weights, count);
+            return;
+        }
+
+        final long[] lengths = Arrays.copyOf(weights, count);
+        computeInPlace(lengths, count);
+
+        /* The lightest weight always gets the longest code. */
+        if (lengths[0] <= maxLength) {
+            System.arraycopy(lengths, 0, weights, 0, count);
+        } else {
+            packageMerge(weights, count, maxLength);
+        }
+    }
+
+    /**
+     * This method will calculate the encoded size in bits for the given weights and code lengths.
+     *
+     * @param weights The weights of the symbols. This parameter is not allowed to be null.
+     * @param lengths The code lengths of the symbols, in the same order as the weights. This parameter is not allowed to be null.
+     * @param count   The amount of symbols within the given arrays.
+     * @return Returns the sum of every weight multiplied by its code length.
+     */
+    public static long getEncodedBitCount(final long[] weights, final long[] lengths, final int count) {
+        if (weights == null || lengths == null) throw new IllegalArgumentException("The weights and lengths are not allowed to be null.");
+
+        long bitCount = 0;
+        for (int i = 0; i < count; i++) {
+            bitCount += weights[i] * lengths[i];
+        }
+        return bitCount;
+    }
+
+    /**
+     * This method will replace the given weights by the length of their Huffman code, without creating a single node or array.
+     * This is the in-place algorithm of Moffat and Katajainen. Because the weights are sorted, the leaves and the merged nodes each form a queue that
+     * is already in order, so the tree can be built by repeatedly taking the two lightest items from the front of either queue.
+     * The merged nodes are stored in the front of the array, which is no longer needed for leaves at that point.
+     *
+     * @param weights The weights of the symbols, sorted in ascending order. Every weight should be above 0.
+     *                This parameter is not allowed to be null.
+     * @param count   The amount of weights within the given array.
+     */
+    public static void computeInPlace(final long[] weights, final int count) {
+        if (weights == null) throw new IllegalArgumentException("The weights are not allowed to be null.");
+        else if (count < 0 || count > weights.length) throw new IllegalArgumentException("The count does not match the given weights.");
+
+        if (count == 0) return;
+        else if (count == 1) {
+            weights[0] = 1;
+            return;
+        }
+
+        /* The first pass merges the nodes from left to right. Every merged node refers to its parent by index once it has been merged itself. */
+        weights[0] += weights[1];
+        int root = 0;
+        int leaf = 2;
+
+        for (int next = 1; next < count - 1; next++) {
+            if (leaf >= count || weights[root] < weights[leaf]) {
+                weights[next] = weights[root];
+                weights[root++] = next;
+            } else {
+                weights[next] = weights[leaf++];
+            }
+
+            if (leaf >= count || (root < next && weights[root] < weights[leaf])) {
+                weights[next] += weights[root];
+                weights[root++] = next;
+            } else {
+                weights[next] += weights[leaf++];
+            }
+        }
+
+        /* The second pass turns every parent index into the depth of the merged node, from the root down. */
+        weights[count - 2] = 0;
+        for (int next = count - 3; next >= 0; next--) {
+            weights[next] = weights[(int) weights[next]] + 1;
+        }
+
+        /* The third pass counts the merged nodes per depth. Every available spot on a depth that isn't taken by a merged node is a leaf. */
+        int available = 1;
+        int used = 0;
+        int depth = 0;
+        root = count - 2;
+        int next = count - 1;
+
+        while (available > 0) {
+            while (root >= 0 && weights[root] == depth) {
+                used++;
+                root--;
+            }
+            while (available > used) {
+                weights[next--] = depth;
+                available--;
+            }
+            available = 2 * used;
+            depth++;
+            used = 0;
+        }
+    }
+
+    /**
+     * This method will replace the given weights by their optimal code lengths of at most maxLength bits, by the use of the package-merge algorithm.
+     * Every level of the tree gets a list that consists of the leaves merged with the packages of two items of the level below it, sorted by weight.
+     * Taking the lightest 2 * count - 2 items of the top level and following the selected packages down, the length of a code is the amount of
+     * levels in which its leaf has been selected. As the lightest leaves are always selected first, only the amount of selected leaves per level has to be known.
+     *
+     * @param weights   The weights of the symbols, sorted in ascending order.
+     * @param count     The amount of weights within the given array.
+     * @param maxLength The maximum length of a code.
+     */
+    private static void packageMerge(final long[] weights, final int count, final int maxLength) {
+        /* Level 0 is the deepest level and only holds the leaves. A flag per item tells whether the item is a package. */
+        final boolean[][] packages = new boolean[maxLength][];
+        long[] previous = Arrays.copyOf(weights, count);
+        int previousSize = count;
+        packages[0] = new boolean[count];
+
+        for (int level = 1; level < maxLength; level++) {
+            final int packageCount = previousSize / 2;
+            final long[] current = new long[count + packageCount];
+            final boolean[] isPackage = new boolean[count + packageCount];
+            int leaf = 0;
+            int pack = 0;
+
+            for (int i = 0; i < current.length; i++) {
+                final long packageWeight = pack < packageCount ? previous[2 * pack] + previous[2 * pack + 1] : Long.MAX_VALUE;
+
+                if (leaf < count && weights[leaf] <= packageWeight) {
+                    current[i] = weights[leaf++];
+                } else {
+                    current[i] = packageWeight;
+                    isPackage[i] = true;
+                    pack++;
+                }
+            }
+            packages[level] = isPackage;
+            previous = current;
+            previousSize = current.length;
+        }
+
+        final int[] lengths = new int[count];
+        int selected = 2 * count - 2;
+
+        for (int level = maxLength - 1; level >= 0; level--) {
+            int selectedLeaves = 0;
+            for (int i = 0; i < selected; i++) {
+                if (!packages[level][i]) selectedLeaves++;
+            }
+            for (int i = 0; i < selectedLeaves; i++) {
+                lengths[i]++;
+            }
+            selected = 2 * (selected - selectedLeaves);
+        }
+
+        for (int i = 0; i < count; i++) {
+            weights[i] = lengths[i];
+        }
+    }
+}
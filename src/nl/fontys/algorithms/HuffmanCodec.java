@@ -0,0 +1,222 @@
+package nl.fontys.algorithms;
+
+import nl.fontys.utilities.BitWriter;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * An immutable encoder and decoder for a single code, which is built once from a frequency model and can then be shared by any number of threads.
+ * Unlike HuffmanCompression, the code is not stored within the encoded bytes, which makes this codec suited for many small messages that share the same model.
+ * <p>
+ * Every thread gets its own scratch buffers, so encoding and decoding don't need any locks and don't create garbage beyond the result itself.
+ * The encoded bytes consist of the amount of symbols and the amount of encoded bits, followed by the encoded bits themselves.
+ */
+public class HuffmanCodec implements EntropyCodec {
+
+    private final CanonicalHuffmanCode code;
+    private final HuffmanDecodingTable decodingTable;
+
+    /**
+     * Constructor for this class.
+     * @param code The code that should be used for encoding and decoding. This parameter is not allowed to be null.
+     */
+    public HuffmanCodec(final CanonicalHuffmanCode code) {
+        if (code == null) throw new IllegalArgumentException("The code is not allowed to be null.");
+
+        this.code = code;
+
+        /* The table is built up front, so that the final field publishes it to every thread that uses this codec. */
+        this.decodingTable = code.getDecodingTable();
+    }
+
+    /**
+     * This method will create a codec for the given frequency model.
+     *
+     * @param frequencies The frequency of every symbol, indexed by the symbol itself. At least one symbol should have a frequency above 0.
+     *                    This parameter is not allowed to be null.
+     * @return Returns an object of the HuffmanCodec class that can encode every symbol with a frequency above 0.
+     */
+    public static HuffmanCodec fromFrequencies(final long[] frequencies) {
+        return new HuffmanCodec(CanonicalHuffmanCode.fromFrequencies(frequencies));
+    }
+
+    /**
+     * This method will create a codec for the given frequency model, where no code is longer than the given maxLength.
+     *
+     * @param frequencies The frequency of every symbol, indexed by the symbol itself. At least one symbol should have a frequency above 0.
+     *                    This parameter is not allowed to be null.
+     * @param maxLength   The maximum length of a code.
+     * @return Returns an object of the HuffmanCodec class that can encode every symbol with a frequency above 0.
+     */
+    public static HuffmanCodec fromFrequencies(final long[] frequencies, final int maxLength) {
+        return new HuffmanCodec(CanonicalHuffmanCode.fromFrequencies(frequencies, maxLength));
+    }
+
+    @Override
+    public EntropyBackend getBackend() {
+        return EntropyBackend.HUFFMAN;
+    }
+
+    /**
+     * This method will write the code of this codec.
+     *
+     * @param outputStream The stream that the code should be written to. This parameter is not allowed to be null.
+     * @throws IOException Thrown when the code could not be written to the given stream.
+     */
+    @Override
+    public void writeModelTo(final DataOutputStream outputStream) throws IOException {
+        code.writeTo(outputStream);
+    }
+
+    /**
+     * @return Returns the code that this codec encodes and decodes with.
+     */
+    public CanonicalHuffmanCode getCode() {
+        return code;
+    }
+
+    /**
+     * This method will encode the given text.
+     *
+     * @param text The text that should be encoded. Every character should have a code.
+     *             This parameter is not allowed to be null.
+     * @return Returns the encoded text.
+     */
+    public byte[] encode(final String text) {
+        if (text == null) throw new IllegalArgumentException("The text is not allowed to be null.");
+
+        final BitWriter bitWriter = CodecScratch.get().getBitWriter(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            write(bitWriter, text.charAt(i));
+        }
+        return CodecScratch.toEncodedBytes(0, text.length(), bitWriter);
+    }
+
+    /**
+     * This method will encode the given bytes.
+     *
+     * @param bytes The bytes that should be encoded. Every byte should have a code.
+     *              This parameter is not allowed to be null.
+     * @return Returns the encoded bytes.
+     */
+    @Override
+    public byte[] encodeBytes(final byte[] bytes) {
+        final BitWriter bitWriter = writeBytes(bytes);
+        return CodecScratch.toEncodedBytes(0, bytes.length, bitWriter);
+    }
+
+    /**
+     * This method will encode the given bytes without any header, so that a caller can store the amounts of bytes and bits in a layout of its own.
+     *
+     * @param bytes The bytes that should be encoded. Every byte should have a code.
+     *              This parameter is not allowed to be null.
+     * @return Returns the BitWriter of the current thread, which holds the encoded bits until the next call on this thread.
+     */
+    BitWriter writeBytes(final byte[] bytes) {
+        if (bytes == null) throw new IllegalArgumentException("The bytes are not allowed to be null.");
+
+        final BitWriter bitWriter = CodecScratch.get().getBitWriter(bytes.length);
+        for (final byte b : bytes) {
+            write(bitWriter, b & 0xFF);
+        }
+        return bitWriter;
+    }
+
+    /**
+     * This method will decode text that has been encoded by the encode method of a codec with the same code.
+     *
+     * @param encoded The encoded text. This parameter is not allowed to be null.
+     * @return Returns the decoded text.
+     * @throws IOException Thrown when the given bytes are not a valid encoded text.
+     */
+    public String decode(final byte[] encoded) throws IOException {
+        if (encoded == null) throw new IllegalArgumentException("The encoded bytes are not allowed to be null.");
+
+        final ByteBuffer byteBuffer = ByteBuffer.wrap(encoded);
+        final int symbolCount = CodecScratch.readSymbolCount(byteBuffer);
+        final long bitCount = CodecScratch.readBitCount(byteBuffer);
+        CodecScratch.checkSymbolCount(symbolCount, bitCount);
+        final long[] words = CodecScratch.get().getWords(byteBuffer, bitCount);
+
+        final StringBuilder decodedString = new StringBuilder(symbolCount);
+        decode(words, bitCount, decodedString);
+        if (decodedString.length() != symbolCount) throw new CorruptedDataException("The encoded bytes decoded into " + decodedString.length() + " characters instead of " + symbolCount + ".");
+
+        return decodedString.toString();
+    }
+
+    /**
+     * This method will decode bytes that have been encoded by the encodeBytes method of a codec with the same code.
+     *
+     * @param encoded The encoded bytes. This parameter is not allowed to be null.
+     * @return Returns the decoded bytes.
+     * @throws IOException Thrown when the given bytes are not valid encoded bytes.
+     */
+    @Override
+    public byte[] decodeBytes(final byte[] encoded) throws IOException {
+        if (encoded == null) throw new IllegalArgumentException("The encoded bytes are not allowed to be null.");
+
+        final ByteBuffer byteBuffer = ByteBuffer.wrap(encoded);
+        final int symbolCount = CodecScratch.readSymbolCount(byteBuffer);
+        final long bitCount = CodecScratch.readBitCount(byteBuffer);
+        return readBytes(byteBuffer, symbolCount, bitCount);
+    }
+
+    /**
+     * This method will decode bits that have been encoded by the writeBytes method of a codec with the same code, of which the caller has read the amounts of bytes and bits.
+     *
+     * @param byteBuffer  The ByteBuffer of which the remaining bytes hold exactly the encoded bits. This parameter is not allowed to be null.
+     * @param symbolCount The amount of bytes that the bits decode into.
+     * @param bitCount    The amount of encoded bits.
+     * @return Returns the decoded bytes.
+     * @throws CorruptedDataException Thrown when the given bits do not decode into the given amount of bytes.
+     */
+    byte[] readBytes(final ByteBuffer byteBuffer, final int symbolCount, final long bitCount) throws IOException {
+        if (byteBuffer == null) throw new IllegalArgumentException("The byteBuffer is not allowed to be null.");
+        else if (code.getMaxSymbol() > 0xFF) throw new CorruptedDataException("The code contains symbols that do not fit within a single byte.");
+
+        CodecScratch.checkSymbolCount(symbolCount, bitCount);
+        final long[] words = CodecScratch.get().getWords(byteBuffer, bitCount);
+
+        final byte[] bytes = new byte[symbolCount];
+        final int decoded = decode(words, bitCount, bytes);
+        if (decoded != symbolCount) throw new CorruptedDataException("The encoded bytes decoded into " + decoded + " bytes instead of " + symbolCount + ".");
+
+        return bytes;
+    }
+
+    /**
+     * This method will write the code of the given symbol.
+     */
+    private void write(final BitWriter bitWriter, final int symbol) {
+        final int length = code.getLength(symbol);
+        if (length == 0) throw new IllegalArgumentException("The symbol " + symbol + " has no code.");
+
+        bitWriter.write(code.getCode(symbol), length);
+    }
+
+    /**
+     * This method will decode the given words into the given StringBuilder, turning a code that is not part of the code into a CorruptedDataException.
+     */
+    private void decode(final long[] words, final long bitCount, final StringBuilder output) throws IOException {
+        try {
+            decodingTable.decode(words, bitCount, output);
+        } catch (IllegalStateException e) {
+            throw new CorruptedDataException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * This method will decode the given words into the given byte array, turning a code that is not part of the code into a CorruptedDataException.
+     * @return Returns the amount of decoded bytes.
+     */
+    private int decode(final long[] words, final long bitCount, final byte[] output) throws IOException {
+        try {
+            return decodingTable.decode(words, bitCount, output, 0, output.length);
+        } catch (IllegalStateException e) {
+            throw new CorruptedDataException(e.getMessage(), e);
+        }
+    }
+}
@@ -1,270 +1,603 @@
 package nl.fontys.algorithms;
 
+import nl.fontys.utilities.BitWriter;
 import nl.fontys.utilities.Constants;
-import nl.fontys.utilities.Node;
 
 import java.io.*;
-import java.util.BitSet;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.PriorityQueue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Encodes a text or bytes together with the code that has been generated for them, so that they can be decoded without knowing the code up front.
+ * An instance keeps the code of its last call and reuses its own scratch arrays, which means that it should not be shared between threads.
+ * Use a HuffmanCodec to encode and decode with a single code from multiple threads.
+ * <p>
+ * Every compression and decompression is recorded to a CompressionMetrics instance, and the report of the last compression can be requested from getLastReport.
+ */
 public class HuffmanCompression {
 
+    /* The first 4 bytes of every compressed file spell "HUFF". */
+    public static final int MAGIC = 0x48554646;
+    public static final int FORMAT_VERSION = 2;
+    public static final int CHECKSUM_BLOCK_SIZE = 64 * 1024;
+
     private HashMap<Character, String> filledTreeHashMap;
+    private CanonicalHuffmanCode canonicalCode;
+    private final int maxCodeLength;
+    private final CompressionMetrics metrics;
+    private CompressionReport lastReport;
+
+    /* The amount of bits that the text of the last call to encode would have taken without the limit on the code length. */
+    private long lastUnlimitedBitCount;
+
+    /* These arrays are reused by every call to encode, so that counting and generating the bitcodes doesn't create any garbage.
+       Together they take over a megabyte, so they're only allocated by the first call to encode, which instances that only encode bytes never make. */
+    private int[] characterFrequencies;
+    private int[] presentCharacters;
+    private long[] sortedFrequencies;
+    private int[] codeLengths;
 
     private static final Logger LOGGER = Logger.getLogger(HuffmanCompression.class.getName());
 
     public HuffmanCompression() {
+        this(CanonicalHuffmanCode.MAX_CODE_LENGTH);
+    }
+
+    /**
+     * Constructor for this class.
+     * @param maxCodeLength The maximum length of a bitcode. Limiting the length of the bitcodes keeps the decoding tables small,
+     *                      at the cost of a slightly larger encoded text for skewed texts. This value should be between 1 and CanonicalHuffmanCode.MAX_CODE_LENGTH.
+     */
+    public HuffmanCompression(final int maxCodeLength) {
+        this(maxCodeLength, CompressionMetrics.getDefault());
+    }
+
+    /**
+     * Constructor for this class.
+     * @param maxCodeLength The maximum length of a bitcode. This value should be between 1 and CanonicalHuffmanCode.MAX_CODE_LENGTH.
+     * @param metrics       The metrics that every compression and decompression should be recorded to.
+     *                      This parameter is not allowed to be null.
+     */
+    public HuffmanCompression(final int maxCodeLength, final CompressionMetrics metrics) {
+        if (maxCodeLength < 1 || maxCodeLength > CanonicalHuffmanCode.MAX_CODE_LENGTH) throw new IllegalArgumentException("The maxCodeLength should be between 1 and " + CanonicalHuffmanCode.MAX_CODE_LENGTH + ".");
+        else if (metrics == null) throw new IllegalArgumentException("The metrics are not allowed to be null.");
+
+        this.maxCodeLength = maxCodeLength;
+        this.metrics = metrics;
         filledTreeHashMap = new HashMap<>();
     }
 
     /**
      * This method will encode the given text by the use of the HuffmanCompression.
+     * The encoded text will be saved in the file that can be found in Constants.ENCODED_TEXT_FILE_PATH.
      *
      * @param text The text that should be encoded.
      *             This parameter is not allowed to be null nor an empty String.
+     * @return Returns a HashMap containing every character of the given text with its according bitcode.
+     * @throws IOException Thrown when the encoded text could not be written to the file.
+     */
+    public HashMap<Character, String> encode(final String text) throws IOException {
+        if (text == null || text.isEmpty()) throw new IllegalArgumentException("The text is not allowed to be null nor an empty String.");
+
+        try (final OutputStream outputStream = new FileOutputStream(Constants.ENCODED_TEXT_FILE_PATH)) {
+            return encode(text, outputStream);
+        }
+    }
+
+    /**
+     * This method will encode the given text by the use of the HuffmanCompression and will write it to the given OutputStream.
+     *
+     * @param text         The text that should be encoded.
+     *                     This parameter is not allowed to be null nor an empty String.
+     * @param outputStream The OutputStream that the encoded text should be written to. The OutputStream will not be closed.
+     *                     This parameter is not allowed to be null.
+     * @return Returns a HashMap containing every character of the given text with its according bitcode.
+     * @throws IOException Thrown when the encoded text could not be written to the given OutputStream.
      */
-    public HashMap<Character, String> encode(final String text) {
+    public HashMap<Character, String> encode(final String text, final OutputStream outputStream) throws IOException {
         if (text == null || text.isEmpty()) throw new IllegalArgumentException("The text is not allowed to be null nor an empty String.");
+        else if (outputStream == null) throw new IllegalArgumentException("The outputStream is not allowed to be null.");
+
+        final long start = System.nanoTime();
+        allocateScratchArrays();
+        final int characterCount = countCharacterFrequencies(text);
+        double entropyBitCount = 0;
+        for (int i = 0; i < characterCount; i++) {
+            entropyBitCount += getEntropyBitCount(characterFrequencies[presentCharacters[i]], text.length());
+        }
+
+        final long counted = System.nanoTime();
+        canonicalCode = generateBitCodes(characterCount);
+        filledTreeHashMap = canonicalCode.toBitCodeHashMap();
 
-        generateBitCodeForNode(generateTree(getPrioritizedNodes(text)), "");
-        saveBitSetAndTree(filledTreeHashMap, getBitsetFromEncodedString(getEncodedString(text)), Constants.ENCODED_TEXT_FILE_PATH);
+        final long built = System.nanoTime();
+        final BitWriter bitWriter = getEncodedBits(text, canonicalCode);
+
+        final long encoded = System.nanoTime();
+        final long bytesOut = writeBitsAndTree(Alphabet.TEXT, canonicalCode, text.length(), bitWriter, outputStream);
+
+        record(new CompressionReport((long) text.length() * Character.BYTES, bytesOut, text.length(), bitWriter.getBitCount(),
+                maxCodeLength < CanonicalHuffmanCode.MAX_CODE_LENGTH ? lastUnlimitedBitCount : bitWriter.getBitCount(), entropyBitCount,
+                counted - start, built - counted, encoded - built, System.nanoTime() - encoded));
         return filledTreeHashMap;
     }
 
+    /**
+     * This method will encode the given bytes by the use of the HuffmanCompression.
+     * Instead of characters, the bytes are encoded with the binary alphabet of 256 symbols, which makes it possible to encode any kind of data.
+     * The encoded bytes will be saved in the file that can be found in Constants.ENCODED_TEXT_FILE_PATH.
+     *
+     * @param bytes The bytes that should be encoded.
+     *              This parameter is not allowed to be null nor an empty array.
+     * @throws IOException Thrown when the encoded bytes could not be written to the file.
+     */
+    public void encodeBytes(final byte[] bytes) throws IOException {
+        if (bytes == null || bytes.length == 0) throw new IllegalArgumentException("The bytes are not allowed to be null nor an empty array.");
+
+        try (final OutputStream outputStream = new FileOutputStream(Constants.ENCODED_TEXT_FILE_PATH)) {
+            encodeBytes(bytes, outputStream);
+        }
+    }
+
+    /**
+     * This method will encode the given bytes by the use of the HuffmanCompression and will write them to the given OutputStream.
+     *
+     * @param bytes        The bytes that should be encoded.
+     *                     This parameter is not allowed to be null nor an empty array.
+     * @param outputStream The OutputStream that the encoded bytes should be written to. The OutputStream will not be closed.
+     *                     This parameter is not allowed to be null.
+     * @throws IOException Thrown when the encoded bytes could not be written to the given OutputStream.
+     */
+    public void encodeBytes(final byte[] bytes, final OutputStream outputStream) throws IOException {
+        if (bytes == null || bytes.length == 0) throw new IllegalArgumentException("The bytes are not allowed to be null nor an empty array.");
+        else if (outputStream == null) throw new IllegalArgumentException("The outputStream is not allowed to be null.");
+
+        final long start = System.nanoTime();
+        final int[] frequencies = getByteFrequencies(bytes);
+        double entropyBitCount = 0;
+        for (final int frequency : frequencies) {
+            entropyBitCount += getEntropyBitCount(frequency, bytes.length);
+        }
+
+        final long counted = System.nanoTime();
+        canonicalCode = CanonicalHuffmanCode.fromFrequencies(frequencies, maxCodeLength);
+
+        final long built = System.nanoTime();
+        final BitWriter bitWriter = getEncodedBits(bytes, canonicalCode);
+
+        final long encoded = System.nanoTime();
+        final long bytesOut = writeBitsAndTree(Alphabet.BINARY, canonicalCode, bytes.length, bitWriter, outputStream);
+
+        record(new CompressionReport(bytes.length, bytesOut, bytes.length, bitWriter.getBitCount(),
+                maxCodeLength < CanonicalHuffmanCode.MAX_CODE_LENGTH ? getUnlimitedBitCount(frequencies) : bitWriter.getBitCount(), entropyBitCount,
+                counted - start, built - counted, encoded - built, System.nanoTime() - encoded));
+    }
+
     /**
      * This method will decode the text that will be read from the file that can be found in Constants.ENCODED_TEXT_FILE_PATH.
-     * @return
+     * @return Returns the decoded text.
+     * @throws UnsupportedFormatException Thrown when the file is not a compressed file, or one of a format version that is not supported.
+     * @throws CorruptedDataException Thrown when the compressed file is damaged or ends too early.
+     * @throws IOException Thrown when the encoded text could not be read from the file.
+     */
+    public String decode() throws IOException {
+        try (final InputStream inputStream = new FileInputStream(Constants.ENCODED_TEXT_FILE_PATH)) {
+            return decode(inputStream);
+        }
+    }
+
+    /**
+     * This method will decode the text that will be read from the given InputStream.
+     *
+     * @param inputStream The InputStream that the encoded text should be read from. The InputStream will not be closed.
+     *                    This parameter is not allowed to be null.
+     * @return Returns the decoded text.
+     * @throws UnsupportedFormatException Thrown when the InputStream does not contain a compressed file, or one of a format version that is not supported.
+     * @throws CorruptedDataException Thrown when the compressed file is damaged or ends too early.
+     * @throws IOException Thrown when the encoded text could not be read from the given InputStream.
+     */
+    public String decode(final InputStream inputStream) throws IOException {
+        final long start = System.nanoTime();
+        final EncodedFile encodedFile = readBitsAndTree(inputStream, Alphabet.TEXT);
+        filledTreeHashMap = canonicalCode.toBitCodeHashMap();
+
+        final long read = System.nanoTime();
+        final StringBuilder decodedString = new StringBuilder(encodedFile.symbolCount);
+        try {
+            canonicalCode.getDecodingTable().decode(encodedFile.words, encodedFile.bitCount, decodedString);
+        } catch (IllegalStateException e) {
+            throw new CorruptedDataException(e.getMessage(), e);
+        }
+        if (decodedString.length() != encodedFile.symbolCount) throw new CorruptedDataException("The stream decoded into " + decodedString.length() + " characters instead of " + encodedFile.symbolCount + ".");
+
+        metrics.recordDecompression((long) decodedString.length() * Character.BYTES, read - start, System.nanoTime() - read);
+        return decodedString.toString();
+    }
+
+    /**
+     * This method will decode the bytes that will be read from the file that can be found in Constants.ENCODED_TEXT_FILE_PATH.
+     * The file should have been encoded by the encodeBytes method.
+     * @return Returns the decoded bytes.
+     * @throws UnsupportedFormatException Thrown when the file is not a compressed file, or one of a format version that is not supported.
+     * @throws CorruptedDataException Thrown when the compressed file is damaged or ends too early.
+     * @throws IOException Thrown when the encoded bytes could not be read from the file.
+     */
+    public byte[] decodeBytes() throws IOException {
+        try (final InputStream inputStream = new FileInputStream(Constants.ENCODED_TEXT_FILE_PATH)) {
+            return decodeBytes(inputStream);
+        }
+    }
+
+    /**
+     * This method will decode the bytes that will be read from the given InputStream.
+     * The bytes should have been encoded by the encodeBytes method.
+     *
+     * @param inputStream The InputStream that the encoded bytes should be read from. The InputStream will not be closed.
+     *                    This parameter is not allowed to be null.
+     * @return Returns the decoded bytes.
+     * @throws UnsupportedFormatException Thrown when the InputStream does not contain a compressed file, or one of a format version that is not supported.
+     * @throws CorruptedDataException Thrown when the compressed file is damaged or ends too early.
+     * @throws IOException Thrown when the encoded bytes could not be read from the given InputStream.
+     */
+    public byte[] decodeBytes(final InputStream inputStream) throws IOException {
+        final long start = System.nanoTime();
+        final EncodedFile encodedFile = readBitsAndTree(inputStream, Alphabet.BINARY);
+
+        final long read = System.nanoTime();
+        final byte[] bytes = new byte[encodedFile.symbolCount];
+        final int decoded;
+        try {
+            decoded = canonicalCode.getDecodingTable().decode(encodedFile.words, encodedFile.bitCount, bytes, 0, bytes.length);
+        } catch (IllegalStateException e) {
+            throw new CorruptedDataException(e.getMessage(), e);
+        }
+        if (decoded != bytes.length) throw new CorruptedDataException("The stream decoded into " + decoded + " bytes instead of " + bytes.length + ".");
+
+        metrics.recordDecompression(bytes.length, read - start, System.nanoTime() - read);
+        return bytes;
+    }
+
+    /**
+     * @return Returns the report of the last compression of this instance, or null when nothing has been compressed yet.
+     */
+    public CompressionReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * This method will keep the given report as the last report and will add it to the metrics.
+     * @param report The report of the compression that has just finished.
+     */
+    private void record(final CompressionReport report) {
+        lastReport = report;
+        metrics.record(report);
+    }
+
+    /**
+     * This method will calculate how many bits the occurrences of a single symbol take up at its entropy.
+     *
+     * @param frequency The frequency of the symbol.
+     * @param total     The sum of the frequencies of every symbol.
+     * @return Returns the frequency times the amount of information of a single occurrence.
+     */
+    private static double getEntropyBitCount(final int frequency, final long total) {
+        return frequency == 0 ? 0 : frequency * (Math.log((double) total / frequency) / Math.log(2));
+    }
+
+    /**
+     * This method will allocate the arrays that encoding a text reuses, unless they have been allocated by a previous call already.
      */
-    public String decode() {
-        final BitSet bitSet = readBitSetAndTree(Constants.ENCODED_TEXT_FILE_PATH);
-        return getDecodedString(bitSet, getReversedFilledTreeHashMap(filledTreeHashMap));
+    private void allocateScratchArrays() {
+        if (characterFrequencies != null) return;
+
+        characterFrequencies = new int[Alphabet.TEXT.getSize()];
+        presentCharacters = new int[Alphabet.TEXT.getSize()];
+        sortedFrequencies = new long[Alphabet.TEXT.getSize()];
+        codeLengths = new int[Alphabet.TEXT.getSize()];
     }
 
     /**
-     * This method will return a PriorityQueue containing objects of the Node class from the given text.
-     * The nodes within the queue will be ordered by the their corresponding frequency in the given text.
+     * This method will count the frequency of every character within the given text.
+     * The frequencies are counted in a dense array that is indexed by the character itself, which covers every possible char value.
+     * Every character that is seen for the first time is added to the presentCharacters, so that only those entries have to be visited afterwards.
      *
-     * @param text The text that the nodes should be calculated for.
+     * @param text The text that the frequencies should be counted for.
      *             This parameter is not allowed to be null.
-     * @return Returns an instance of the PriorityQueue class, containing objects of the Node class.
-     * The nodes will be ordered by their frequency.
+     * @return Returns the amount of different characters within the given text.
      */
-    private PriorityQueue<Node> getPrioritizedNodes(final String text) {
+    private int countCharacterFrequencies(final String text) {
         if (text == null) throw new IllegalArgumentException("The text is not allowed to be null.");
 
-        final HashMap<Character, Integer> mapOfCharacters = new HashMap<>();
-        final PriorityQueue<Node> queue = new PriorityQueue<>();
+        int characterCount = 0;
 
-        for (final Character character : text.toCharArray()) {
-            if (mapOfCharacters.get(character) != null) { // The map contains the character. Let's make sure we'll increment it's current frequency count.
-                mapOfCharacters.put(character, mapOfCharacters.get(character).intValue() + 1);
-            } else {
-                mapOfCharacters.put(character, 1);
+        for (int i = 0; i < text.length(); i++) {
+            final char character = text.charAt(i);
+
+            if (characterFrequencies[character]++ == 0) {
+                presentCharacters[characterCount++] = character;
             }
         }
-
-        // Adding the nodes to the PriorityQueue to make sure they're prioritized in the order of their frequency.
-        mapOfCharacters.forEach((k, v) -> queue.add(new Node(k, v)));
-        return queue;
+        return characterCount;
     }
 
     /**
-     * This method generates a decision-tree for the given nodes.
+     * This method will generate the bitcodes for the characters that have been counted by countCharacterFrequencies.
+     * The characters are sorted by their frequency, after which the length of every bitcode is calculated in place by HuffmanCodeLengths.
+     * No tree of nodes is built, the bitcodes themselves are assigned canonically from their lengths.
+     * Afterwards the counted frequencies are reset, so that the arrays can be reused by the next call without being reallocated.
      *
-     * @param nodes The nodes that the decision-tree should be generated for.
-     *              This parameter is an instance of the PriorityQueue class, filled with objects of the Node class.
-     *              This parameter is not allowed to be null.
-     * @return Returns an object of the Node class. This object is the first node in the tree that has just been generated.
+     * @param characterCount The amount of different characters that have been counted.
+     * @return Returns an object of the CanonicalHuffmanCode class containing the generated bitcodes.
      */
-    private Node generateTree(final PriorityQueue<Node> nodes) {
-        if (nodes == null) throw new IllegalArgumentException("The priorityQueue of nodes is not allowed to be null.");
-
-        /* This poll method retrieves and removes the head of the queue.
-           By using this method we're able to generate all the left and right nodes for each node,
-           which will result in us being able to generate and build the 'tree'. */
-        while (nodes.size() > 1) {
-            nodes.add(new Node(nodes.poll(), nodes.poll()));
+    private CanonicalHuffmanCode generateBitCodes(final int characterCount) {
+        /* The frequency and the character are sorted as a single long, so that no objects are needed for sorting. */
+        for (int i = 0; i < characterCount; i++) {
+            final int character = presentCharacters[i];
+            sortedFrequencies[i] = ((long) characterFrequencies[character] << 16) | character;
+            characterFrequencies[character] = 0;
+        }
+        Arrays.sort(sortedFrequencies, 0, characterCount);
+
+        for (int i = 0; i < characterCount; i++) {
+            presentCharacters[i] = (int) (sortedFrequencies[i] & 0xFFFF);
+            sortedFrequencies[i] >>>= 16;
+        }
+        if (maxCodeLength < CanonicalHuffmanCode.MAX_CODE_LENGTH) {
+            lastUnlimitedBitCount = limitCodeLengths(characterCount);
+        } else {
+            HuffmanCodeLengths.computeInPlace(sortedFrequencies, characterCount);
         }
-        return nodes.peek(); // This method will returns the first element without removing it.
+
+        for (int i = 0; i < characterCount; i++) {
+            codeLengths[i] = (int) sortedFrequencies[i];
+        }
+        return CanonicalHuffmanCode.fromCodeLengths(presentCharacters, codeLengths, characterCount);
     }
 
     /**
-     * This method will generate all the bitcodes for the nodes within the priorityqueue of nodes.
-     * The generated bitcodes will be inserted in a HashMap called filledTreeHashMap, which is a representation of all the nodes with their according bitcodes.
-     * This HashMap will be the actual 'tree'.
-     * <p>
-     * The 'tree' that will be filled with the characters and their generated bitcodes will be a HashMap.
-     * This will be a HashMap because a HashMap is generally the most efficient implementation of the Map class.
+     * This method will replace the sorted frequencies by code lengths of at most maxCodeLength bits.
+     * The amount of encoded bits without the limit is returned, so that the report of the compression can show the cost of the limit.
      *
-     * @param node           The node on which the generation of the bitcode should be applied on.
-     *                       This parameter is not allowed to be null.
-     * @param currentBitcode The already generated part of the bitcode for the current node.
-     *                       This parameter is not allowed to be null.
-     *                       This parameter is indeed allowed to be an empty String as there won't be a currentBitcode when starting the entire generation process.
+     * @param characterCount The amount of different characters within the sorted frequencies.
+     * @return Returns the amount of bits that the characters would take up with code lengths without a limit.
      */
-    private void generateBitCodeForNode(final Node node, final String currentBitcode) {
-        if (node == null) throw new IllegalArgumentException("The node is not allowed to be null.");
-        else if (currentBitcode == null) throw new IllegalArgumentException("The currentBitcode is not allowed to be null. If there is no currentBitcode available, use an empty String as parameter.");
-
-        /* The current node has a right node as well. Let's generate the bitcode for it's right node. */
-        if (node.getRightNode() != null) {
-            /* We need to make sure that we're giving the current generated bitcode to the generation of this right node.
-               We should make sure to do this as the right node's bitcode will be an extension on the bitcode of this current node.
-
-               We've chosen that going to the right in the 'tree' will value a 1 whereas going to the left will value a 0.
-               We're going to the right in the tree so we're extending the currentBitcode by adding a '1' to it. */
-            generateBitCodeForNode(node.getRightNode(), currentBitcode + "1");
+    private long limitCodeLengths(final int characterCount) {
+        final long[] frequencies = Arrays.copyOf(sortedFrequencies, characterCount);
+        final long[] unlimitedLengths = Arrays.copyOf(sortedFrequencies, characterCount);
+
+        HuffmanCodeLengths.computeInPlace(unlimitedLengths, characterCount);
+        HuffmanCodeLengths.computeInPlace(sortedFrequencies, characterCount, maxCodeLength);
+
+        final long unlimitedBitCount = HuffmanCodeLengths.getEncodedBitCount(frequencies, unlimitedLengths, characterCount);
+        final long limitedBitCount = HuffmanCodeLengths.getEncodedBitCount(frequencies, sortedFrequencies, characterCount);
+
+        if (limitedBitCount != unlimitedBitCount && LOGGER.isLoggable(Level.FINE)) {
+            long originalBitCount = 0;
+            for (final long frequency : frequencies) {
+                originalBitCount += frequency * Character.SIZE;
+            }
+            LOGGER.log(Level.FINE, String.format("Limiting the bitcodes to %d bits changes the compression ratio from %.4f to %.4f (%d to %d encoded bits).",
+                    maxCodeLength, (double) originalBitCount / unlimitedBitCount, (double) originalBitCount / limitedBitCount, unlimitedBitCount, limitedBitCount));
         }
-        /* The current node has a left node as well. Let's generate the bitcode for it's left node. */
-        if (node.getLeftNode() != null) {
-            /* We need to make sure that we're giving the current generated bitcode to the generation of this left node.
-               We should make sure to do this as the left node's bitcode will be an extension on the bitcode of this current node.
-
-               We've chosen that going to the right in the 'tree' will value a 1 whereas going to the left will value a 0.
-               We're going to the left in the tree so we're extending the currentBitcode by adding a '0' to it. */
-            generateBitCodeForNode(node.getLeftNode(), currentBitcode + "0");
+        return unlimitedBitCount;
+    }
+
+    /**
+     * This method will calculate how many bits the bytes with the given frequencies take up with code lengths without a limit.
+     *
+     * @param frequencies The frequency of every byte, indexed by the unsigned value of the byte.
+     * @return Returns the sum of the frequency times the unlimited code length of every byte.
+     */
+    private static long getUnlimitedBitCount(final int[] frequencies) {
+        final long[] longFrequencies = new long[frequencies.length];
+        for (int symbol = 0; symbol < frequencies.length; symbol++) {
+            longFrequencies[symbol] = frequencies[symbol];
         }
-        /* The current node has no left nor right nodes. This means that we're at the end of this branch.
-           Being at the end of the branch, means that our current generated currentBitcode is the bitcode for our current node within the tree.
-           We should therefore add the character that this node represents to our filledTreeHashMap with it's according generated bitcode. */
-        if (node.getLeftNode() == null && node.getRightNode() == null) {
-            LOGGER.log(Level.INFO, node.getCharacter() + " | " + currentBitcode);
-            filledTreeHashMap.put(node.getCharacter(), currentBitcode);
+
+        final int[] lengths = HuffmanCodeLengths.compute(longFrequencies);
+        long bitCount = 0;
+        for (int symbol = 0; symbol < frequencies.length; symbol++) {
+            bitCount += (long) frequencies[symbol] * lengths[symbol];
         }
+        return bitCount;
     }
 
     /**
      * This method will encode a given String by the use of the generated tree.
+     * The bitcodes of the characters are written straight into a BitWriter, so no intermediate String of 0's and 1's is created.
      *
      * @param text The text that should be encoded.
      *             This parameter is not allowed to be null.
-     * @return Returns the encoded String. This value is a String.
+     * @param tree The tree that should be used for encoding.
+     *             This parameter is not allowed to be null.
+     * @return Returns an object of the BitWriter class containing the encoded bits.
      */
-    private String getEncodedString(final String text) {
+    private BitWriter getEncodedBits(final String text, final CanonicalHuffmanCode tree) {
         if (text == null) throw new IllegalArgumentException("The text is not allowed to be null.");
+        else if (tree == null) throw new IllegalArgumentException("The tree is not allowed to be null.");
 
-        final StringBuilder encodedString = new StringBuilder();
+        final BitWriter bitWriter = new BitWriter(text.length());
 
-        for (final char character : text.toCharArray()) {
-            encodedString.append(filledTreeHashMap.get(character));
+        for (int i = 0; i < text.length(); i++) {
+            final char character = text.charAt(i);
+            bitWriter.write(tree.getCode(character), tree.getLength(character));
         }
-        return encodedString.toString();
+        return bitWriter;
     }
 
     /**
-     * This method will decode a given encoded bitSet by the use of the reversed generated tree.
-     * @param bitSet The BitSet that should be decoded.
-     *               This parameter is not allowed to be null.
-     * @param tree   The tree that should be used for decoding.
-     * @return Returns a String which is a representation of the decoded BitSet values.
+     * This method will encode the given bytes by the use of the generated tree.
+     *
+     * @param bytes The bytes that should be encoded.
+     *              This parameter is not allowed to be null.
+     * @param tree  The tree that should be used for encoding.
+     *              This parameter is not allowed to be null.
+     * @return Returns an object of the BitWriter class containing the encoded bits.
      */
-    private String getDecodedString(final BitSet bitSet, final HashMap<String, Character> tree) {
-        if (bitSet == null) throw new IllegalArgumentException("The bitSet is not allowed to be null.");
+    private BitWriter getEncodedBits(final byte[] bytes, final CanonicalHuffmanCode tree) {
+        if (bytes == null) throw new IllegalArgumentException("The bytes are not allowed to be null.");
         else if (tree == null) throw new IllegalArgumentException("The tree is not allowed to be null.");
 
-        final StringBuilder decodedString = new StringBuilder();
-        StringBuilder currentBitcode = new StringBuilder();
-
-        for (int i = 0; i < (bitSet.length() -1); i++) {
-            currentBitcode.append(bitSet.get(i) ? "1" : "0");
+        final BitWriter bitWriter = new BitWriter(bytes.length);
 
-            final Character character = tree.get(currentBitcode.toString());
-
-            /* There's a character that matches this current bitcode. Let's add it to our current decodedString. */
-            if (character != null) {
-                decodedString.append(character);
-                currentBitcode = new StringBuilder();
-            }
+        for (final byte value : bytes) {
+            final int symbol = value & 0xFF;
+            bitWriter.write(tree.getCode(symbol), tree.getLength(symbol));
         }
-        return decodedString.toString();
+        return bitWriter;
     }
 
     /**
-     * This method will transform a given encodedString into an object of the BitSet class.
+     * This method will count the frequency of every byte within the given bytes.
+     * The alphabet of bytes is bounded, so the frequencies are counted in a fixed array of 256 ints that is indexed by the unsigned value of every byte.
      *
-     * @param encodedString The encodedString that should be transformed into a BitSet.
-     *                      This parameter is not allowed to be null.
-     * @return Returns an object of the BitSet class containing the bits of the given encodedString.
+     * @param bytes The bytes that should be counted.
+     *              This parameter is not allowed to be null.
+     * @return Returns the frequency of every byte, indexed by the unsigned value of the byte.
      */
-    private BitSet getBitsetFromEncodedString(final String encodedString) {
-        if (encodedString == null) throw new IllegalArgumentException("The encodedString is not allowed to be null.");
-
-        final BitSet bitSet = new BitSet(encodedString.length());
-        int indexCounter = 0;
-
-        for (final Character character : encodedString.toCharArray()) {
-            /* A bit within the BitSet has a default value of 0.
-               To transform our encodedString to a BitSet we'll have to loop through all the 'characters', which are basically 0's and 1's within our String object.
-               Because the default value for a bit within a BitSet is 0 we should only make sure to turn the value of a bit to 1 whenever the 'character' within our encodedString equals "1". */
-            if (character.equals('1')) {
-                bitSet.set(indexCounter);
-            }
-            indexCounter++;
+    private int[] getByteFrequencies(final byte[] bytes) {
+        if (bytes == null) throw new IllegalArgumentException("The bytes are not allowed to be null.");
+
+        final int[] frequencies = new int[Alphabet.BINARY.getSize()];
+
+        for (final byte value : bytes) {
+            frequencies[value & 0xFF]++;
         }
-        bitSet.set(indexCounter);
-        return bitSet;
+        return frequencies;
     }
 
     /**
-     * This method will save the generated tree and BitSet to a file for the given filepath.
+     * This method will write the generated tree and encoded bits to the given OutputStream.
+     * Instead of the bitcodes themselves only the code lengths of the canonical code are saved, which keeps the header down to one byte per byte or two bytes per character.
+     * The header starts with a magic number and the format version, and ends with a checksum. The encoded bits are split into blocks that are followed by their own checksum.
+     * @param alphabet The alphabet that the encoded symbols are taken from.
+     *                 This parameter is not allowed to be null.
      * @param tree The 'tree' that should be saved.
-     *             The 'tree' is an object of the HashMap class using HashMap<Character, String>.
+     *             The 'tree' is an object of the CanonicalHuffmanCode class.
      *             This parameter is not allowed to be null.
-     * @param bitSet The BitSet that should be saved. The BitSet should be the encoded text.
-     *               This parameter is not allowed to be null.
-     * @param filepath The filepath that the file will have to be saved in.
-     *                 This parameter is not allowed to be null nor an empty String.
+     * @param symbolCount The amount of symbols that have been encoded.
+     * @param bitWriter The BitWriter containing the encoded symbols that should be saved.
+     *                  This parameter is not allowed to be null.
+     * @param outputStream The OutputStream that the tree and encoded bits should be written to.
+     *                     This parameter is not allowed to be null.
+     * @return Returns the amount of bytes that have been written.
+     * @throws IOException Thrown when the tree and encoded bits could not be written to the given OutputStream.
      */
-    private void saveBitSetAndTree(final HashMap<Character, String> tree, final BitSet bitSet, final String filepath) {
-        if (tree == null) throw new IllegalArgumentException("The tree is not allowed to be null.");
-        else if (bitSet == null) throw new IllegalArgumentException("The bitSet is not allowed to be null.");
-        else if (filepath == null || filepath.isEmpty()) throw new IllegalArgumentException("The filepath is not allowed to be null nor an empty String.");
-
-        try (final ObjectOutputStream objectOutputStream = new ObjectOutputStream(new FileOutputStream(filepath))) {
-            objectOutputStream.writeObject(tree);
-            objectOutputStream.writeObject(bitSet);
-        } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, e.getMessage());
+    private long writeBitsAndTree(final Alphabet alphabet, final CanonicalHuffmanCode tree, final int symbolCount, final BitWriter bitWriter, final OutputStream outputStream) throws IOException {
+        if (alphabet == null) throw new IllegalArgumentException("The alphabet is not allowed to be null.");
+        else if (tree == null) throw new IllegalArgumentException("The tree is not allowed to be null.");
+        else if (bitWriter == null) throw new IllegalArgumentException("The bitWriter is not allowed to be null.");
+        else if (outputStream == null) throw new IllegalArgumentException("The outputStream is not allowed to be null.");
+
+        final DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(outputStream));
+        final CRC32 checksum = new CRC32();
+
+        /* Every byte of the header passes through the checksum on its way to the OutputStream. */
+        final DataOutputStream headerOutputStream = new DataOutputStream(new CheckedOutputStream(dataOutputStream, checksum));
+        headerOutputStream.writeInt(MAGIC);
+        headerOutputStream.writeByte(FORMAT_VERSION);
+        headerOutputStream.writeByte(alphabet.getId());
+        tree.writeTo(headerOutputStream);
+        headerOutputStream.writeInt(symbolCount);
+        headerOutputStream.writeLong(bitWriter.getBitCount());
+        dataOutputStream.writeInt((int) checksum.getValue());
+
+        /* The checksum of every block is computed right before the block is written, while its bytes are still in the cache. */
+        final byte[] bits = bitWriter.toByteArray();
+        for (int offset = 0; offset < bits.length; offset += CHECKSUM_BLOCK_SIZE) {
+            final int length = Math.min(CHECKSUM_BLOCK_SIZE, bits.length - offset);
+
+            checksum.reset();
+            checksum.update(bits, offset, length);
+            dataOutputStream.write(bits, offset, length);
+            dataOutputStream.writeInt((int) checksum.getValue());
         }
+        dataOutputStream.flush();
+        return dataOutputStream.size();
     }
 
     /**
-     * This method will read a file for the given filepath and it will read it's containing tree.
-     * The filledTreeHashMap property will be assigned with the tree from this given file.
-     * This method will return the BitSet which represents the encoded text within the given file.
+     * This method will read the tree and encoded bits from the given InputStream.
+     * The canonicalCode property will be assigned with the tree that is rebuilt from the code lengths within the given InputStream.
+     * Every checksum is verified as soon as its block has been read, so nothing is decoded from damaged bits.
      *
-     * @param filepath The filepath of the file that should be read.
-     *                 This path is not allowed to be null nor an empty String.
-     * @return Returns an object of the BitSet class. This object is a representation of an encoded string that should be decoded.
+     * @param inputStream The InputStream that should be read.
+     *                    This parameter is not allowed to be null.
+     * @param alphabet The alphabet that the bits are expected to be encoded with.
+     *                 This parameter is not allowed to be null.
+     * @return Returns an object of the EncodedFile class containing the encoded bits.
+     * @throws UnsupportedFormatException Thrown when the InputStream does not contain a compressed file, or one of a format version that is not supported.
+     * @throws CorruptedDataException Thrown when the compressed file is damaged or ends too early.
+     * @throws IOException Thrown when the tree and encoded bits could not be read from the given InputStream.
      */
-    private BitSet readBitSetAndTree(final String filepath) {
-        if (filepath == null || filepath.isEmpty()) throw new IllegalArgumentException("The filepath is now allowed to be null nor an empty String.");
-
-        try (final ObjectInputStream objectInputStream = new ObjectInputStream(new FileInputStream(Constants.ENCODED_TEXT_FILE_PATH))) {
-            filledTreeHashMap = (HashMap<Character, String>) objectInputStream.readObject();
-            return (BitSet) objectInputStream.readObject();
-        } catch (IOException | ClassNotFoundException e) {
-            LOGGER.log(Level.SEVERE, e.getMessage());
+    private EncodedFile readBitsAndTree(final InputStream inputStream, final Alphabet alphabet) throws IOException {
+        if (inputStream == null) throw new IllegalArgumentException("The inputStream is not allowed to be null.");
+        else if (alphabet == null) throw new IllegalArgumentException("The alphabet is not allowed to be null.");
+
+        final DataInputStream dataInputStream = new DataInputStream(new BufferedInputStream(inputStream));
+        final CRC32 checksum = new CRC32();
+        final DataInputStream headerInputStream = new DataInputStream(new CheckedInputStream(dataInputStream, checksum));
+
+        try {
+            if (headerInputStream.readInt() != MAGIC) throw new UnsupportedFormatException("The stream does not start with the magic number of a compressed file.");
+
+            final int version = headerInputStream.readUnsignedByte();
+            if (version != FORMAT_VERSION) throw new UnsupportedFormatException("The stream has been written with format version " + version + ", while only version " + FORMAT_VERSION + " is supported.");
+
+            final int alphabetId = headerInputStream.readUnsignedByte();
+            final CanonicalHuffmanCode code = CanonicalHuffmanCode.readFrom(headerInputStream);
+            final int symbolCount = headerInputStream.readInt();
+            final long bitCount = headerInputStream.readLong();
+            if ((int) checksum.getValue() != dataInputStream.readInt()) throw new ChecksumMismatchException(-1);
+
+            if (Alphabet.fromId(alphabetId) != alphabet) throw new UnsupportedFormatException("The file has not been encoded with the " + alphabet + " alphabet.");
+
+            /* Every code is at least 1 and at most maxLength bits long, so the amount of bits has to lie in between. */
+            if (symbolCount < 0 || bitCount < symbolCount || bitCount > (long) symbolCount * code.getMaxLength() || (bitCount + 7) / 8 > Integer.MAX_VALUE - 8) {
+                throw new CorruptedDataException("The header contains " + bitCount + " bits for " + symbolCount + " symbols, which is not possible.");
+            }
+
+            final byte[] bytes = new byte[(int) ((bitCount + 7) / 8)];
+            for (int offset = 0, block = 0; offset < bytes.length; offset += CHECKSUM_BLOCK_SIZE, block++) {
+                final int length = Math.min(CHECKSUM_BLOCK_SIZE, bytes.length - offset);
+                dataInputStream.readFully(bytes, offset, length);
+
+                checksum.reset();
+                checksum.update(bytes, offset, length);
+                if ((int) checksum.getValue() != dataInputStream.readInt()) throw new ChecksumMismatchException(block);
+            }
+
+            /* The decoding table reads whole words, so the bytes are padded up to a multiple of 8 and read as little-endian longs. */
+            final long[] words = new long[(bytes.length + 7) / 8];
+            ByteBuffer.wrap(Arrays.copyOf(bytes, words.length * 8)).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(words);
+
+            canonicalCode = code;
+            return new EncodedFile(symbolCount, bitCount, words);
+        } catch (EOFException e) {
+            throw new CorruptedDataException("The stream ends before the whole compressed file has been read.", e);
         }
-        return null;
     }
 
     /**
-     * This method will generate and return a reversed version of the given HashMap<Character, String>, meaning that it'll return a HashMap<String, Character>.
-     * It will switch the keys and values. This is needed to make sure the decoded can do it's job with the reversed tree.
-     * @param filledTreeHashMap The three that should be reversed.
-     *                          This parameter is not allowed to be null.
-     * @return A reversed version of the given HashMap. It's keys and values are swapped.
+     * The encoded bits of a file, together with the amount of symbols that they decode into.
      */
-    private HashMap<String, Character> getReversedFilledTreeHashMap(final HashMap<Character, String> filledTreeHashMap) {
-        if (filledTreeHashMap == null) throw new IllegalArgumentException("The filledThreeHashMap is not allowed to be null.");
+    private static class EncodedFile {
 
-        final HashMap<String, Character> reversedMap = new HashMap<>();
-        filledTreeHashMap.forEach((k, v) -> reversedMap.put(v, k));
+        private final int symbolCount;
+        private final long bitCount;
+        private final long[] words;
 
-        return reversedMap;
+        private EncodedFile(final int symbolCount, final long bitCount, final long[] words) {
+            this.symbolCount = symbolCount;
+            this.bitCount = bitCount;
+            this.words = words;
+        }
     }
 }
@@ -0,0 +1,347 @@
+package nl.fontys.algorithms;
+
+import nl.fontys.utilities.BitReader;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A lookup table that decodes whole symbols at once by peeking at the next few bits of an encoded bitstream.
+ * Codes that are longer than the primary table are resolved through secondary tables that are linked from the primary table.
+ */
+public class HuffmanDecodingTable {
+
+    public static final int PRIMARY_TABLE_BITS = 9;
+    public static final int SECONDARY_TABLE_BITS = 6;
+
+    /* Every entry is a single int. The lowest 6 bits hold the amount of bits that the entry consumes within its own table,
+       the next 2 bits are flags and the remaining 24 bits either hold the symbol or the offset of a linked secondary table. */
+    private static final int LENGTH_MASK = 0x3F;
+    private static final int LINK_FLAG = 0x40;
+    private static final int VALID_FLAG = 0x80;
+    private static final int VALUE_SHIFT = 8;
+    private static final int PRIMARY_TABLE_MASK = (1 << PRIMARY_TABLE_BITS) - 1;
+
+    private final int[] symbols;
+    private final long[] codes;
+    private final int[] lengths;
+
+    /* Every pair holds the symbols of up to two codes that fit within the primary table together. The lowest 6 bits hold their total length,
+       the next 2 bits hold the amount of symbols and the first and second symbol are stored from bit 8 and bit 32. A length of 0 means that the
+       first code does not fit within the primary table. */
+    private static final int PAIR_COUNT_SHIFT = 6;
+    private static final int PAIR_SECOND_SHIFT = 32;
+
+    private int[] entries;
+    private int size;
+    private final long[] pairs;
+
+    /**
+     * Constructor for this class.
+     * The bits of every code are expected in the order in which they're written, meaning that the first bit of a code is stored in bit 0 of its long.
+     *
+     * @param symbols The symbols that can be decoded. This parameter is not allowed to be null.
+     * @param codes   The code of every symbol. This parameter is not allowed to be null.
+     * @param lengths The length of every code in bits. A length of 0 means that the symbol has no code.
+     *                This parameter is not allowed to be null.
+     * @param count   The amount of symbols within the given arrays that should be used.
+     */
+    public HuffmanDecodingTable(final int[] symbols, final long[] codes, final int[] lengths, final int count) {
+        if (symbols == null || codes == null || lengths == null) throw new IllegalArgumentException("The symbols, codes and lengths are not allowed to be null.");
+        else if (count < 0 || count > symbols.length || count > codes.length || count > lengths.length) throw new IllegalArgumentException("The count does not match the given arrays.");
+
+        this.symbols = symbols;
+        this.codes = codes;
+        this.lengths = lengths;
+        this.entries = new int[1 << PRIMARY_TABLE_BITS];
+
+        final int[] members = new int[count];
+        int memberCount = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (lengths[i] > 0) {
+                members[memberCount++] = i;
+            }
+        }
+        buildTable(members, memberCount, 0, PRIMARY_TABLE_BITS);
+        entries = Arrays.copyOf(entries, size);
+        pairs = buildPairs();
+    }
+
+    /**
+     * This method will decode the given bitstream into the given StringBuilder.
+     * The words are read from least to most significant bit, which is the same order that BitSet.toLongArray() uses.
+     *
+     * @param words    The words that contain the encoded bits. This parameter is not allowed to be null.
+     * @param bitCount The amount of encoded bits within the given words.
+     * @param output   The StringBuilder that the decoded characters should be appended to. This parameter is not allowed to be null.
+     */
+    public void decode(final long[] words, final long bitCount, final StringBuilder output) {
+        if (words == null) throw new IllegalArgumentException("The words are not allowed to be null.");
+        else if (output == null) throw new IllegalArgumentException("The output is not allowed to be null.");
+
+        final BitReader reader = new BitReader(words, bitCount);
+
+        while (reader.getRemaining() > 0) {
+            final long window = reader.peek(BitReader.MAX_PEEK_LENGTH);
+            final int limit = (int) Math.min(BitReader.MAX_PEEK_LENGTH, reader.getRemaining());
+            int used = 0;
+
+            /* Every symbol is decoded straight from the window, until the next code does not fit within the loaded bits anymore.
+               Looking up an index that reaches past the loaded bits is harmless, as every index that shares the first bits of a code resolves to that code. */
+            while (true) {
+                int entry = entries[(int) (window >>> used) & PRIMARY_TABLE_MASK];
+                if ((entry & (LINK_FLAG | VALID_FLAG)) != VALID_FLAG) {
+                    if (used > 0) break;
+                    entry = resolve(entry, window);
+                }
+
+                final int length = entry & LENGTH_MASK;
+                if (used + length > limit) break;
+
+                output.append((char) (entry >>> VALUE_SHIFT));
+                used += length;
+            }
+
+            /* The remaining bits are padding and do not form a complete bitcode anymore. */
+            if (used == 0) break;
+            reader.skip(used);
+        }
+    }
+
+    /**
+     * This method will decode the given bitstream into the given byte array.
+     * Every decoded symbol is stored as a single byte, which means that this method should only be used for codes of which every symbol fits within a byte.
+     * The bytes after the last decoded symbol, up to the given length, may be overwritten as well.
+     *
+     * @param words    The words that contain the encoded bits. This parameter is not allowed to be null.
+     * @param bitCount The amount of encoded bits within the given words.
+     * @param output   The byte array that the decoded symbols should be stored in. This parameter is not allowed to be null.
+     * @param offset   The index within the output that the first decoded symbol should be stored at.
+     * @param length   The maximum amount of symbols that should be decoded.
+     * @return Returns the amount of decoded symbols.
+     */
+    public int decode(final long[] words, final long bitCount, final byte[] output, final int offset, final int length) {
+        if (words == null) throw new IllegalArgumentException("The words are not allowed to be null.");
+        else if (output == null) throw new IllegalArgumentException("The output is not allowed to be null.");
+        else if (offset < 0 || length < 0 || offset + length > output.length) throw new IllegalArgumentException("The offset and length do not match the output.");
+
+        final BitReader reader = new BitReader(words, bitCount);
+        int count = 0;
+
+        while (count < length && reader.getRemaining() > 0) {
+            final long window = reader.peek(BitReader.MAX_PEEK_LENGTH);
+            final int limit = (int) Math.min(BitReader.MAX_PEEK_LENGTH, reader.getRemaining());
+            int used = 0;
+
+            /* Every symbol is decoded straight from the window, until the next code does not fit within the loaded bits anymore.
+               Looking up an index that reaches past the loaded bits is harmless, as every index that shares the first bits of a code resolves to that code.
+               Short codes are decoded two at a time. The second symbol is always stored, it's simply overwritten by the next symbol when the pair only holds one. */
+            while (count + 2 <= length) {
+                final long pair = pairs[(int) (window >>> used) & PRIMARY_TABLE_MASK];
+                final int pairLength = (int) pair & LENGTH_MASK;
+                if (pairLength == 0 || used + pairLength > limit) break;
+
+                output[offset + count] = (byte) (pair >>> VALUE_SHIFT);
+                output[offset + count + 1] = (byte) (pair >>> PAIR_SECOND_SHIFT);
+                count += (int) (pair >>> PAIR_COUNT_SHIFT) & 3;
+                used += pairLength;
+            }
+
+            while (count < length) {
+                int entry = entries[(int) (window >>> used) & PRIMARY_TABLE_MASK];
+                if ((entry & (LINK_FLAG | VALID_FLAG)) != VALID_FLAG) {
+                    if (used > 0) break;
+                    entry = resolve(entry, window);
+                }
+
+                final int codeLength = entry & LENGTH_MASK;
+                if (used + codeLength > limit) break;
+
+                output[offset + count++] = (byte) (entry >>> VALUE_SHIFT);
+                used += codeLength;
+            }
+
+            if (used == 0) break;
+            reader.skip(used);
+        }
+        return count;
+    }
+
+    /**
+     * This method will decode the bits within the given ByteBuffer straight into the given output ByteBuffer, without copying the input to the heap.
+     * The input should use little-endian byte order, so that its bytes are read in the same order in which the BitWriter wrote them.
+     * Decoding stops as soon as the output is full or the next code does not end before the given endBit.
+     * The bytes after the last decoded symbol, up to the limit of the output, may be overwritten as well.
+     *
+     * @param input    The ByteBuffer that contains the encoded bits, starting at index 0. This parameter is not allowed to be null.
+     * @param startBit The position of the first bit that should be decoded.
+     * @param endBit   The position after the last bit that may be decoded. This value should not exceed the limit of the input.
+     * @param output   The ByteBuffer that the decoded symbols should be put in. This parameter is not allowed to be null.
+     * @return Returns the position after the last decoded code.
+     */
+    public long decode(final ByteBuffer input, final long startBit, final long endBit, final ByteBuffer output) {
+        if (input == null) throw new IllegalArgumentException("The input is not allowed to be null.");
+        else if (output == null) throw new IllegalArgumentException("The output is not allowed to be null.");
+        else if (endBit > input.limit() * 8L) throw new IllegalArgumentException("The endBit exceeds the limit of the input.");
+        else if (startBit >= endBit) return startBit;
+
+        final BitReader reader = new BitReader(input, startBit, endBit);
+        final int outputLimit = output.limit();
+        int outputPosition = output.position();
+
+        /* The symbols are put at absolute indices, so that the second symbol of a pair can be stored without moving the position of the output. */
+        while (outputPosition < outputLimit && reader.getRemaining() > 0) {
+            final long window = reader.peek(BitReader.MAX_PEEK_LENGTH);
+            final int limit = (int) Math.min(BitReader.MAX_PEEK_LENGTH, reader.getRemaining());
+            int used = 0;
+
+            while (outputPosition + 2 <= outputLimit) {
+                final long pair = pairs[(int) (window >>> used) & PRIMARY_TABLE_MASK];
+                final int pairLength = (int) pair & LENGTH_MASK;
+                if (pairLength == 0 || used + pairLength > limit) break;
+
+                output.put(outputPosition, (byte) (pair >>> VALUE_SHIFT));
+                output.put(outputPosition + 1, (byte) (pair >>> PAIR_SECOND_SHIFT));
+                outputPosition += (int) (pair >>> PAIR_COUNT_SHIFT) & 3;
+                used += pairLength;
+            }
+
+            while (outputPosition < outputLimit) {
+                int entry = entries[(int) (window >>> used) & PRIMARY_TABLE_MASK];
+                if ((entry & (LINK_FLAG | VALID_FLAG)) != VALID_FLAG) {
+                    if (used > 0) break;
+                    entry = resolve(entry, window);
+                }
+
+                final int length = entry & LENGTH_MASK;
+                if (used + length > limit) break;
+
+                output.put(outputPosition++, (byte) (entry >>> VALUE_SHIFT));
+                used += length;
+            }
+
+            if (used == 0) break;
+            reader.skip(used);
+        }
+        output.position(outputPosition);
+        return reader.getPosition();
+    }
+
+    /**
+     * This method will follow the links of the given primary entry through the secondary tables.
+     * Every code is at most 57 bits long, so the whole code is already held by the given bits.
+     *
+     * @param entry The entry of the primary table.
+     * @param bits  At least the next 57 bits, starting at the first bit of the code.
+     * @return Returns an entry of which the lowest 6 bits hold the total length of the code and the remaining bits hold the symbol.
+     */
+    private int resolve(int entry, final long bits) {
+        int consumed = 0;
+        int tableBits = PRIMARY_TABLE_BITS;
+
+        /* The code is longer than the current table. Let's skip the bits of this table and continue in the linked table. */
+        while ((entry & LINK_FLAG) != 0) {
+            consumed += tableBits;
+            tableBits = entry & LENGTH_MASK;
+            entry = entries[(entry >>> VALUE_SHIFT) + ((int) (bits >>> consumed) & ((1 << tableBits) - 1))];
+        }
+        if ((entry & VALID_FLAG) == 0) throw new IllegalStateException("The bitstream contains a bitcode that is not part of the tree.");
+
+        return (entry & ~LENGTH_MASK) | (consumed + (entry & LENGTH_MASK));
+    }
+
+    /**
+     * This method will combine every entry of the primary table with the code that follows it, whenever both codes fit within the primary table.
+     * @return Returns a pair for every index of the primary table.
+     */
+    private long[] buildPairs() {
+        final long[] pairs = new long[1 << PRIMARY_TABLE_BITS];
+
+        for (int index = 0; index < pairs.length; index++) {
+            final int first = entries[index];
+            if ((first & (LINK_FLAG | VALID_FLAG)) != VALID_FLAG) continue;
+
+            final int firstLength = first & LENGTH_MASK;
+            final int second = entries[index >>> firstLength];
+            final int secondLength = second & LENGTH_MASK;
+
+            /* The index only holds the first bits of the second code, which is enough as long as the whole second code fits within them. */
+            long pair = (long) (first >>> VALUE_SHIFT) << VALUE_SHIFT;
+            if ((second & (LINK_FLAG | VALID_FLAG)) == VALID_FLAG && firstLength + secondLength <= PRIMARY_TABLE_BITS) {
+                pair |= ((long) (second >>> VALUE_SHIFT) << PAIR_SECOND_SHIFT) | (2 << PAIR_COUNT_SHIFT) | (firstLength + secondLength);
+            } else {
+                pair |= (1 << PAIR_COUNT_SHIFT) | firstLength;
+            }
+            pairs[index] = pair;
+        }
+        return pairs;
+    }
+
+    /**
+     * This method will fill a table of 2^bits entries for the given members and will recursively create the secondary tables that it links to.
+     *
+     * @param members     The indices of the symbols that share the prefix that has been consumed so far.
+     * @param memberCount The amount of members within the given array.
+     * @param consumed    The amount of bits that have already been consumed by the parent tables.
+     * @param bits        The amount of bits that this table is indexed by.
+     * @return Returns the offset of the created table within the entries.
+     */
+    private int buildTable(final int[] members, final int memberCount, final int consumed, final int bits) {
+        final int offset = allocate(1 << bits);
+        final long[] linkedMembers = new long[memberCount];
+        int linkedCount = 0;
+
+        for (int i = 0; i < memberCount; i++) {
+            final int member = members[i];
+            final int remaining = lengths[member] - consumed;
+            final int prefix = (int) (codes[member] >>> consumed) & ((1 << Math.min(remaining, bits)) - 1);
+
+            /* The code ends within this table. Every index that starts with the remaining bits of the code should resolve to this symbol. */
+            if (remaining <= bits) {
+                for (int index = prefix; index < (1 << bits); index += (1 << remaining)) {
+                    entries[offset + index] = (symbols[member] << VALUE_SHIFT) | VALID_FLAG | remaining;
+                }
+            } else {
+                linkedMembers[linkedCount++] = ((long) prefix << 32) | member;
+            }
+        }
+
+        /* The longer codes are grouped by the index they share in this table, every group gets its own secondary table. */
+        Arrays.sort(linkedMembers, 0, linkedCount);
+
+        int groupStart = 0;
+        while (groupStart < linkedCount) {
+            final int prefix = (int) (linkedMembers[groupStart] >>> 32);
+            final int[] group = new int[linkedCount - groupStart];
+            int groupCount = 0;
+            int maxRemaining = 0;
+
+            while (groupStart < linkedCount && (int) (linkedMembers[groupStart] >>> 32) == prefix) {
+                final int member = (int) linkedMembers[groupStart++];
+                group[groupCount++] = member;
+                maxRemaining = Math.max(maxRemaining, lengths[member] - consumed - bits);
+            }
+
+            final int subBits = Math.min(maxRemaining, SECONDARY_TABLE_BITS);
+            final int subOffset = buildTable(group, groupCount, consumed + bits, subBits);
+            entries[offset + prefix] = (subOffset << VALUE_SHIFT) | VALID_FLAG | LINK_FLAG | subBits;
+        }
+        return offset;
+    }
+
+    /**
+     * This method will reserve the given amount of entries at the end of the table.
+     *
+     * @param amount The amount of entries that should be reserved.
+     * @return Returns the offset of the first reserved entry.
+     */
+    private int allocate(final int amount) {
+        if (size + amount > entries.length) {
+            entries = Arrays.copyOf(entries, Math.max(entries.length * 2, size + amount));
+        }
+        final int offset = size;
+        size += amount;
+        return offset;
+    }
+}
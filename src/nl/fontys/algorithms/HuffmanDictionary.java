@@ -0,0 +1,228 @@
+package nl.fontys.algorithms;
+
+import nl.fontys.utilities.BitWriter;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A code that has been trained on a sample corpus up front and is identified by an ID.
+ * Short messages that share the distribution of the corpus can be encoded against the dictionary, so that they only have to carry the ID of the
+ * dictionary instead of their own code. The ID should change whenever the dictionary is trained again, as a message can only be decoded with the exact same code.
+ * <p>
+ * An encoded message consists of the ID of the dictionary and a varint, followed by the encoded bits themselves. The varint holds the amount of bytes
+ * shifted left by 3 bits, of which the lowest 3 bits hold the amount of padding bits within the last encoded byte. The amount of encoded bits follows
+ * from the length of the message, so a short message only spends 5 or 6 bytes on its header.
+ * A saved dictionary consists of the format version, the ID and the code.
+ */
+public class HuffmanDictionary {
+
+    public static final int FORMAT_VERSION = 2;
+    public static final int ID_SIZE = Integer.BYTES;
+
+    /* The amount of bytes of a message fits within 31 bits, which together with the 3 padding bits takes at most 5 bytes of 7 bits each. */
+    private static final int PADDING_BITS = 3;
+    private static final int MAX_VARINT_SIZE = 5;
+
+    private final int id;
+    private final HuffmanCodec codec;
+
+    /**
+     * Constructor for this class.
+     * @param id   The ID of this dictionary.
+     * @param code The code of this dictionary. Every byte should have a code. This parameter is not allowed to be null.
+     */
+    public HuffmanDictionary(final int id, final CanonicalHuffmanCode code) {
+        if (code == null) throw new IllegalArgumentException("The code is not allowed to be null.");
+
+        for (int symbol = 0; symbol < Alphabet.BINARY.getSize(); symbol++) {
+            if (code.getLength(symbol) == 0) throw new IllegalArgumentException("The code should contain every byte, but it has no code for " + symbol + ".");
+        }
+        if (code.getMaxSymbol() >= Alphabet.BINARY.getSize()) throw new IllegalArgumentException("The code should only contain bytes.");
+
+        this.id = id;
+        this.codec = new HuffmanCodec(code);
+    }
+
+    /**
+     * This method will train a dictionary on the given samples.
+     * Every byte that does not occur within the samples still gets a (long) code, so that any message can be encoded against the dictionary.
+     *
+     * @param id      The ID of the dictionary.
+     * @param samples The messages that the dictionary should be trained on. This parameter is not allowed to be null.
+     * @return Returns an object of the HuffmanDictionary class.
+     */
+    public static HuffmanDictionary train(final int id, final Iterable<byte[]> samples) {
+        if (samples == null) throw new IllegalArgumentException("The samples are not allowed to be null.");
+
+        final long[] frequencies = new long[Alphabet.BINARY.getSize()];
+        for (final byte[] sample : samples) {
+            if (sample == null) throw new IllegalArgumentException("The samples are not allowed to contain null.");
+
+            for (final byte b : sample) {
+                frequencies[b & 0xFF]++;
+            }
+        }
+        return new HuffmanDictionary(id, HuffmanStreams.buildCode(frequencies, true));
+    }
+
+    /**
+     * This method will read a dictionary that has been written by the writeTo method.
+     *
+     * @param inputStream The InputStream that the dictionary should be read from. The InputStream will not be closed.
+     *                    This parameter is not allowed to be null.
+     * @return Returns an object of the HuffmanDictionary class.
+     * @throws UnsupportedFormatException Thrown when the dictionary has been written in an unsupported format version.
+     * @throws CorruptedDataException Thrown when the dictionary is not valid or ends before it has been read completely.
+     * @throws IOException Thrown when the dictionary could not be read.
+     */
+    public static HuffmanDictionary readFrom(final InputStream inputStream) throws IOException {
+        if (inputStream == null) throw new IllegalArgumentException("The inputStream is not allowed to be null.");
+
+        final DataInputStream dataInputStream = new DataInputStream(inputStream);
+        try {
+            final int version = dataInputStream.readUnsignedByte();
+            if (version != FORMAT_VERSION) throw new UnsupportedFormatException("The dictionary format version " + version + " is not supported.");
+
+            final int id = dataInputStream.readInt();
+            try {
+                return new HuffmanDictionary(id, CanonicalHuffmanCode.readFrom(dataInputStream));
+            } catch (IllegalArgumentException e) {
+                throw new CorruptedDataException("The dictionary " + id + " is not valid.", e);
+            }
+        } catch (EOFException e) {
+            throw new CorruptedDataException("The dictionary ends before it has been read completely.", e);
+        }
+    }
+
+    /**
+     * This method will read the ID of the dictionary that the given message has been encoded against.
+     *
+     * @param message The encoded message. This parameter is not allowed to be null.
+     * @return Returns the ID of the dictionary.
+     * @throws CorruptedDataException Thrown when the given message is too short to contain an ID.
+     */
+    public static int readId(final byte[] message) throws IOException {
+        if (message == null) throw new IllegalArgumentException("The message is not allowed to be null.");
+        else if (message.length < ID_SIZE) throw new CorruptedDataException("The message is too short to contain the ID of a dictionary.");
+
+        return ByteBuffer.wrap(message).getInt();
+    }
+
+    /**
+     * This method will write this dictionary to the given OutputStream.
+     *
+     * @param outputStream The OutputStream that the dictionary should be written to. The OutputStream will not be closed.
+     *                     This parameter is not allowed to be null.
+     * @throws IOException Thrown when the dictionary could not be written to the given OutputStream.
+     */
+    public void writeTo(final OutputStream outputStream) throws IOException {
+        if (outputStream == null) throw new IllegalArgumentException("The outputStream is not allowed to be null.");
+
+        final DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+        dataOutputStream.writeByte(FORMAT_VERSION);
+        dataOutputStream.writeInt(id);
+        codec.getCode().writeTo(dataOutputStream);
+        dataOutputStream.flush();
+    }
+
+    /**
+     * This method will encode the given message against this dictionary.
+     *
+     * @param message The message that should be encoded. This parameter is not allowed to be null.
+     * @return Returns the encoded message, starting with the ID of this dictionary.
+     */
+    public byte[] encode(final byte[] message) {
+        if (message == null) throw new IllegalArgumentException("The message is not allowed to be null.");
+
+        final BitWriter bitWriter = codec.writeBytes(message);
+        final int byteCount = (int) ((bitWriter.getBitCount() + 7) / 8);
+        final long header = (long) message.length << PADDING_BITS | (byteCount * 8L - bitWriter.getBitCount());
+
+        final ByteBuffer encoded = ByteBuffer.allocate(ID_SIZE + getVarintSize(header) + byteCount);
+        encoded.putInt(id);
+        writeVarint(encoded, header);
+        bitWriter.writeTo(encoded);
+        return encoded.array();
+    }
+
+    /**
+     * This method will decode a message that has been encoded against this dictionary.
+     *
+     * @param message The encoded message. This parameter is not allowed to be null.
+     * @return Returns the decoded message.
+     * @throws UnsupportedFormatException Thrown when the given message has been encoded against another dictionary.
+     * @throws CorruptedDataException Thrown when the given message is not a valid encoded message.
+     */
+    public byte[] decode(final byte[] message) throws IOException {
+        final int messageId = readId(message);
+        if (messageId != id) throw new UnsupportedFormatException("The message has been encoded against dictionary " + messageId + " instead of " + id + ".");
+
+        final ByteBuffer byteBuffer = ByteBuffer.wrap(message, ID_SIZE, message.length - ID_SIZE);
+        final long header = readVarint(byteBuffer);
+        final long symbolCount = header >>> PADDING_BITS;
+        final long bitCount = byteBuffer.remaining() * 8L - (header & ((1 << PADDING_BITS) - 1));
+        if (symbolCount > Integer.MAX_VALUE || bitCount < 0) throw new CorruptedDataException("The message contains an invalid amount of bytes or padding bits.");
+
+        return codec.readBytes(byteBuffer, (int) symbolCount, bitCount);
+    }
+
+    /**
+     * @return Returns the amount of bytes that the given value takes as a varint.
+     */
+    private static int getVarintSize(final long value) {
+        int size = 1;
+        for (long rest = value >>> 7; rest != 0; rest >>>= 7) {
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * This method will write the given value 7 bits at a time, starting with the lowest bits, where the highest bit of every byte tells whether another byte follows.
+     */
+    private static void writeVarint(final ByteBuffer byteBuffer, final long value) {
+        long rest = value;
+        while (rest >= 0x80) {
+            byteBuffer.put((byte) (rest & 0x7F | 0x80));
+            rest >>>= 7;
+        }
+        byteBuffer.put((byte) rest);
+    }
+
+    /**
+     * This method will read a value that has been written by the writeVarint method.
+     * @throws CorruptedDataException Thrown when the varint is not complete or takes more than MAX_VARINT_SIZE bytes.
+     */
+    private static long readVarint(final ByteBuffer byteBuffer) throws CorruptedDataException {
+        long value = 0;
+
+        for (int i = 0; i < MAX_VARINT_SIZE; i++) {
+            if (!byteBuffer.hasRemaining()) throw new CorruptedDataException("The message is too short to contain the amount of bytes.");
+
+            final int b = byteBuffer.get() & 0xFF;
+            value |= (long) (b & 0x7F) << (7 * i);
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new CorruptedDataException("The message contains an amount of bytes that takes more than " + MAX_VARINT_SIZE + " bytes.");
+    }
+
+    /**
+     * @return Returns the ID of this dictionary.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return Returns the code of this dictionary.
+     */
+    public CanonicalHuffmanCode getCode() {
+        return codec.getCode();
+    }
+}
@@ -0,0 +1,135 @@
+package nl.fontys.algorithms;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of dictionaries that resolves the ID of an encoded message into its dictionary.
+ * Dictionaries are loaded on their first use, and the least recently used dictionary is dropped once the cache holds more than its capacity.
+ * <p>
+ * The cache can be shared by multiple threads. The lock of the cache is only held to look up and store a dictionary, a dictionary is loaded outside of it,
+ * so a slow load does not block the lookups of other dictionaries. Two threads that miss the same dictionary at once may both load it, after which the
+ * dictionary that has been stored first is returned to both of them.
+ */
+public class HuffmanDictionaryCache {
+
+    /**
+     * Loads the dictionary for an ID that is not cached yet.
+     */
+    public interface Loader {
+
+        /**
+         * @param id The ID of the dictionary that should be loaded.
+         * @return Returns the dictionary with the given ID.
+         * @throws IOException Thrown when the dictionary could not be loaded.
+         */
+        HuffmanDictionary load(int id) throws IOException;
+    }
+
+    public static final String FILE_EXTENSION = ".dict";
+
+    private final Loader loader;
+    private final LeastRecentlyUsedMap dictionaries;
+
+    /**
+     * Constructor for this class.
+     * @param capacity The maximum amount of dictionaries that are kept in memory. This value should be above 0.
+     * @param loader   The loader that dictionaries that are not cached are loaded with. This parameter is not allowed to be null.
+     */
+    public HuffmanDictionaryCache(final int capacity, final Loader loader) {
+        if (capacity < 1) throw new IllegalArgumentException("The capacity should be above 0.");
+        else if (loader == null) throw new IllegalArgumentException("The loader is not allowed to be null.");
+
+        this.loader = loader;
+        this.dictionaries = new LeastRecentlyUsedMap(capacity);
+    }
+
+    /**
+     * This method will create a cache that loads the dictionaries from the given directory, where every dictionary is saved as its ID followed by FILE_EXTENSION.
+     *
+     * @param directory The directory that contains the dictionaries. This parameter is not allowed to be null.
+     * @param capacity  The maximum amount of dictionaries that are kept in memory. This value should be above 0.
+     * @return Returns an object of the HuffmanDictionaryCache class.
+     */
+    public static HuffmanDictionaryCache fromDirectory(final Path directory, final int capacity) {
+        if (directory == null) throw new IllegalArgumentException("The directory is not allowed to be null.");
+
+        return new HuffmanDictionaryCache(capacity, id -> {
+            try (final InputStream inputStream = Files.newInputStream(directory.resolve(id + FILE_EXTENSION))) {
+                final HuffmanDictionary dictionary = HuffmanDictionary.readFrom(inputStream);
+                if (dictionary.getId() != id) throw new IOException("The file of dictionary " + id + " contains dictionary " + dictionary.getId() + ".");
+                return dictionary;
+            } catch (NoSuchFileException e) {
+                throw new IOException("The dictionary " + id + " could not be found.", e);
+            }
+        });
+    }
+
+    /**
+     * This method will return the dictionary with the given ID, loading it when it's not cached yet.
+     *
+     * @param id The ID of the dictionary.
+     * @return Returns the dictionary with the given ID.
+     * @throws IOException Thrown when the dictionary could not be loaded.
+     */
+    public HuffmanDictionary get(final int id) throws IOException {
+        synchronized (dictionaries) {
+            final HuffmanDictionary dictionary = dictionaries.get(id);
+            if (dictionary != null) return dictionary;
+        }
+
+        final HuffmanDictionary dictionary = loader.load(id);
+        if (dictionary == null || dictionary.getId() != id) throw new IOException("The loader did not return dictionary " + id + ".");
+
+        synchronized (dictionaries) {
+            final HuffmanDictionary stored = dictionaries.putIfAbsent(id, dictionary);
+            return stored == null ? dictionary : stored;
+        }
+    }
+
+    /**
+     * This method will decode the given message with the dictionary that it has been encoded against.
+     *
+     * @param message The encoded message. This parameter is not allowed to be null.
+     * @return Returns the decoded message.
+     * @throws IOException Thrown when the dictionary could not be loaded or when the given message is not a valid encoded message.
+     */
+    public byte[] decode(final byte[] message) throws IOException {
+        return get(HuffmanDictionary.readId(message)).decode(message);
+    }
+
+    /**
+     * @return Returns the amount of dictionaries that are currently cached.
+     */
+    public int size() {
+        synchronized (dictionaries) {
+            return dictionaries.size();
+        }
+    }
+
+    /**
+     * A LinkedHashMap in access order, which keeps the least recently used dictionary first. That dictionary is removed when the map holds more than its capacity.
+     */
+    private static class LeastRecentlyUsedMap extends LinkedHashMap<Integer, HuffmanDictionary> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        private LeastRecentlyUsedMap(final int capacity) {
+            super(16, 0.75f, true);
+
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Integer, HuffmanDictionary> eldest) {
+            return size() > capacity;
+        }
+    }
+}
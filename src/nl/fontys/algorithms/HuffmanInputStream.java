@@ -0,0 +1,33 @@
+package nl.fontys.algorithms;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An InputStream that decodes a stream that has been written by the HuffmanOutputStream class.
+ * The frames are read and verified as described by the FramedInputStream class, and are all decoded with the code from the header.
+ */
+public class HuffmanInputStream extends FramedInputStream {
+
+    private final HuffmanDecodingTable decodingTable;
+
+    /**
+     * Constructor for this class. The header and the code will be read from the given InputStream straight away.
+     *
+     * @param inputStream The InputStream that the encoded bytes should be read from.
+     *                    This parameter is not allowed to be null.
+     * @throws UnsupportedFormatException Thrown when the InputStream does not contain a compressed stream, or one of a format version that is not supported.
+     * @throws CorruptedDataException Thrown when the header is damaged or ends too early.
+     * @throws IOException Thrown when the code could not be read from the given InputStream.
+     */
+    public HuffmanInputStream(final InputStream inputStream) throws IOException {
+        super(inputStream);
+
+        this.decodingTable = readHeader(HuffmanOutputStream.MAGIC, HuffmanOutputStream.FORMAT_VERSION, CanonicalHuffmanCode::readFrom).getDecodingTable();
+    }
+
+    @Override
+    int decodeFrame(final long[] words, final int bitCount, final byte[] decoded) {
+        return decodingTable.decode(words, bitCount, decoded, 0, decoded.length);
+    }
+}
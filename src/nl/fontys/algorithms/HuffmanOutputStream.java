@@ -0,0 +1,55 @@
+package nl.fontys.algorithms;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An OutputStream that encodes every written byte with a given canonical code.
+ * The header of the stream contains the code, the encoded bytes are written in checksummed frames as described by the FramedOutputStream class.
+ */
+public class HuffmanOutputStream extends FramedOutputStream {
+
+    public static final int MAGIC = 0x48554653;
+    public static final int FORMAT_VERSION = 2;
+
+    private final CanonicalHuffmanCode code;
+
+    /**
+     * Constructor for this class. Every frame encodes FRAME_SIZE bytes.
+     *
+     * @param outputStream The OutputStream that the encoded bytes should be written to.
+     *                     This parameter is not allowed to be null.
+     * @param code         The code that should be used for encoding. The code should contain every byte that will be written.
+     *                     This parameter is not allowed to be null.
+     * @throws IOException Thrown when the code could not be written to the given OutputStream.
+     */
+    public HuffmanOutputStream(final OutputStream outputStream, final CanonicalHuffmanCode code) throws IOException {
+        this(outputStream, code, FRAME_SIZE);
+    }
+
+    /**
+     * Constructor for this class. The header and the given code will be written to the given OutputStream straight away.
+     *
+     * @param outputStream The OutputStream that the encoded bytes should be written to.
+     *                     This parameter is not allowed to be null.
+     * @param code         The code that should be used for encoding. The code should contain every byte that will be written.
+     *                     This parameter is not allowed to be null.
+     * @param frameSize    The amount of bytes that a single frame encodes. This value should be between 1 and MAX_FRAME_SIZE.
+     * @throws IOException Thrown when the code could not be written to the given OutputStream.
+     */
+    public HuffmanOutputStream(final OutputStream outputStream, final CanonicalHuffmanCode code, final int frameSize) throws IOException {
+        super(outputStream, frameSize);
+        if (code == null) throw new IllegalArgumentException("The code is not allowed to be null.");
+
+        this.code = code;
+        writeHeader(MAGIC, FORMAT_VERSION, code::writeTo);
+    }
+
+    @Override
+    void writeSymbol(final int symbol) throws IOException {
+        final int length = code.getLength(symbol);
+        if (length == 0) throw new IllegalArgumentException("The byte " + symbol + " is not part of the code.");
+
+        writeCode(code.getCode(symbol), length);
+    }
+}
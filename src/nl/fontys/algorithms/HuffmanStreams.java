@@ -0,0 +1,407 @@
+package nl.fontys.algorithms;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compresses and decompresses files and streams through the HuffmanOutputStream and HuffmanInputStream classes, which only hold a bounded buffer in memory.
+ * Every compression and decompression of a file or stream is recorded to the default CompressionMetrics. The bytes are written while they're encoded,
+ * so the encode time of a compression includes writing them.
+ */
+public class HuffmanStreams {
+
+    public static final int BUFFER_SIZE = 64 * 1024;
+
+    /* A sample of this size is large enough to find every byte that occurs regularly, while it's still cheap to hold in memory. */
+    public static final int DEFAULT_SAMPLE_SIZE = 1 << 20;
+
+    /* A sample of a file is read as evenly spread chunks of this size, which are large enough to be read efficiently and small enough to cover the whole file. */
+    public static final int SAMPLE_CHUNK_SIZE = 4 * 1024;
+
+    private HuffmanStreams() { }
+
+    /**
+     * This method will count the frequency of every byte within the given InputStream, until the end of the stream has been reached.
+     *
+     * @param inputStream The InputStream that should be counted.
+     *                    This parameter is not allowed to be null.
+     * @return Returns the frequency of every byte, indexed by the unsigned value of the byte.
+     * @throws IOException Thrown when the given InputStream could not be read.
+     */
+    public static long[] countFrequencies(final InputStream inputStream) throws IOException {
+        return sampleFrequencies(inputStream, Long.MAX_VALUE);
+    }
+
+    /**
+     * This method will count the frequency of every byte within the first sampleSize bytes of the given InputStream.
+     *
+     * @param inputStream The InputStream that should be counted.
+     *                    This parameter is not allowed to be null.
+     * @param sampleSize  The maximum amount of bytes that should be counted. This value should be above 0.
+     * @return Returns the frequency of every byte, indexed by the unsigned value of the byte.
+     * @throws IOException Thrown when the given InputStream could not be read.
+     */
+    public static long[] sampleFrequencies(final InputStream inputStream, final long sampleSize) throws IOException {
+        if (inputStream == null) throw new IllegalArgumentException("The inputStream is not allowed to be null.");
+        else if (sampleSize < 1) throw new IllegalArgumentException("The sampleSize should be above 0.");
+
+        final long[] frequencies = new long[Alphabet.BINARY.getSize()];
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        long remaining = sampleSize;
+        int read;
+
+        while (remaining > 0 && (read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, remaining))) != -1) {
+            for (int i = 0; i < read; i++) {
+                frequencies[buffer[i] & 0xFF]++;
+            }
+            remaining -= read;
+        }
+        return frequencies;
+    }
+
+    /**
+     * This method will count the frequency of every byte within a sample of about sampleSize bytes of the given file.
+     * Instead of the first bytes, the sample consists of chunks that are evenly spread over the whole file, so that a file that changes halfway is still represented.
+     * Only the sampled chunks are read, the file is counted completely when it's not larger than the sample.
+     *
+     * @param file       The file that should be sampled. This parameter is not allowed to be null.
+     * @param sampleSize The amount of bytes that should be sampled. This value should be above 0.
+     * @return Returns the frequency of every byte within the sample, indexed by the unsigned value of the byte.
+     * @throws IOException Thrown when the given file could not be read.
+     */
+    public static long[] sampleFrequencies(final Path file, final long sampleSize) throws IOException {
+        if (file == null) throw new IllegalArgumentException("The file is not allowed to be null.");
+        else if (sampleSize < 1) throw new IllegalArgumentException("The sampleSize should be above 0.");
+
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size <= sampleSize) return countFrequencies(new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE));
+
+            final long[] frequencies = new long[Alphabet.BINARY.getSize()];
+            final int chunkSize = (int) Math.min(SAMPLE_CHUNK_SIZE, sampleSize);
+            final long chunkCount = (sampleSize + chunkSize - 1) / chunkSize;
+            final ByteBuffer buffer = ByteBuffer.allocate(chunkSize);
+
+            for (long chunk = 0; chunk < chunkCount; chunk++) {
+                final long start = chunk * (size - chunkSize) / Math.max(1, chunkCount - 1);
+                buffer.clear();
+
+                while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) != -1) { }
+
+                for (int i = 0; i < buffer.position(); i++) {
+                    frequencies[buffer.get(i) & 0xFF]++;
+                }
+            }
+            return frequencies;
+        }
+    }
+
+    /**
+     * This method will create a canonical code for the given byte frequencies.
+     *
+     * @param frequencies The frequency of every byte, indexed by the unsigned value of the byte.
+     *                    This parameter is not allowed to be null.
+     * @param smoothed    Whether every byte should get a code, even if its frequency is 0.
+     *                    This should be used when the frequencies have been counted from a sample, as the bytes outside of the sample could be different.
+     * @return Returns an object of the CanonicalHuffmanCode class.
+     */
+    public static CanonicalHuffmanCode buildCode(final long[] frequencies, final boolean smoothed) {
+        if (frequencies == null) throw new IllegalArgumentException("The frequencies are not allowed to be null.");
+
+        final long[] adjustedFrequencies = new long[Alphabet.BINARY.getSize()];
+        boolean empty = true;
+
+        for (int i = 0; i < Alphabet.BINARY.getSize(); i++) {
+            adjustedFrequencies[i] = (i < frequencies.length ? frequencies[i] : 0L) + (smoothed ? 1L : 0L);
+            empty &= adjustedFrequencies[i] == 0;
+        }
+
+        /* An empty input still needs a code, so that the header can be written. */
+        if (empty) {
+            adjustedFrequencies[0] = 1;
+        }
+        return CanonicalHuffmanCode.fromFrequencies(adjustedFrequencies);
+    }
+
+    /**
+     * This method will compress the given file into the given target file.
+     * The file is read twice: once to count the frequency of every byte and once to encode it. Only a bounded buffer is held in memory.
+     *
+     * @param source The file that should be compressed. This parameter is not allowed to be null.
+     * @param target The file that the compressed bytes should be written to. This parameter is not allowed to be null.
+     * @throws IOException Thrown when either of the files could not be read or written.
+     */
+    public static void compress(final Path source, final Path target) throws IOException {
+        if (source == null || target == null) throw new IllegalArgumentException("The source and target are not allowed to be null.");
+
+        final long start = System.nanoTime();
+        final long[] frequencies;
+        try (final InputStream inputStream = Files.newInputStream(source)) {
+            frequencies = countFrequencies(inputStream);
+        }
+
+        final long counted = System.nanoTime();
+        final CanonicalHuffmanCode code = buildCode(frequencies, false);
+
+        final long built = System.nanoTime();
+        final HuffmanOutputStream huffmanOutputStream;
+        try (final InputStream inputStream = Files.newInputStream(source);
+             final HuffmanOutputStream outputStream = new HuffmanOutputStream(new BufferedOutputStream(Files.newOutputStream(target), BUFFER_SIZE), code)) {
+            huffmanOutputStream = outputStream;
+            copy(inputStream, outputStream);
+        }
+        record(frequencies, huffmanOutputStream, start, counted, built);
+    }
+
+    /**
+     * This method will compress the given file into the given target file, with a code that has been built from a sample of the file.
+     * The sample is only a fraction of the file, so the file is read just once as a whole. Every byte gets a code, even when it does not occur within the sample.
+     * The exact frequencies are counted while the file is encoded, so that the compression ratio that has been lost by sampling can be reported afterwards.
+     * The target file can be decompressed by the decompress method.
+     *
+     * @param source     The file that should be compressed. This parameter is not allowed to be null.
+     * @param target     The file that the compressed bytes should be written to. This parameter is not allowed to be null.
+     * @param sampleSize The amount of bytes that should be sampled. This value should be above 0.
+     * @return Returns a report that compares the sampled code with the code of an exact count.
+     * @throws IOException Thrown when either of the files could not be read or written.
+     */
+    public static SamplingReport compress(final Path source, final Path target, final long sampleSize) throws IOException {
+        return compress(source, target, sampleSize, HuffmanOutputStream.FRAME_SIZE);
+    }
+
+    /**
+     * This method will compress the given file into the given target file, with a code that has been built from a sample of the file and frames of the given block size.
+     * See compress(Path, Path, long) for how the file is sampled.
+     *
+     * @param source     The file that should be compressed. This parameter is not allowed to be null.
+     * @param target     The file that the compressed bytes should be written to. This parameter is not allowed to be null.
+     * @param sampleSize The amount of bytes that should be sampled. This value should be above 0.
+     * @param blockSize  The amount of bytes that every frame encodes. This value should be between 1 and HuffmanOutputStream.MAX_FRAME_SIZE.
+     * @return Returns a report that compares the sampled code with the code of an exact count.
+     * @throws IOException Thrown when either of the files could not be read or written.
+     */
+    public static SamplingReport compress(final Path source, final Path target, final long sampleSize, final int blockSize) throws IOException {
+        if (source == null || target == null) throw new IllegalArgumentException("The source and target are not allowed to be null.");
+
+        final long start = System.nanoTime();
+        final long[] sampledFrequencies = sampleFrequencies(source, sampleSize);
+
+        final long counted = System.nanoTime();
+        final CanonicalHuffmanCode code = buildCode(sampledFrequencies, true);
+        final long[] frequencies = new long[Alphabet.BINARY.getSize()];
+
+        final long built = System.nanoTime();
+        final HuffmanOutputStream huffmanOutputStream;
+        try (final InputStream inputStream = Files.newInputStream(source);
+             final HuffmanOutputStream outputStream = new HuffmanOutputStream(new BufferedOutputStream(Files.newOutputStream(target), BUFFER_SIZE), code, blockSize)) {
+            huffmanOutputStream = outputStream;
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+
+            while ((read = inputStream.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    frequencies[buffer[i] & 0xFF]++;
+                }
+                outputStream.write(buffer, 0, read);
+            }
+        }
+        record(frequencies, huffmanOutputStream, start, counted, built);
+
+        long sampledBytes = 0;
+        for (final long frequency : sampledFrequencies) {
+            sampledBytes += frequency;
+        }
+        return new SamplingReport(sampledBytes, frequencies, code);
+    }
+
+    /**
+     * This method will compress the given InputStream into the given OutputStream in a single pass, with a code that has been built from the first sampleSize bytes.
+     * Only the sample is held in memory, so streams of any length can be compressed. When the whole stream fits within the sample, the exact code is used.
+     * Otherwise every byte gets a code, even when it does not occur within the sample. The result can be decompressed by the decompress method.
+     *
+     * @param inputStream  The InputStream that should be compressed until its end. The InputStream will not be closed.
+     *                     This parameter is not allowed to be null.
+     * @param outputStream The OutputStream that the compressed bytes should be written to. The OutputStream will not be closed.
+     *                     This parameter is not allowed to be null.
+     * @param sampleSize   The amount of bytes that should be sampled. This value should be above 0.
+     * @return Returns a report that compares the sampled code with the code of an exact count.
+     * @throws IOException Thrown when the InputStream could not be read or the OutputStream could not be written.
+     */
+    public static SamplingReport compress(final InputStream inputStream, final OutputStream outputStream, final int sampleSize) throws IOException {
+        return compress(inputStream, outputStream, sampleSize, HuffmanOutputStream.FRAME_SIZE);
+    }
+
+    /**
+     * This method will compress the given InputStream into the given OutputStream in a single pass, with a code that has been built from the first sampleSize bytes
+     * and frames of the given block size. See compress(InputStream, OutputStream, int) for how the stream is sampled.
+     *
+     * @param inputStream  The InputStream that should be compressed until its end. The InputStream will not be closed.
+     *                     This parameter is not allowed to be null.
+     * @param outputStream The OutputStream that the compressed bytes should be written to. The OutputStream will not be closed.
+     *                     This parameter is not allowed to be null.
+     * @param sampleSize   The amount of bytes that should be sampled. This value should be above 0.
+     * @param blockSize    The amount of bytes that every frame encodes. This value should be between 1 and HuffmanOutputStream.MAX_FRAME_SIZE.
+     * @return Returns a report that compares the sampled code with the code of an exact count.
+     * @throws IOException Thrown when the InputStream could not be read or the OutputStream could not be written.
+     */
+    public static SamplingReport compress(final InputStream inputStream, final OutputStream outputStream, final int sampleSize, final int blockSize) throws IOException {
+        if (inputStream == null) throw new IllegalArgumentException("The inputStream is not allowed to be null.");
+        else if (outputStream == null) throw new IllegalArgumentException("The outputStream is not allowed to be null.");
+        else if (sampleSize < 1) throw new IllegalArgumentException("The sampleSize should be above 0.");
+
+        final long start = System.nanoTime();
+        final byte[] sample = new byte[sampleSize];
+        int sampled = 0;
+        int read = 0;
+
+        while (sampled < sample.length && (read = inputStream.read(sample, sampled, sample.length - sampled)) != -1) {
+            sampled += read;
+        }
+
+        final long[] sampledFrequencies = new long[Alphabet.BINARY.getSize()];
+        for (int i = 0; i < sampled; i++) {
+            sampledFrequencies[sample[i] & 0xFF]++;
+        }
+
+        /* A stream that ended within the sample has been counted exactly, so it doesn't need a code for the bytes that it does not contain. */
+        final long counted = System.nanoTime();
+        final boolean ended = read == -1;
+        final CanonicalHuffmanCode code = buildCode(sampledFrequencies, !ended);
+        final long[] frequencies = sampledFrequencies.clone();
+
+        final long built = System.nanoTime();
+        final HuffmanOutputStream huffmanOutputStream = new HuffmanOutputStream(new BufferedOutputStream(outputStream, BUFFER_SIZE), code, blockSize);
+        huffmanOutputStream.write(sample, 0, sampled);
+
+        if (!ended) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+
+            while ((read = inputStream.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    frequencies[buffer[i] & 0xFF]++;
+                }
+                huffmanOutputStream.write(buffer, 0, read);
+            }
+        }
+        huffmanOutputStream.finish();
+        record(frequencies, huffmanOutputStream, start, counted, built);
+        return new SamplingReport(sampled, frequencies, code);
+    }
+
+    /**
+     * This method will decompress the given file, that has been compressed by the compress method, into the given target file.
+     *
+     * @param source The file that should be decompressed. This parameter is not allowed to be null.
+     * @param target The file that the decompressed bytes should be written to. This parameter is not allowed to be null.
+     * @throws IOException Thrown when either of the files could not be read or written.
+     */
+    public static void decompress(final Path source, final Path target) throws IOException {
+        if (source == null || target == null) throw new IllegalArgumentException("The source and target are not allowed to be null.");
+
+        final long start = System.nanoTime();
+        try (final InputStream inputStream = new HuffmanInputStream(new BufferedInputStream(Files.newInputStream(source), BUFFER_SIZE));
+             final OutputStream outputStream = Files.newOutputStream(target)) {
+            final long read = System.nanoTime();
+            final long bytes = copy(inputStream, outputStream);
+            CompressionMetrics.getDefault().recordDecompression(bytes, read - start, System.nanoTime() - read);
+        }
+    }
+
+    /**
+     * This method will decompress the given InputStream, that has been compressed by one of the compress methods, into the given OutputStream.
+     * Only a single frame is held in memory at a time.
+     *
+     * @param inputStream  The InputStream that the compressed bytes should be read from. The InputStream will not be closed.
+     *                     This parameter is not allowed to be null.
+     * @param outputStream The OutputStream that the decompressed bytes should be written to. The OutputStream will not be closed.
+     *                     This parameter is not allowed to be null.
+     * @throws UnsupportedFormatException Thrown when the InputStream does not contain a compressed stream, or one of a format version that is not supported.
+     * @throws CorruptedDataException Thrown when the compressed stream is damaged or ends too early.
+     * @throws IOException Thrown when the InputStream could not be read or the OutputStream could not be written.
+     */
+    public static void decompress(final InputStream inputStream, final OutputStream outputStream) throws IOException {
+        if (inputStream == null) throw new IllegalArgumentException("The inputStream is not allowed to be null.");
+        else if (outputStream == null) throw new IllegalArgumentException("The outputStream is not allowed to be null.");
+
+        final long start = System.nanoTime();
+        final InputStream huffmanInputStream = new HuffmanInputStream(new BufferedInputStream(inputStream, BUFFER_SIZE));
+
+        final long read = System.nanoTime();
+        final long bytes = copy(huffmanInputStream, outputStream);
+        outputStream.flush();
+        CompressionMetrics.getDefault().recordDecompression(bytes, read - start, System.nanoTime() - read);
+    }
+
+    /**
+     * This method will create a channel that encodes every written byte with the given code before writing it to the given channel.
+     *
+     * @param channel The channel that the encoded bytes should be written to. This parameter is not allowed to be null.
+     * @param code    The code that should be used for encoding. This parameter is not allowed to be null.
+     * @return Returns a WritableByteChannel. Closing it will write the end of the stream and close the given channel.
+     * @throws IOException Thrown when the code could not be written to the given channel.
+     */
+    public static WritableByteChannel newEncodingChannel(final WritableByteChannel channel, final CanonicalHuffmanCode code) throws IOException {
+        if (channel == null) throw new IllegalArgumentException("The channel is not allowed to be null.");
+
+        return Channels.newChannel(new HuffmanOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE), code));
+    }
+
+    /**
+     * This method will create a channel that decodes the bytes that are read from the given channel.
+     *
+     * @param channel The channel that the encoded bytes should be read from. This parameter is not allowed to be null.
+     * @return Returns a ReadableByteChannel containing the decoded bytes.
+     * @throws IOException Thrown when the code could not be read from the given channel.
+     */
+    public static ReadableByteChannel newDecodingChannel(final ReadableByteChannel channel) throws IOException {
+        if (channel == null) throw new IllegalArgumentException("The channel is not allowed to be null.");
+
+        return Channels.newChannel(new HuffmanInputStream(new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE)));
+    }
+
+    /**
+     * This method will copy every byte of the given InputStream to the given OutputStream through a bounded buffer.
+     * @return Returns the amount of bytes that have been copied.
+     */
+    private static long copy(final InputStream inputStream, final OutputStream outputStream) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        long count = 0;
+        int read;
+
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+            count += read;
+        }
+        return count;
+    }
+
+    /**
+     * This method will record a compression that has been written to the given HuffmanOutputStream to the default CompressionMetrics.
+     *
+     * @param frequencies  The exact frequency of every byte that has been compressed.
+     * @param outputStream The stream that the bytes have been compressed into, after its end has been written.
+     * @param start        The time at which the compression started.
+     * @param counted      The time at which the frequencies had been counted.
+     * @param built        The time at which the code had been built.
+     */
+    private static void record(final long[] frequencies, final HuffmanOutputStream outputStream, final long start, final long counted, final long built) {
+        long bytes = 0;
+        for (final long frequency : frequencies) {
+            bytes += frequency;
+        }
+
+        CompressionMetrics.getDefault().record(new CompressionReport(bytes, outputStream.getSize(), bytes, outputStream.getEncodedBitCount(),
+                CompressionReport.getEntropyBitCount(frequencies), counted - start, built - counted, System.nanoTime() - built, 0));
+    }
+}
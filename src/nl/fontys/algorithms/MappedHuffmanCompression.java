@@ -0,0 +1,529 @@
+package nl.fontys.algorithms;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Compresses files into files by mapping them into memory, so that the bytes are never copied onto the heap.
+ * The input is mapped in regions, which means that files larger than a single MappedByteBuffer can be compressed as well.
+ * The encoded bits are collected in a direct ByteBuffer that is written to the target file whenever it's full.
+ * <p>
+ * A compressed file starts with a magic number, the format version, the code, the amount of original bytes, the amount of encoded bits and the index interval,
+ * followed by the CRC32 checksum of those and the encoded bits themselves. The encoded bits are followed by an index that holds the bit offset
+ * and the CRC32 checksum of every block of index interval bytes, so that a range of bytes can be decoded without decoding anything before the block that it starts in,
+ * and no damaged block is ever decoded.
+ * <p>
+ * Every compression, decompression and decoded range is recorded to a CompressionMetrics instance. The encoded bits are written as soon as the buffer is full,
+ * so the encode time of a compression includes writing them, while the write time only covers the index.
+ */
+public class MappedHuffmanCompression {
+
+    public static final int MAGIC = 0x4855464D;
+    public static final int FORMAT_VERSION = 1;
+    public static final int DEFAULT_REGION_SIZE = 1 << 30;
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+    public static final int DEFAULT_INDEX_INTERVAL = 64 * 1024;
+
+    /* A block of this many bytes encodes into less than 2 GiB even with the longest codes, so every block can be mapped at once. */
+    public static final int MAX_INDEX_INTERVAL = 1 << 24;
+
+    /* Every entry of the index holds the bit offset at which its block starts and the checksum of the block. */
+    private static final int INDEX_ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+
+    private final int regionSize;
+    private final int bufferSize;
+    private final int indexInterval;
+    private final CompressionMetrics metrics;
+
+    /**
+     * Constructor for this class. Regions of DEFAULT_REGION_SIZE bytes will be mapped, a buffer of DEFAULT_BUFFER_SIZE bytes will be used
+     * and an index entry will be written every DEFAULT_INDEX_INTERVAL bytes.
+     */
+    public MappedHuffmanCompression() {
+        this(DEFAULT_REGION_SIZE, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor for this class. An index entry will be written every DEFAULT_INDEX_INTERVAL bytes.
+     * @param regionSize The maximum amount of bytes that will be mapped at once. This value should be at least 16.
+     * @param bufferSize The amount of bytes of the direct buffer that the output is collected in. This value should be at least 16.
+     */
+    public MappedHuffmanCompression(final int regionSize, final int bufferSize) {
+        this(regionSize, bufferSize, DEFAULT_INDEX_INTERVAL);
+    }
+
+    /**
+     * Constructor for this class.
+     * @param regionSize    The maximum amount of bytes that will be mapped at once. This value should be at least 16.
+     * @param bufferSize    The amount of bytes of the direct buffer that the output is collected in. This value should be at least 16.
+     * @param indexInterval The amount of bytes per block of the index. A smaller interval makes decoding a range cheaper, at the cost of
+     *                      12 bytes per block within the compressed file. This value should be between 1 and MAX_INDEX_INTERVAL.
+     */
+    public MappedHuffmanCompression(final int regionSize, final int bufferSize, final int indexInterval) {
+        this(regionSize, bufferSize, indexInterval, CompressionMetrics.getDefault());
+    }
+
+    /**
+     * Constructor for this class.
+     * @param regionSize    The maximum amount of bytes that will be mapped at once. This value should be at least 16.
+     * @param bufferSize    The amount of bytes of the direct buffer that the output is collected in. This value should be at least 16.
+     * @param indexInterval The amount of bytes per block of the index. This value should be between 1 and MAX_INDEX_INTERVAL.
+     * @param metrics       The metrics that every compression and decompression should be recorded to. This parameter is not allowed to be null.
+     */
+    public MappedHuffmanCompression(final int regionSize, final int bufferSize, final int indexInterval, final CompressionMetrics metrics) {
+        if (regionSize < 16) throw new IllegalArgumentException("The regionSize should be at least 16.");
+        else if (bufferSize < 16) throw new IllegalArgumentException("The bufferSize should be at least 16.");
+        else if (indexInterval < 1 || indexInterval > MAX_INDEX_INTERVAL) throw new IllegalArgumentException("The indexInterval should be between 1 and " + MAX_INDEX_INTERVAL + ".");
+        else if (metrics == null) throw new IllegalArgumentException("The metrics are not allowed to be null.");
+
+        this.regionSize = regionSize;
+        this.bufferSize = bufferSize;
+        this.indexInterval = indexInterval;
+        this.metrics = metrics;
+    }
+
+    /**
+     * This method will compress the given file into the given target file.
+     * The checksums of the blocks are computed from the target file once the encoded bits have been written, while those are still in the page cache.
+     *
+     * @param source The file that should be compressed. This parameter is not allowed to be null.
+     * @param target The file that the compressed bytes should be written to. This parameter is not allowed to be null.
+     * @throws IOException Thrown when either of the files could not be read or written.
+     */
+    public void compress(final Path source, final Path target) throws IOException {
+        if (source == null || target == null) throw new IllegalArgumentException("The source and target are not allowed to be null.");
+
+        try (final FileChannel input = FileChannel.open(source, StandardOpenOption.READ);
+             final FileChannel output = FileChannel.open(target, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final long start = System.nanoTime();
+            final long size = input.size();
+            final long[] frequencies = countFrequencies(input, size);
+
+            final long counted = System.nanoTime();
+            final CanonicalHuffmanCode code = HuffmanStreams.buildCode(frequencies, false);
+
+            final long built = System.nanoTime();
+
+            /* The frequencies tell exactly how many bits the encoded file will take, so the header can be written before any bit is encoded. */
+            long bitCount = 0;
+            for (int symbol = 0; symbol < frequencies.length; symbol++) {
+                bitCount += frequencies[symbol] * code.getLength(symbol);
+            }
+
+            /* Every byte of the header passes through the checksum on its way to the file. */
+            final DataOutputStream dataOutputStream = new DataOutputStream(Channels.newOutputStream(output));
+            final CRC32 checksum = new CRC32();
+            final DataOutputStream headerOutputStream = new DataOutputStream(new CheckedOutputStream(dataOutputStream, checksum));
+            headerOutputStream.writeInt(MAGIC);
+            headerOutputStream.writeByte(FORMAT_VERSION);
+            code.writeTo(headerOutputStream);
+            headerOutputStream.writeLong(size);
+            headerOutputStream.writeLong(bitCount);
+            headerOutputStream.writeInt(indexInterval);
+            dataOutputStream.writeInt((int) checksum.getValue());
+            dataOutputStream.flush();
+
+            final long payloadStart = output.position();
+            final long[] index = encode(input, size, code, output);
+
+            final long encoded = System.nanoTime();
+            final PayloadMapper mapper = new PayloadMapper(output, payloadStart, (bitCount + 7) / 8);
+            final DataOutputStream indexOutputStream = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(output)));
+            for (int block = 0; block < index.length; block++) {
+                final long startBit = index[block];
+                final long endBit = block + 1 < index.length ? index[block + 1] : bitCount;
+
+                indexOutputStream.writeLong(startBit);
+                indexOutputStream.writeInt(checksum(mapper.map(startBit >>> 3, (endBit + 7) >>> 3), startBit, endBit));
+            }
+            indexOutputStream.flush();
+
+            metrics.record(new CompressionReport(size, output.size(), size, bitCount, CompressionReport.getEntropyBitCount(frequencies),
+                    counted - start, built - counted, encoded - built, System.nanoTime() - encoded));
+        }
+    }
+
+    /**
+     * This method will decompress the given file, that has been compressed by the compress method, into the given target file.
+     * The file is decoded block by block, and the checksum of every block is verified before the block is decoded.
+     *
+     * @param source The file that should be decompressed. This parameter is not allowed to be null.
+     * @param target The file that the decompressed bytes should be written to. This parameter is not allowed to be null.
+     * @throws UnsupportedFormatException Thrown when the given file is not a compressed file, or one of a format version that is not supported.
+     * @throws CorruptedDataException Thrown when the given file is damaged or not complete.
+     * @throws IOException Thrown when either of the files could not be read or written.
+     */
+    public void decompress(final Path source, final Path target) throws IOException {
+        if (source == null || target == null) throw new IllegalArgumentException("The source and target are not allowed to be null.");
+
+        try (final FileChannel input = FileChannel.open(source, StandardOpenOption.READ);
+             final FileChannel output = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final long start = System.nanoTime();
+            final Header header = readHeader(input);
+            final long read = System.nanoTime();
+
+            final PayloadMapper mapper = new PayloadMapper(input, header.payloadStart, header.indexStart - header.payloadStart);
+            final DataInputStream indexInputStream = new DataInputStream(new BufferedInputStream(Channels.newInputStream(input.position(header.indexStart))));
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+            long startBit = header.blockCount > 0 ? indexInputStream.readLong() : 0;
+
+            for (int block = 0; block < header.blockCount; block++) {
+                final int checksum = indexInputStream.readInt();
+                final long endBit = block + 1 < header.blockCount ? indexInputStream.readLong() : header.bitCount;
+                final ByteBuffer bits = readBlock(mapper, header, block, startBit, endBit, checksum);
+
+                /* The block is mapped from the byte that its first bit lies in. */
+                final long blockEnd = endBit - (startBit & ~7L);
+                long position = startBit & 7;
+                long remaining = Math.min(header.indexInterval, header.size - (long) block * header.indexInterval);
+
+                while (remaining > 0) {
+                    buffer.limit((int) Math.min(buffer.capacity(), remaining));
+                    position = decode(header.table, bits, position, blockEnd, buffer);
+                    if (buffer.position() == 0) throw new CorruptedDataException("Block " + block + " of the compressed file could not be decoded.");
+
+                    remaining -= writeFully(buffer, output);
+                }
+                if (position != blockEnd) throw new CorruptedDataException("Block " + block + " of the compressed file contains more bits than its bytes take.");
+
+                startBit = endBit;
+            }
+
+            metrics.recordDecompression(header.size, read - start, System.nanoTime() - read);
+        } catch (EOFException e) {
+            throw new CorruptedDataException("The compressed file ends before its index has been read.", e);
+        }
+    }
+
+    /**
+     * This method will decode the given range of bytes out of the given file, that has been compressed by the compress method.
+     * Only the blocks of the index that overlap with the range are read and decoded, so the cost does not depend on the size of the file.
+     * The checksum of every block is verified before the block is decoded.
+     *
+     * @param source The file that the range should be decoded from. This parameter is not allowed to be null.
+     * @param start  The index of the first byte of the range within the original file.
+     * @param length The amount of bytes of the range. The range should not exceed the original file.
+     * @return Returns the decoded bytes of the range.
+     * @throws UnsupportedFormatException Thrown when the given file is not a compressed file, or one of a format version that is not supported.
+     * @throws CorruptedDataException Thrown when the header or one of the decoded blocks is damaged.
+     * @throws IOException Thrown when the file could not be read.
+     */
+    public byte[] decodeRange(final Path source, final long start, final int length) throws IOException {
+        if (source == null) throw new IllegalArgumentException("The source is not allowed to be null.");
+        else if (start < 0 || length < 0) throw new IllegalArgumentException("The start and length are not allowed to be negative.");
+
+        try (final FileChannel input = FileChannel.open(source, StandardOpenOption.READ)) {
+            final long opened = System.nanoTime();
+            final Header header = readHeader(input);
+            if (start + length > header.size) throw new IllegalArgumentException("The range exceeds the " + header.size + " bytes of the compressed file.");
+
+            final byte[] bytes = new byte[length];
+            if (length == 0) return bytes;
+
+            final int firstBlock = (int) (start / header.indexInterval);
+            final int lastBlock = (int) ((start + length - 1) / header.indexInterval);
+            final int[] checksums = new int[lastBlock - firstBlock + 1];
+            final long[] bitOffsets = readIndex(input, header, firstBlock, lastBlock, checksums);
+            final long read = System.nanoTime();
+            final PayloadMapper mapper = new PayloadMapper(input, header.payloadStart, header.indexStart - header.payloadStart);
+            byte[] block = new byte[0];
+
+            for (int blockIndex = firstBlock; blockIndex <= lastBlock; blockIndex++) {
+                final long blockStart = (long) blockIndex * header.indexInterval;
+                final long startBit = bitOffsets[blockIndex - firstBlock];
+                final long endBit = bitOffsets[blockIndex - firstBlock + 1];
+                final ByteBuffer bits = readBlock(mapper, header, blockIndex, startBit, endBit, checksums[blockIndex - firstBlock]);
+
+                /* Every block is decoded from its first byte, but decoding stops at the end of the range. */
+                final int decodedLength = (int) (Math.min(header.size, Math.min(blockStart + header.indexInterval, start + length)) - blockStart);
+                if (block.length < decodedLength) {
+                    block = new byte[decodedLength];
+                }
+
+                final ByteBuffer output = ByteBuffer.wrap(block, 0, decodedLength);
+                decode(header.table, bits, startBit & 7, endBit - (startBit & ~7L), output);
+                if (output.hasRemaining()) throw new CorruptedDataException("Block " + blockIndex + " of the compressed file could not be decoded.");
+
+                final long copyStart = Math.max(start, blockStart);
+                System.arraycopy(block, (int) (copyStart - blockStart), bytes, (int) (copyStart - start), (int) (blockStart + decodedLength - copyStart));
+            }
+
+            metrics.recordDecompression(length, read - opened, System.nanoTime() - read);
+            return bytes;
+        }
+    }
+
+    /**
+     * This method will read and validate the header of the given compressed file.
+     * The checksum of the header is verified before any of its values is used.
+     */
+    private static Header readHeader(final FileChannel input) throws IOException {
+        final DataInputStream dataInputStream = new DataInputStream(Channels.newInputStream(input));
+        final CRC32 checksum = new CRC32();
+        final DataInputStream headerInputStream = new DataInputStream(new CheckedInputStream(dataInputStream, checksum));
+
+        try {
+            if (headerInputStream.readInt() != MAGIC) throw new UnsupportedFormatException("The file does not start with the magic number of a mapped compressed file.");
+
+            final int version = headerInputStream.readUnsignedByte();
+            if (version != FORMAT_VERSION) throw new UnsupportedFormatException("The file has been written with format version " + version + ", while only version " + FORMAT_VERSION + " is supported.");
+
+            final CanonicalHuffmanCode code = CanonicalHuffmanCode.readFrom(headerInputStream);
+            final long size = headerInputStream.readLong();
+            final long bitCount = headerInputStream.readLong();
+            final int indexInterval = headerInputStream.readInt();
+            if ((int) checksum.getValue() != dataInputStream.readInt()) throw new ChecksumMismatchException(-1);
+
+            /* Every code is at least 1 and at most maxLength bits long, so the amount of bits has to lie in between. */
+            if (size < 0 || size > Long.MAX_VALUE / CanonicalHuffmanCode.MAX_CODE_LENGTH || bitCount < size || bitCount > size * code.getMaxLength()) {
+                throw new CorruptedDataException("The header contains " + bitCount + " bits for " + size + " bytes, which is not possible.");
+            }
+            else if (indexInterval < 1 || indexInterval > MAX_INDEX_INTERVAL) throw new CorruptedDataException("The header contains an index interval of " + indexInterval + ", which is not valid.");
+
+            final long payloadStart = input.position();
+            final long indexStart = payloadStart + (bitCount + 7) / 8;
+            final long blockCount = (size + indexInterval - 1) / indexInterval;
+            if (indexStart + blockCount * INDEX_ENTRY_SIZE != input.size()) throw new CorruptedDataException("The compressed file takes " + input.size() + " bytes, while its header describes " + (indexStart + blockCount * INDEX_ENTRY_SIZE) + " bytes.");
+
+            return new Header(code.getDecodingTable(), size, bitCount, indexInterval, (int) blockCount, payloadStart, indexStart);
+        } catch (EOFException e) {
+            throw new CorruptedDataException("The compressed file ends before the whole header has been read.", e);
+        }
+    }
+
+    /**
+     * This method will read the bit offsets and checksums of the given blocks from the index, followed by the offset at which the last block ends.
+     * The offsets are verified together with the bits of their blocks, as the checksum of a block covers its offsets as well.
+     */
+    private static long[] readIndex(final FileChannel input, final Header header, final int firstBlock, final int lastBlock, final int[] checksums) throws IOException {
+        final int entryCount = (int) Math.min(lastBlock + 2L, header.blockCount) - firstBlock;
+        final ByteBuffer index = ByteBuffer.allocate(entryCount * INDEX_ENTRY_SIZE);
+        long position = header.indexStart + (long) firstBlock * INDEX_ENTRY_SIZE;
+
+        while (index.hasRemaining()) {
+            final int read = input.read(index, position);
+            if (read < 0) throw new CorruptedDataException("The index of the compressed file is not complete.");
+            position += read;
+        }
+        index.flip();
+
+        /* The last block of the file has no next entry, as it ends where the encoded bits end. */
+        final long[] bitOffsets = new long[lastBlock - firstBlock + 2];
+        for (int i = 0; i < entryCount; i++) {
+            bitOffsets[i] = index.getLong();
+            final int checksum = index.getInt();
+            if (i < checksums.length) {
+                checksums[i] = checksum;
+            }
+        }
+        if (entryCount < bitOffsets.length) {
+            bitOffsets[entryCount] = header.bitCount;
+        }
+        return bitOffsets;
+    }
+
+    /**
+     * This method will map the bits of the given block and will verify them against the checksum of the block.
+     * @return Returns the bits of the block, starting at the byte that its first bit lies in.
+     * @throws CorruptedDataException Thrown when the offsets of the block are not valid or the checksum of the block does not match.
+     */
+    private static ByteBuffer readBlock(final PayloadMapper mapper, final Header header, final int block, final long startBit, final long endBit, final int checksum) throws IOException {
+        /* Every byte takes at least 1 and at most maxLength bits, so a block can't be empty or longer than its bytes would allow. */
+        if (startBit < 0 || startBit >= endBit || endBit > header.bitCount || endBit - startBit > (long) header.indexInterval * CanonicalHuffmanCode.MAX_CODE_LENGTH) {
+            throw new CorruptedDataException("The index of the compressed file contains invalid offsets for block " + block + ".");
+        }
+
+        final ByteBuffer bits = mapper.map(startBit >>> 3, (endBit + 7) >>> 3);
+        if (checksum(bits, startBit, endBit) != checksum) throw new ChecksumMismatchException(block);
+        return bits;
+    }
+
+    /**
+     * This method will compute the checksum of a block, which covers its offsets as well as its bits.
+     * @return Returns the CRC32 checksum of the offsets followed by the bytes of the given bits.
+     */
+    private static int checksum(final ByteBuffer bits, final long startBit, final long endBit) {
+        final CRC32 checksum = new CRC32();
+        final ByteBuffer offsets = ByteBuffer.allocate(Long.BYTES * 2);
+        offsets.putLong(startBit).putLong(endBit).flip();
+
+        checksum.update(offsets);
+        checksum.update(bits.duplicate());
+        return (int) checksum.getValue();
+    }
+
+    /**
+     * This method will decode the given bits, where a code that is not part of the code is reported as damaged data instead of an IllegalStateException.
+     * @return Returns the position after the last decoded code.
+     * @throws CorruptedDataException Thrown when the bits contain a code that is not part of the code.
+     */
+    private static long decode(final HuffmanDecodingTable table, final ByteBuffer bits, final long startBit, final long endBit, final ByteBuffer output) throws CorruptedDataException {
+        try {
+            return table.decode(bits, startBit, endBit, output);
+        } catch (IllegalStateException e) {
+            throw new CorruptedDataException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * This method will count the frequency of every byte within the given channel by mapping it region by region.
+     */
+    private long[] countFrequencies(final FileChannel input, final long size) throws IOException {
+        final long[] frequencies = new long[Alphabet.BINARY.getSize()];
+
+        for (long regionStart = 0; regionStart < size; regionStart += regionSize) {
+            final MappedByteBuffer region = input.map(FileChannel.MapMode.READ_ONLY, regionStart, Math.min(regionSize, size - regionStart));
+            final int limit = region.limit();
+
+            for (int i = 0; i < limit; i++) {
+                frequencies[region.get(i) & 0xFF]++;
+            }
+        }
+        return frequencies;
+    }
+
+    /**
+     * This method will encode the given channel region by region and will write the encoded bits to the given output.
+     * The bits are collected in a local accumulator and are moved to the direct buffer 64 bits at a time.
+     * @return Returns the index, which holds the bit offset at which every block of indexInterval bytes starts.
+     */
+    private long[] encode(final FileChannel input, final long size, final CanonicalHuffmanCode code, final FileChannel output) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize - bufferSize % 8).order(ByteOrder.LITTLE_ENDIAN);
+        final long[] index = new long[(int) ((size + indexInterval - 1) / indexInterval)];
+        long accumulator = 0;
+        int pending = 0;
+        long written = 0;
+        long nextBlock = 0;
+
+        for (long regionStart = 0; regionStart < size; regionStart += regionSize) {
+            final MappedByteBuffer region = input.map(FileChannel.MapMode.READ_ONLY, regionStart, Math.min(regionSize, size - regionStart));
+            final int limit = region.limit();
+
+            for (int i = 0; i < limit; i++) {
+                /* Every block starts at the amount of bits that have been encoded before it. */
+                if (regionStart + i == nextBlock) {
+                    index[(int) (nextBlock / indexInterval)] = (written + buffer.position()) * 8 + pending;
+                    nextBlock += indexInterval;
+                }
+
+                final int symbol = region.get(i) & 0xFF;
+                final long bits = code.getCode(symbol);
+                final int length = code.getLength(symbol);
+
+                /* The accumulator is never full before this point, so at least a single bit of the code still fits within it. */
+                if (pending + length >= 64) {
+                    final int fit = 64 - pending;
+                    buffer.putLong(accumulator | bits << pending);
+                    if (!buffer.hasRemaining()) {
+                        written += writeFully(buffer, output);
+                    }
+                    accumulator = bits >>> fit;
+                    pending = length - fit;
+                } else {
+                    accumulator |= bits << pending;
+                    pending += length;
+                }
+            }
+        }
+
+        for (; pending > 0; pending -= 8) {
+            buffer.put((byte) accumulator);
+            accumulator >>>= 8;
+        }
+        writeFully(buffer, output);
+        return index;
+    }
+
+    /**
+     * This method will write the contents of the given buffer to the given channel, after which the buffer is cleared.
+     * @return Returns the amount of bytes that have been written.
+     */
+    private static int writeFully(final ByteBuffer buffer, final FileChannel output) throws IOException {
+        buffer.flip();
+        final int count = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            output.write(buffer);
+        }
+        buffer.clear();
+        return count;
+    }
+
+    /**
+     * Maps the encoded bits of a compressed file region by region, so that the blocks within the same region share a single mapping.
+     */
+    private final class PayloadMapper {
+
+        private final FileChannel channel;
+        private final long payloadStart;
+        private final long payloadSize;
+
+        private MappedByteBuffer region;
+        private long regionStart;
+        private long regionEnd;
+
+        private PayloadMapper(final FileChannel channel, final long payloadStart, final long payloadSize) {
+            this.channel = channel;
+            this.payloadStart = payloadStart;
+            this.payloadSize = payloadSize;
+        }
+
+        /**
+         * This method will return the given bytes of the encoded bits. A block that does not fit within the current region starts a new region,
+         * which holds at least the whole block.
+         *
+         * @param startByte The first byte within the encoded bits.
+         * @param endByte   The byte after the last byte within the encoded bits.
+         * @return Returns a little-endian ByteBuffer that holds the given bytes, starting at index 0.
+         * @throws IOException Thrown when the region could not be mapped.
+         */
+        private ByteBuffer map(final long startByte, final long endByte) throws IOException {
+            if (region == null || startByte < regionStart || endByte > regionEnd) {
+                regionStart = startByte;
+                regionEnd = Math.min(payloadSize, Math.max(endByte, startByte + regionSize));
+                region = channel.map(FileChannel.MapMode.READ_ONLY, payloadStart + regionStart, regionEnd - regionStart);
+            }
+
+            final ByteBuffer bytes = region.duplicate();
+            bytes.limit((int) (endByte - regionStart)).position((int) (startByte - regionStart));
+            return bytes.slice().order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * The header of a compressed file, together with the positions at which its encoded bits and its index start.
+     */
+    private static class Header {
+
+        private final HuffmanDecodingTable table;
+        private final long size;
+        private final long bitCount;
+        private final int indexInterval;
+        private final int blockCount;
+        private final long payloadStart;
+        private final long indexStart;
+
+        private Header(final HuffmanDecodingTable table, final long size, final long bitCount, final int indexInterval, final int blockCount, final long payloadStart, final long indexStart) {
+            this.table = table;
+            this.size = size;
+            this.bitCount = bitCount;
+            this.indexInterval = indexInterval;
+            this.blockCount = blockCount;
+            this.payloadStart = payloadStart;
+            this.indexStart = indexStart;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package nl.fontys.algorithms;
+
+import nl.fontys.utilities.BitWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Compresses bytes in blocks of a fixed size on a ForkJoinPool.
+ * The frequencies are counted in parallel and combined into a single code that is shared by all the blocks.
+ * Every block is encoded on its own and carries its own length, so the blocks can be decoded in parallel as well.
+ * <p>
+ * The compressed bytes consist of the shared code, the block size, the total amount of bytes and the amount of blocks, followed by the CRC32 checksum of those.
+ * After that every block follows as its amount of encoded bits, the encoded bits themselves and the CRC32 checksum of the encoded bits.
+ * Every block verifies its own checksum before it's decoded, so a damaged block is detected instead of decoded into the wrong bytes.
+ * <p>
+ * Every compression and decompression is recorded to a CompressionMetrics instance. The blocks are encoded while the previous blocks are written,
+ * so the encode time of a compression only covers the time that has been spent on waiting for the blocks.
+ */
+public class ParallelHuffmanCompression {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    /* A block of this many bytes encodes into less than 2^31 bits even with the longest codes, so the amount of bits of every block fits within an int. */
+    public static final int MAX_BLOCK_SIZE = 16 * 1024 * 1024;
+
+    private final int blockSize;
+    private final ForkJoinPool pool;
+    private final CompressionMetrics metrics;
+
+    /**
+     * Constructor for this class. Blocks of DEFAULT_BLOCK_SIZE bytes will be compressed on the common ForkJoinPool.
+     */
+    public ParallelHuffmanCompression() {
+        this(DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for this class.
+     * @param blockSize The amount of bytes per block. This value should be between 1 and MAX_BLOCK_SIZE.
+     * @param pool      The pool that the blocks should be compressed on. This parameter is not allowed to be null.
+     */
+    public ParallelHuffmanCompression(final int blockSize, final ForkJoinPool pool) {
+        this(blockSize, pool, CompressionMetrics.getDefault());
+    }
+
+    /**
+     * Constructor for this class.
+     * @param blockSize The amount of bytes per block. This value should be between 1 and MAX_BLOCK_SIZE.
+     * @param pool      The pool that the blocks should be compressed on. This parameter is not allowed to be null.
+     * @param metrics   The metrics that every compression and decompression should be recorded to. This parameter is not allowed to be null.
+     */
+    public ParallelHuffmanCompression(final int blockSize, final ForkJoinPool pool, final CompressionMetrics metrics) {
+        if (blockSize < 1 || blockSize > MAX_BLOCK_SIZE) throw new IllegalArgumentException("The blockSize should be between 1 and " + MAX_BLOCK_SIZE + ".");
+        else if (pool == null) throw new IllegalArgumentException("The pool is not allowed to be null.");
+        else if (metrics == null) throw new IllegalArgumentException("The metrics are not allowed to be null.");
+
+        this.blockSize = blockSize;
+        this.pool = pool;
+        this.metrics = metrics;
+    }
+
+    /**
+     * This method will compress the given bytes.
+     *
+     * @param bytes The bytes that should be compressed. This parameter is not allowed to be null.
+     * @return Returns the compressed bytes.
+     */
+    public byte[] compress(final byte[] bytes) {
+        if (bytes == null) throw new IllegalArgumentException("The bytes are not allowed to be null.");
+
+        final long started = System.nanoTime();
+        final long[] frequencies = pool.invoke(new FrequencyTask(bytes, 0, bytes.length, blockSize));
+
+        final long counted = System.nanoTime();
+        final CanonicalHuffmanCode code = HuffmanStreams.buildCode(frequencies, false);
+
+        final long built = System.nanoTime();
+        final int blockCount = (int) ((bytes.length + (long) blockSize - 1) / blockSize);
+        final List<ForkJoinTask<BitWriter>> tasks = new ArrayList<>(blockCount);
+
+        for (int block = 0; block < blockCount; block++) {
+            final int start = block * blockSize;
+            final int end = Math.min(bytes.length, start + blockSize);
+            tasks.add(pool.submit(() -> encodeBlock(bytes, start, end, code)));
+        }
+
+        try {
+            final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(bytes.length / 2 + 64);
+            final DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+            final CRC32 checksum = new CRC32();
+            final DataOutputStream checkedOutputStream = new DataOutputStream(new CheckedOutputStream(dataOutputStream, checksum));
+
+            code.writeTo(checkedOutputStream);
+            checkedOutputStream.writeInt(blockSize);
+            checkedOutputStream.writeInt(bytes.length);
+            checkedOutputStream.writeInt(blockCount);
+            dataOutputStream.writeInt((int) checksum.getValue());
+
+            long encodedBitCount = 0;
+            long encodeNanos = 0;
+
+            /* The blocks are joined in order, so the blocks that are still being encoded can finish in the meantime. */
+            for (final ForkJoinTask<BitWriter> task : tasks) {
+                final long joining = System.nanoTime();
+                final BitWriter bitWriter = task.join();
+                encodeNanos += System.nanoTime() - joining;
+
+                encodedBitCount += bitWriter.getBitCount();
+                dataOutputStream.writeInt((int) bitWriter.getBitCount());
+
+                checksum.reset();
+                bitWriter.writeTo(checkedOutputStream);
+                dataOutputStream.writeInt((int) checksum.getValue());
+            }
+
+            final byte[] compressed = byteArrayOutputStream.toByteArray();
+            metrics.record(new CompressionReport(bytes.length, compressed.length, bytes.length, encodedBitCount, CompressionReport.getEntropyBitCount(frequencies),
+                    counted - started, built - counted, encodeNanos, System.nanoTime() - built - encodeNanos));
+            return compressed;
+        } catch (IOException e) {
+            throw new IllegalStateException("A ByteArrayOutputStream is not able to throw an IOException.", e);
+        }
+    }
+
+    /**
+     * This method will decompress bytes that have been compressed by the compress method.
+     *
+     * @param compressed The compressed bytes. This parameter is not allowed to be null.
+     * @return Returns the decompressed bytes.
+     * @throws ChecksumMismatchException Thrown when the checksum of the header or of a block does not match.
+     * @throws CorruptedDataException Thrown when the given bytes are damaged or end too early.
+     * @throws IOException Thrown when the given bytes are not a valid compressed block format.
+     */
+    public byte[] decompress(final byte[] compressed) throws IOException {
+        if (compressed == null) throw new IllegalArgumentException("The compressed bytes are not allowed to be null.");
+
+        final long start = System.nanoTime();
+        final ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(compressed);
+        final DataInputStream dataInputStream = new DataInputStream(byteArrayInputStream);
+        final HuffmanDecodingTable table;
+        final int compressedBlockSize;
+        final int length;
+        final int blockCount;
+
+        try {
+            table = CanonicalHuffmanCode.readFrom(dataInputStream).getDecodingTable();
+            compressedBlockSize = dataInputStream.readInt();
+            length = dataInputStream.readInt();
+            blockCount = dataInputStream.readInt();
+
+            final CRC32 checksum = new CRC32();
+            final int headerLength = compressed.length - byteArrayInputStream.available();
+            checksum.update(compressed, 0, headerLength);
+            if ((int) checksum.getValue() != dataInputStream.readInt()) throw new ChecksumMismatchException(-1);
+        } catch (EOFException e) {
+            throw new CorruptedDataException("The compressed bytes end before the whole header has been read.", e);
+        }
+
+        if (compressedBlockSize < 1 || compressedBlockSize > MAX_BLOCK_SIZE || length < 0 || blockCount != (int) ((length + (long) compressedBlockSize - 1) / compressedBlockSize)) throw new CorruptedDataException("The block header is not valid.");
+
+        final byte[] bytes = new byte[length];
+        final List<ForkJoinTask<?>> tasks = new ArrayList<>(blockCount);
+        int position = compressed.length - byteArrayInputStream.available();
+
+        /* Only the lengths of the blocks are read up front, which is enough to find where every block starts. */
+        for (int block = 0; block < blockCount; block++) {
+            if (position + 4 > compressed.length) throw new CorruptedDataException("Block " + block + " exceeds the compressed bytes.");
+
+            final int bitCount = ByteBuffer.wrap(compressed, position, 4).getInt();
+            final int byteCount = (int) ((bitCount + 7L) / 8);
+            final int blockStart = position + 4;
+            final int outputStart = block * compressedBlockSize;
+            final int outputLength = Math.min(compressedBlockSize, length - outputStart);
+            final int index = block;
+
+            if (bitCount < 0 || (long) blockStart + byteCount + 4 > compressed.length) throw new CorruptedDataException("Block " + block + " exceeds the compressed bytes.");
+
+            /* Every byte of the block takes at least 1 and at most MAX_CODE_LENGTH bits. */
+            if (bitCount < outputLength || bitCount > (long) outputLength * CanonicalHuffmanCode.MAX_CODE_LENGTH) throw new CorruptedDataException("Block " + block + " contains " + bitCount + " bits for " + outputLength + " bytes, which is not possible.");
+
+            tasks.add(pool.submit(() -> {
+                decodeBlock(compressed, index, blockStart, byteCount, bitCount, table, bytes, outputStart, outputLength);
+                return null;
+            }));
+            position = blockStart + byteCount + 4;
+        }
+
+        final long read = System.nanoTime();
+        try {
+            for (final ForkJoinTask<?> task : tasks) {
+                join(task);
+            }
+        } finally {
+            /* A block that has failed leaves the output incomplete, so the blocks that haven't started yet don't have to be decoded anymore. */
+            for (final ForkJoinTask<?> task : tasks) {
+                task.cancel(false);
+            }
+        }
+
+        metrics.recordDecompression(bytes.length, read - start, System.nanoTime() - read);
+        return bytes;
+    }
+
+    /**
+     * This method will wait for the given task to complete.
+     * The ForkJoinPool wraps the IOException of a failed task into a RuntimeException, which is unwrapped again so that the caller gets the original IOException.
+     *
+     * @param task The task that should be waited for.
+     * @throws IOException Thrown when the task has failed with an IOException.
+     */
+    private static void join(final ForkJoinTask<?> task) throws IOException {
+        try {
+            task.join();
+        } catch (RuntimeException e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof IOException) throw (IOException) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * This method will encode the given range of bytes with the given code.
+     * @return Returns an object of the BitWriter class containing the encoded bits.
+     */
+    private static BitWriter encodeBlock(final byte[] bytes, final int start, final int end, final CanonicalHuffmanCode code) {
+        final BitWriter bitWriter = new BitWriter(end - start);
+
+        for (int i = start; i < end; i++) {
+            final int symbol = bytes[i] & 0xFF;
+            bitWriter.write(code.getCode(symbol), code.getLength(symbol));
+        }
+        return bitWriter;
+    }
+
+    /**
+     * This method will verify the checksum of a single block and will decode the block into its place within the output.
+     * @throws CorruptedDataException Thrown when the checksum does not match or the block does not decode into the expected amount of bytes.
+     */
+    private static void decodeBlock(final byte[] compressed, final int block, final int start, final int byteCount, final long bitCount,
+                                    final HuffmanDecodingTable table, final byte[] output, final int outputStart, final int outputLength) throws CorruptedDataException {
+        final CRC32 checksum = new CRC32();
+        checksum.update(compressed, start, byteCount);
+        if ((int) checksum.getValue() != ByteBuffer.wrap(compressed, start + byteCount, 4).getInt()) throw new ChecksumMismatchException(block);
+
+        final long[] words = new long[(byteCount + 7) / 8 + 1];
+        final ByteBuffer byteBuffer = ByteBuffer.wrap(compressed, start, byteCount).order(ByteOrder.LITTLE_ENDIAN);
+
+        for (int i = 0; byteBuffer.remaining() > 0; i++) {
+            if (byteBuffer.remaining() >= 8) {
+                words[i] = byteBuffer.getLong();
+            } else {
+                for (int shift = 0; byteBuffer.remaining() > 0; shift += 8) {
+                    words[i] |= (byteBuffer.get() & 0xFFL) << shift;
+                }
+            }
+        }
+
+        final int decoded;
+        try {
+            decoded = table.decode(words, bitCount, output, outputStart, outputLength);
+        } catch (IllegalStateException e) {
+            throw new CorruptedDataException(e.getMessage(), e);
+        }
+        if (decoded != outputLength) throw new CorruptedDataException("Block " + block + " decoded into " + decoded + " bytes instead of " + outputLength + ".");
+    }
+
+    /**
+     * Counts the frequencies of a range of bytes by splitting it into blocks that are counted in parallel.
+     */
+    private static class FrequencyTask extends RecursiveTask<long[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] bytes;
+        private final int start;
+        private final int end;
+        private final int blockSize;
+
+        private FrequencyTask(final byte[] bytes, final int start, final int end, final int blockSize) {
+            this.bytes = bytes;
+            this.start = start;
+            this.end = end;
+            this.blockSize = blockSize;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (end - start <= blockSize) {
+                final long[] frequencies = new long[Alphabet.BINARY.getSize()];
+
+                for (int i = start; i < end; i++) {
+                    frequencies[bytes[i] & 0xFF]++;
+                }
+                return frequencies;
+            }
+
+            final int middle = start + (end - start) / 2;
+            final FrequencyTask left = new FrequencyTask(bytes, start, middle, blockSize);
+            left.fork();
+            final long[] frequencies = new FrequencyTask(bytes, middle, end, blockSize).compute();
+            final long[] leftFrequencies = left.join();
+
+            for (int i = 0; i < frequencies.length; i++) {
+                frequencies[i] += leftFrequencies[i];
+            }
+            return frequencies;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package nl.fontys.algorithms;
+
+/**
+ * Compares a code that has been built from a sample of an input with the code that an exact count of the same input would have resulted in.
+ * The sizes only cover the encoded bits, the headers are left out as they hardly differ between both codes.
+ */
+public class SamplingReport {
+
+    private final long sampledBytes;
+    private final long totalBytes;
+    private final long encodedBitCount;
+    private final long exactBitCount;
+
+    /**
+     * Constructor for this class. The exact code is built from the given frequencies, which have been counted while the input was encoded.
+     *
+     * @param sampledBytes The amount of bytes within the sample.
+     * @param frequencies  The exact frequency of every byte within the whole input. This parameter is not allowed to be null.
+     * @param code         The code that the input has been encoded with. This parameter is not allowed to be null.
+     */
+    SamplingReport(final long sampledBytes, final long[] frequencies, final CanonicalHuffmanCode code) {
+        if (frequencies == null) throw new IllegalArgumentException("The frequencies are not allowed to be null.");
+        else if (code == null) throw new IllegalArgumentException("The code is not allowed to be null.");
+
+        final CanonicalHuffmanCode exactCode = HuffmanStreams.buildCode(frequencies, false);
+        long total = 0;
+        long encoded = 0;
+        long exact = 0;
+
+        for (int symbol = 0; symbol < frequencies.length; symbol++) {
+            if (frequencies[symbol] == 0) continue;
+
+            total += frequencies[symbol];
+            encoded += frequencies[symbol] * code.getLength(symbol);
+            exact += frequencies[symbol] * exactCode.getLength(symbol);
+        }
+
+        this.sampledBytes = sampledBytes;
+        this.totalBytes = total;
+        this.encodedBitCount = encoded;
+        this.exactBitCount = exact;
+    }
+
+    /**
+     * @return Returns the amount of bytes within the sample.
+     */
+    public long getSampledBytes() {
+        return sampledBytes;
+    }
+
+    /**
+     * @return Returns the amount of bytes within the whole input.
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * @return Returns the amount of bits that the input has been encoded into with the sampled code.
+     */
+    public long getEncodedBitCount() {
+        return encodedBitCount;
+    }
+
+    /**
+     * @return Returns the amount of bits that the input would have been encoded into with the exact code.
+     */
+    public long getExactBitCount() {
+        return exactBitCount;
+    }
+
+    /**
+     * @return Returns the compression ratio of the sampled code.
+     */
+    public double getCompressionRatio() {
+        return encodedBitCount == 0 ? 0 : totalBytes * 8.0 / encodedBitCount;
+    }
+
+    /**
+     * @return Returns the compression ratio that the exact code would have achieved.
+     */
+    public double getExactCompressionRatio() {
+        return exactBitCount == 0 ? 0 : totalBytes * 8.0 / exactBitCount;
+    }
+
+    /**
+     * @return Returns the part of the exact compression ratio that has been lost by sampling, between 0 and 1.
+     */
+    public double getRatioLoss() {
+        return encodedBitCount == 0 ? 0 : 1 - (double) exactBitCount / encodedBitCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Sampled %d of %d bytes: compression ratio %.4f instead of %.4f, %.2f%% of the ratio lost (%d instead of %d encoded bits)",
+                sampledBytes, totalBytes, getCompressionRatio(), getExactCompressionRatio(), getRatioLoss() * 100, encodedBitCount, exactBitCount);
+    }
+}
@@ -0,0 +1,350 @@
+package nl.fontys.algorithms;
+
+import nl.fontys.utilities.BitWriter;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * An immutable encoder and decoder for bytes that uses table-based asymmetric numeral systems (tANS), as used by Finite State Entropy.
+ * The frequencies are scaled to a table of 2^tableLog states, in which every byte occupies as many states as its scaled frequency.
+ * A byte then costs the logarithm of its probability in bits, which may be a fraction of a bit, instead of the whole amount of bits that Huffman spends.
+ * <p>
+ * The bytes are encoded from the last to the first one, so that the decoder can decode them from the first to the last one while reading the bits backwards.
+ * Decoding a byte is a single lookup in the decoding table followed by reading the amount of bits that the entry tells.
+ * The encoded bytes have the same layout as those of the HuffmanCodec class, the final state of the encoder is stored in the last tableLog bits.
+ */
+public class TansCodec implements EntropyCodec {
+
+    public static final int DEFAULT_TABLE_LOG = 11;
+
+    /* Every byte needs at least a single state, and the states of the decoding table have to fit within its 16 base bits. */
+    public static final int MIN_TABLE_LOG = 8;
+    public static final int MAX_TABLE_LOG = 15;
+
+    /* Every entry of the decoding table is a single int. The lowest 8 bits hold the byte, the next 8 bits the amount of bits to read
+       and the highest 16 bits the base of the next state, to which the read bits are added. */
+    private static final int SYMBOL_MASK = 0xFF;
+    private static final int BITS_SHIFT = 8;
+    private static final int BITS_MASK = 0xFF;
+    private static final int BASE_SHIFT = 16;
+
+    private final int tableLog;
+    private final int[] normalizedFrequencies;
+
+    private final int[] symbolStarts;
+    private final int[] symbolBits;
+    private final int[] encodingTable;
+    private final int[] decodingTable;
+
+    /* The most bytes that can be decoded in a row without reading a single bit, or -1 when a single byte occupies every state. */
+    private final int maxZeroBitRun;
+
+    /**
+     * Constructor for this class.
+     * @param tableLog              The logarithm of the amount of states.
+     * @param normalizedFrequencies The frequency of every byte, scaled so that they add up to 2^tableLog.
+     */
+    private TansCodec(final int tableLog, final int[] normalizedFrequencies) {
+        final int tableSize = 1 << tableLog;
+
+        this.tableLog = tableLog;
+        this.normalizedFrequencies = normalizedFrequencies;
+        this.symbolStarts = new int[normalizedFrequencies.length];
+        this.symbolBits = new int[normalizedFrequencies.length];
+        this.encodingTable = new int[tableSize];
+        this.decodingTable = new int[tableSize];
+
+        int maxFrequency = 0;
+        for (int symbol = 0, start = 0; symbol < normalizedFrequencies.length; symbol++) {
+            symbolStarts[symbol] = start;
+            maxFrequency = Math.max(maxFrequency, normalizedFrequencies[symbol]);
+            start += normalizedFrequencies[symbol];
+
+            /* A state shifted right by this amount is at least the frequency, otherwise a single bit less has to be written. */
+            if (normalizedFrequencies[symbol] > 0) {
+                symbolBits[symbol] = tableLog - floorLog2(normalizedFrequencies[symbol]);
+            }
+        }
+
+        /* The bytes are spread over the table with a step that is coprime with its size, which visits every state exactly once
+           and mixes the bytes, so that the states of a byte are spread evenly over the table. */
+        final int[] spread = new int[tableSize];
+        final int step = (tableSize >>> 1) + (tableSize >>> 3) + 3;
+        int position = 0;
+
+        for (int symbol = 0; symbol < normalizedFrequencies.length; symbol++) {
+            for (int i = 0; i < normalizedFrequencies[symbol]; i++) {
+                spread[position] = symbol;
+                position = (position + step) & (tableSize - 1);
+            }
+        }
+
+        /* The k-th state of a byte within the table belongs to the scaled state frequency + k, which is the state that the encoder has
+           reduced its state to before it moves to this state. The decoder reverses this by restoring the reduced state and the bits that were shifted out. */
+        final int[] occurrences = new int[normalizedFrequencies.length];
+
+        for (int state = 0; state < tableSize; state++) {
+            final int symbol = spread[state];
+            final int reducedState = normalizedFrequencies[symbol] + occurrences[symbol]++;
+            final int bits = tableLog - floorLog2(reducedState);
+
+            encodingTable[symbolStarts[symbol] + reducedState - normalizedFrequencies[symbol]] = tableSize + state;
+            decodingTable[state] = (((reducedState << bits) - tableSize) << BASE_SHIFT) | (bits << BITS_SHIFT) | symbol;
+        }
+
+        /* Only a byte that occupies more than half of the states can be decoded without reading a bit, as its reduced state has to reach the table size.
+           Its next state is then the reduced state minus the table size, which is at least tableSize - frequency below the current state,
+           so such a byte can only be decoded a bounded amount of times in a row. */
+        if (maxFrequency == tableSize) {
+            this.maxZeroBitRun = -1;
+        } else if (maxFrequency * 2 > tableSize) {
+            this.maxZeroBitRun = (tableSize - 1) / (tableSize - maxFrequency);
+        } else {
+            this.maxZeroBitRun = 0;
+        }
+    }
+
+    /**
+     * This method will create a codec for the given frequencies with a table of 2^DEFAULT_TABLE_LOG states.
+     *
+     * @param frequencies The frequency of every byte, indexed by the byte itself. This parameter is not allowed to be null.
+     * @return Returns an object of the TansCodec class that can encode every byte with a frequency above 0.
+     */
+    public static TansCodec fromFrequencies(final long[] frequencies) {
+        return fromFrequencies(frequencies, DEFAULT_TABLE_LOG);
+    }
+
+    /**
+     * This method will create a codec for the given frequencies.
+     *
+     * @param frequencies The frequency of every byte, indexed by the byte itself. This parameter is not allowed to be null.
+     * @param tableLog    The logarithm of the amount of states. A larger table follows the frequencies more precisely, at the cost of
+     *                    a table that fits the CPU caches less well. This value should be between MIN_TABLE_LOG and MAX_TABLE_LOG.
+     * @return Returns an object of the TansCodec class that can encode every byte with a frequency above 0.
+     */
+    public static TansCodec fromFrequencies(final long[] frequencies, final int tableLog) {
+        if (frequencies == null) throw new IllegalArgumentException("The frequencies are not allowed to be null.");
+        else if (frequencies.length > Alphabet.BINARY.getSize()) throw new IllegalArgumentException("There can be at most " + Alphabet.BINARY.getSize() + " frequencies.");
+        else if (tableLog < MIN_TABLE_LOG || tableLog > MAX_TABLE_LOG) throw new IllegalArgumentException("The tableLog should be between " + MIN_TABLE_LOG + " and " + MAX_TABLE_LOG + ".");
+
+        return new TansCodec(tableLog, normalize(frequencies, tableLog));
+    }
+
+    /**
+     * This method will read a codec of which the model has been written by the writeModelTo method.
+     *
+     * @param inputStream The stream that the model should be read from. This parameter is not allowed to be null.
+     * @return Returns an object of the TansCodec class.
+     * @throws CorruptedDataException Thrown when the model is not valid.
+     * @throws IOException Thrown when the model could not be read from the given stream.
+     */
+    public static TansCodec readFrom(final DataInputStream inputStream) throws IOException {
+        if (inputStream == null) throw new IllegalArgumentException("The inputStream is not allowed to be null.");
+
+        final int tableLog = inputStream.readUnsignedByte();
+        if (tableLog < MIN_TABLE_LOG || tableLog > MAX_TABLE_LOG) throw new CorruptedDataException("The table log " + tableLog + " is not supported.");
+
+        final int[] normalizedFrequencies = new int[Alphabet.BINARY.getSize()];
+        final int symbolCount = inputStream.readUnsignedShort();
+        int total = 0;
+
+        for (int i = 0; i < symbolCount; i++) {
+            final int symbol = inputStream.readUnsignedByte();
+            final int frequency = inputStream.readUnsignedShort();
+
+            if (frequency == 0 || normalizedFrequencies[symbol] != 0) throw new CorruptedDataException("The model contains an invalid frequency for byte " + symbol + ".");
+            normalizedFrequencies[symbol] = frequency;
+            total += frequency;
+        }
+        if (total != 1 << tableLog) throw new CorruptedDataException("The frequencies of the model add up to " + total + " instead of " + (1 << tableLog) + ".");
+
+        return new TansCodec(tableLog, normalizedFrequencies);
+    }
+
+    @Override
+    public EntropyBackend getBackend() {
+        return EntropyBackend.TANS;
+    }
+
+    /**
+     * This method will write the table log and the scaled frequency of every byte that is part of the model.
+     *
+     * @param outputStream The stream that the model should be written to. This parameter is not allowed to be null.
+     * @throws IOException Thrown when the model could not be written to the given stream.
+     */
+    @Override
+    public void writeModelTo(final DataOutputStream outputStream) throws IOException {
+        if (outputStream == null) throw new IllegalArgumentException("The outputStream is not allowed to be null.");
+
+        int symbolCount = 0;
+        for (final int frequency : normalizedFrequencies) {
+            if (frequency > 0) symbolCount++;
+        }
+
+        outputStream.writeByte(tableLog);
+        outputStream.writeShort(symbolCount);
+        for (int symbol = 0; symbol < normalizedFrequencies.length; symbol++) {
+            if (normalizedFrequencies[symbol] > 0) {
+                outputStream.writeByte(symbol);
+                outputStream.writeShort(normalizedFrequencies[symbol]);
+            }
+        }
+    }
+
+    @Override
+    public byte[] encodeBytes(final byte[] bytes) {
+        if (bytes == null) throw new IllegalArgumentException("The bytes are not allowed to be null.");
+
+        final int tableSize = 1 << tableLog;
+        final BitWriter bitWriter = CodecScratch.get().getBitWriter(bytes.length);
+        int state = tableSize;
+
+        for (int i = bytes.length - 1; i >= 0; i--) {
+            final int symbol = bytes[i] & 0xFF;
+            final int frequency = normalizedFrequencies[symbol];
+            if (frequency == 0) throw new IllegalArgumentException("The byte " + symbol + " is not part of the model.");
+
+            /* The state is reduced into the range of the frequency of the byte by shifting out its lowest bits, which are written. */
+            final int bits = symbolBits[symbol] - ((state >>> symbolBits[symbol]) < frequency ? 1 : 0);
+            bitWriter.write(state & ((1 << bits) - 1), bits);
+            state = encodingTable[symbolStarts[symbol] + (state >>> bits) - frequency];
+        }
+        bitWriter.write(state - tableSize, tableLog);
+
+        return CodecScratch.toEncodedBytes(0, bytes.length, bitWriter);
+    }
+
+    @Override
+    public byte[] decodeBytes(final byte[] encoded) throws IOException {
+        if (encoded == null) throw new IllegalArgumentException("The encoded bytes are not allowed to be null.");
+
+        final ByteBuffer byteBuffer = ByteBuffer.wrap(encoded);
+        final int symbolCount = CodecScratch.readSymbolCount(byteBuffer);
+        final long bitCount = CodecScratch.readBitCount(byteBuffer);
+        final long[] words = CodecScratch.get().getWords(byteBuffer, bitCount);
+
+        if (bitCount < tableLog) throw new CorruptedDataException("The encoded bytes do not contain the final state.");
+        checkSymbolCount(symbolCount, bitCount - tableLog);
+
+        long position = bitCount - tableLog;
+        int state = peek(words, position, tableLog);
+        final byte[] bytes = new byte[symbolCount];
+
+        for (int i = 0; i < symbolCount; i++) {
+            final int entry = decodingTable[state];
+            final int bits = (entry >>> BITS_SHIFT) & BITS_MASK;
+
+            bytes[i] = (byte) (entry & SYMBOL_MASK);
+            position -= bits;
+            if (position < 0) throw new CorruptedDataException("The encoded bytes ran out of bits after " + i + " of " + symbolCount + " bytes.");
+
+            state = (entry >>> BASE_SHIFT) + peek(words, position, bits);
+        }
+
+        /* The encoder started in the first state and consumed every bit, which the decoder should end up with as well. */
+        if (position != 0 || state != 0) throw new CorruptedDataException("The encoded bytes do not match the model of this codec.");
+        return bytes;
+    }
+
+    /**
+     * This method will check that the given amount of bytes can be decoded from the given amount of bits, before the output is allocated.
+     * Every run of bytes that are decoded without reading a bit ends with a byte that reads at least one, except for the last run.
+     * A model in which a single byte occupies every state reads no bits at all, so its amount of bytes can't be bounded.
+     *
+     * @param symbolCount The amount of bytes within the header of the encoded bytes.
+     * @param bitCount    The amount of bits that are left after the final state.
+     * @throws CorruptedDataException Thrown when the amount of bytes can't be decoded from the given amount of bits.
+     */
+    private void checkSymbolCount(final int symbolCount, final long bitCount) throws CorruptedDataException {
+        if (maxZeroBitRun < 0) return;
+
+        final long maxSymbolCount = bitCount * (maxZeroBitRun + 1) + maxZeroBitRun;
+        if (symbolCount > maxSymbolCount) throw new CorruptedDataException("The encoded bytes contain " + symbolCount + " bytes within " + bitCount + " bits, while this model decodes at most " + maxSymbolCount + " bytes from them.");
+    }
+
+    /**
+     * @return Returns the logarithm of the amount of states.
+     */
+    public int getTableLog() {
+        return tableLog;
+    }
+
+    /**
+     * @param symbol The byte that the frequency should be returned for.
+     * @return Returns the scaled frequency of the given byte, which is the amount of states out of 2^tableLog that it occupies.
+     */
+    public int getNormalizedFrequency(final int symbol) {
+        return symbol >= 0 && symbol < normalizedFrequencies.length ? normalizedFrequencies[symbol] : 0;
+    }
+
+    /**
+     * This method will scale the given frequencies so that they add up to 2^tableLog, where every byte with a frequency above 0 keeps at least a frequency of 1.
+     * Without any frequency, byte 0 gets every state so that an empty input still has a model.
+     *
+     * @param frequencies The frequency of every byte.
+     * @param tableLog    The logarithm of the amount of states.
+     * @return Returns the scaled frequency of every byte.
+     */
+    private static int[] normalize(final long[] frequencies, final int tableLog) {
+        final int tableSize = 1 << tableLog;
+        final int[] normalizedFrequencies = new int[Alphabet.BINARY.getSize()];
+        long total = 0;
+
+        for (final long frequency : frequencies) {
+            if (frequency < 0) throw new IllegalArgumentException("The frequencies are not allowed to be negative.");
+            total += frequency;
+        }
+        if (total == 0) {
+            normalizedFrequencies[0] = tableSize;
+            return normalizedFrequencies;
+        }
+
+        int sum = 0;
+        for (int symbol = 0; symbol < frequencies.length; symbol++) {
+            if (frequencies[symbol] > 0) {
+                normalizedFrequencies[symbol] = (int) Math.max(1L, Math.round((double) frequencies[symbol] * tableSize / total));
+                sum += normalizedFrequencies[symbol];
+            }
+        }
+
+        /* Rounding rarely adds up to the table size exactly. The difference is taken from or given to the most frequent bytes, where it matters the least. */
+        while (sum != tableSize) {
+            int largest = 0;
+            for (int symbol = 1; symbol < normalizedFrequencies.length; symbol++) {
+                if (normalizedFrequencies[symbol] > normalizedFrequencies[largest]) largest = symbol;
+            }
+            normalizedFrequencies[largest] += sum > tableSize ? -1 : 1;
+            sum += sum > tableSize ? -1 : 1;
+        }
+        return normalizedFrequencies;
+    }
+
+    /**
+     * @return Returns the position of the highest set bit of the given value.
+     */
+    private static int floorLog2(final int value) {
+        return 31 - Integer.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * This method will return the given amount of bits starting at the given position.
+     *
+     * @param words    The words that should be read from.
+     * @param position The position of the first bit.
+     * @param bits     The amount of bits that should be read. This value is at most 32.
+     * @return Returns the bits, where the first bit is stored in the least significant bit.
+     */
+    private static int peek(final long[] words, final long position, final int bits) {
+        final int word = (int) (position >>> 6);
+        final int shift = (int) (position & 63);
+
+        long value = words[word] >>> shift;
+        if (shift + bits > 64) {
+            value |= words[word + 1] << (64 - shift);
+        }
+        return (int) value & ((1 << bits) - 1);
+    }
+}
@@ -0,0 +1,19 @@
+package nl.fontys.algorithms;
+
+import java.io.IOException;
+
+/**
+ * Thrown when data does not start with the magic number of a compressed file, or has been written with a format version that is not supported.
+ */
+public class UnsupportedFormatException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor for this class.
+     * @param message The message that describes why the format is not supported.
+     */
+    public UnsupportedFormatException(final String message) {
+        super(message);
+    }
+}
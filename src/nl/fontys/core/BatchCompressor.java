@@ -0,0 +1,387 @@
+package nl.fontys.core;
+
+import nl.fontys.algorithms.HuffmanStreams;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compresses or decompresses a batch of files in parallel.
+ * Every file is streamed through HuffmanStreams by its own task on a pool of the configured amount of threads, so only a bounded buffer of every file is held in memory
+ * and files of any size can be processed. The output is written in blocks of the configured block size, every one of which carries a checksum, so a damaged file is detected when it's decompressed.
+ * A file that fails is reported and skipped, so it doesn't stop the rest of the batch. Results are moved into place only once they're complete,
+ * and existing files are never replaced unless the batch is forced to. Every file is recorded to the default CompressionMetrics by HuffmanStreams.
+ */
+public class BatchCompressor {
+
+    public static final String EXTENSION = ".huff";
+
+    private final BatchOptions options;
+    private final PrintStream log;
+
+    private final LongAdder files = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+
+    /**
+     * Constructor for this class.
+     *
+     * @param options The options of the batch. This parameter is not allowed to be null.
+     * @param log     The stream that failures and the summary should be printed to. This parameter is not allowed to be null.
+     */
+    public BatchCompressor(final BatchOptions options, final PrintStream log) {
+        if (options == null) throw new IllegalArgumentException("The options are not allowed to be null.");
+        else if (log == null) throw new IllegalArgumentException("The log is not allowed to be null.");
+
+        this.options = options;
+        this.log = log;
+    }
+
+    /**
+     * This method will parse the given command line arguments and will process the batch that they describe.
+     * The summary is printed to stderr, so that it doesn't mix with the data when stdout is used.
+     *
+     * @param args The command line arguments. This parameter is not allowed to be null.
+     * @return Returns the exit code, which is 0 when every file has been processed, 1 when a file has failed and 2 when the arguments are not valid.
+     */
+    public static int run(final String... args) {
+        final BatchOptions options;
+        try {
+            options = BatchOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(BatchOptions.USAGE);
+            return 2;
+        }
+
+        final BatchCompressor batchCompressor = new BatchCompressor(options, System.err);
+        final boolean succeeded = options.isStandardStreams() ? batchCompressor.process(System.in, System.out) : batchCompressor.processFiles();
+        return succeeded ? 0 : 1;
+    }
+
+    /**
+     * This method will process the data of the given InputStream and will write the result to the given OutputStream.
+     * The data is streamed, so it's never held in memory as a whole. When compressing, the code is built from the first bytes of the sample size.
+     *
+     * @param inputStream  The InputStream that should be processed until its end. The InputStream will not be closed.
+     *                     This parameter is not allowed to be null.
+     * @param outputStream The OutputStream that the result should be written to. The OutputStream will not be closed.
+     *                     This parameter is not allowed to be null.
+     * @return Returns true when the data has been processed, returns false when it has failed.
+     */
+    public boolean process(final InputStream inputStream, final OutputStream outputStream) {
+        if (inputStream == null) throw new IllegalArgumentException("The inputStream is not allowed to be null.");
+        else if (outputStream == null) throw new IllegalArgumentException("The outputStream is not allowed to be null.");
+
+        final long start = System.nanoTime();
+        try {
+            final CountingInputStream countingInputStream = new CountingInputStream(inputStream);
+            final CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+
+            if (options.isCompress()) {
+                HuffmanStreams.compress(countingInputStream, countingOutputStream, options.getSampleSize(), options.getBlockSize());
+            } else {
+                HuffmanStreams.decompress(countingInputStream, countingOutputStream);
+            }
+            count(countingInputStream.count, countingOutputStream.count);
+        } catch (IOException | RuntimeException e) {
+            fail(BatchOptions.STANDARD_STREAMS, e);
+        }
+        printSummary(System.nanoTime() - start);
+        return failures.sum() == 0;
+    }
+
+    /**
+     * This method will process every file within the paths of the options. The files are processed in parallel, but the summary is only printed once all of them are done.
+     * The result of every file is collected on its own, so a file that fails is reported while the other files continue.
+     * A file that is reached through more than one path is only processed once, and a file whose result would overwrite the result of another file fails.
+     * @return Returns true when every file has been processed, returns false when at least one of them has failed.
+     */
+    public boolean processFiles() {
+        final long start = System.nanoTime();
+        final Map<Path, Path> files = new LinkedHashMap<>();
+        final Set<Path> targets = new HashSet<>();
+
+        for (final String path : options.getPaths()) {
+            final Path root = Paths.get(path);
+
+            try {
+                for (final Path source : findFiles(root)) {
+                    /* The files are keyed by their real path, so that a file that is reached through two paths isn't processed by two tasks at once. */
+                    final Path file = source.toRealPath();
+                    if (files.containsKey(file)) continue;
+
+                    final Path target = getTarget(root, source);
+                    if (!targets.add(target.toAbsolutePath().normalize())) {
+                        fail(source.toString(), new IOException("The result would overwrite the result of another file at " + target + "."));
+                        continue;
+                    }
+                    files.put(file, target);
+                }
+            } catch (IOException e) {
+                fail(path, e);
+            }
+        }
+
+        /* Every file is found before any of them is processed, so the temporary results of the tasks are never mistaken for files that should be processed. */
+        final ExecutorService executorService = Executors.newFixedThreadPool(options.getThreads());
+        final Map<Path, Future<?>> tasks = new LinkedHashMap<>();
+
+        try {
+            for (final Map.Entry<Path, Path> file : files.entrySet()) {
+                tasks.put(file.getKey(), executorService.submit(() -> processFile(file.getKey(), file.getValue())));
+            }
+
+            for (final Map.Entry<Path, Future<?>> task : tasks.entrySet()) {
+                collect(task.getKey(), task.getValue());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        printSummary(System.nanoTime() - start);
+        return failures.sum() == 0;
+    }
+
+    /**
+     * This method will wait for the task of the given file. A task only fails on an Error, as every exception of the file is already reported by the task itself.
+     * When the waiting thread is interrupted, the file is reported as failed instead of waiting any longer.
+     *
+     * @param source The file that the task processes.
+     * @param task   The task of the given file.
+     */
+    private void collect(final Path source, final Future<?> task) {
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.cancel(true);
+            fail(source.toString(), e);
+        } catch (ExecutionException e) {
+            fail(source.toString(), e.getCause());
+        }
+    }
+
+    /**
+     * This method will find every file that should be processed at the given path.
+     * When decompressing, only the files with the EXTENSION are included. When compressing, the files that already have it are skipped.
+     *
+     * @param root The file or directory that was given on the command line.
+     * @return Returns the files that should be processed.
+     * @throws IOException Thrown when the path does not exist or could not be walked.
+     */
+    private List<Path> findFiles(final Path root) throws IOException {
+        if (!Files.isDirectory(root)) {
+            if (!Files.isRegularFile(root)) throw new IOException("The file does not exist.");
+
+            return Collections.singletonList(root);
+        }
+
+        try (final Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> path.getFileName().toString().endsWith(EXTENSION) != options.isCompress())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * This method will determine where the result of the given file should be written.
+     * Files within a directory keep their place relative to that directory, so the output directory mirrors the tree of the input.
+     *
+     * @param root   The file or directory that was given on the command line.
+     * @param source The file that is processed.
+     * @return Returns the path that the result should be written to.
+     */
+    private Path getTarget(final Path root, final Path source) {
+        final String fileName = source.getFileName().toString();
+        final String targetName = options.isCompress() ? fileName + EXTENSION
+                : fileName.endsWith(EXTENSION) ? fileName.substring(0, fileName.length() - EXTENSION.length()) : fileName + ".out";
+
+        if (options.getOutputDirectory() == null) return source.resolveSibling(targetName);
+
+        final Path relative = Files.isDirectory(root) ? root.relativize(source) : source.getFileName();
+        final Path parent = relative.getParent();
+        return (parent == null ? options.getOutputDirectory() : options.getOutputDirectory().resolve(parent)).resolve(targetName);
+    }
+
+    /**
+     * This method will process a single file. A failure is reported instead of thrown, so that the other files continue.
+     * The result is written to a temporary file next to the target, which is only moved into place once it's complete. A file that fails therefore never
+     * touches the target, and only its own temporary file is removed. An existing target is only replaced when the options allow it.
+     *
+     * @param source The file that should be processed.
+     * @param target The file that the result should be written to.
+     */
+    private void processFile(final Path source, final Path target) {
+        Path temporary = null;
+
+        try {
+            checkTarget(target);
+            final Path directory = target.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, "." + target.getFileName(), ".tmp");
+
+            if (options.isCompress()) {
+                HuffmanStreams.compress(source, temporary, options.getSampleSize(), options.getBlockSize());
+            } else {
+                HuffmanStreams.decompress(source, temporary);
+            }
+
+            /* The target is checked again, as it may have been created while the file was processed. */
+            checkTarget(target);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            temporary = null;
+            count(Files.size(source), Files.size(target));
+        } catch (IOException | RuntimeException e) {
+            fail(source.toString(), e);
+            if (temporary != null) {
+                deleteTemporary(temporary);
+            }
+        }
+    }
+
+    /**
+     * This method will make sure that the given target may be written, which is the case when it does not exist yet or when the options allow it to be replaced.
+     *
+     * @param target The file that the result should be written to.
+     * @throws FileAlreadyExistsException Thrown when the target exists and should not be replaced.
+     */
+    private void checkTarget(final Path target) throws FileAlreadyExistsException {
+        if (!options.isForce() && Files.exists(target, LinkOption.NOFOLLOW_LINKS)) throw new FileAlreadyExistsException(target.toString(), null, "The result already exists, use --force to replace it");
+    }
+
+    /**
+     * This method will remove the temporary result of a file that has failed. A result that can't be removed is reported, but doesn't count as another failure.
+     */
+    private void deleteTemporary(final Path temporary) {
+        try {
+            Files.deleteIfExists(temporary);
+        } catch (IOException e) {
+            log.println("Failed to remove the incomplete result " + temporary + ": " + e);
+        }
+    }
+
+    /**
+     * This method will count a file that has been processed.
+     *
+     * @param in  The amount of bytes that have been read.
+     * @param out The amount of bytes that have been written.
+     */
+    private void count(final long in, final long out) {
+        files.increment();
+        bytesIn.add(in);
+        bytesOut.add(out);
+    }
+
+    /**
+     * This method will report that the given file has failed.
+     */
+    private void fail(final String name, final Throwable cause) {
+        failures.increment();
+        log.println("Failed to " + (options.isCompress() ? "compress " : "decompress ") + name + ": " + cause);
+    }
+
+    /**
+     * This method will print the amount of processed files, their sizes and the throughput.
+     * @param nanos The time that the whole batch has taken.
+     */
+    private void printSummary(final long nanos) {
+        final long in = bytesIn.sum();
+        final long out = bytesOut.sum();
+        final double seconds = nanos / 1e9;
+
+        log.printf("%s %d files (%d failed): %d bytes to %d bytes, ratio %.4f, in %.3f s at %.1f MB/s%n",
+                options.isCompress() ? "Compressed" : "Decompressed", files.sum(), failures.sum(), in, out,
+                options.isCompress() ? (out == 0 ? 0 : (double) in / out) : (in == 0 ? 0 : (double) out / in),
+                seconds, seconds == 0 ? 0 : Math.max(in, out) / 1e6 / seconds);
+    }
+
+    /**
+     * @return Returns the amount of files that have been processed.
+     */
+    public long getFiles() {
+        return files.sum();
+    }
+
+    /**
+     * @return Returns the amount of files that have failed.
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * An InputStream that counts the bytes that are read from the standard input.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(final InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b != -1) count++;
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+            final int read = super.read(bytes, offset, length);
+            if (read > 0) count += read;
+            return read;
+        }
+    }
+
+    /**
+     * An OutputStream that counts the bytes that are written to the standard output.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(final OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        /* FilterOutputStream writes an array a byte at a time, so it's passed on as a whole instead. */
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package nl.fontys.core;
+
+import nl.fontys.algorithms.HuffmanOutputStream;
+import nl.fontys.algorithms.HuffmanStreams;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The options of a batch of files that should be compressed or decompressed, as they're given on the command line.
+ */
+public class BatchOptions {
+
+    /* A single dash instead of a path means that the data should be read from stdin and written to stdout. */
+    public static final String STANDARD_STREAMS = "-";
+
+    public static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: (compress | decompress) [options] <path>...",
+            "  Every path is either a file or a directory, of which every file is processed recursively.",
+            "  A single - reads from stdin and writes to stdout.",
+            "Options:",
+            "  -o, --output <directory>  The directory that the processed files are written to. By default they're written next to their source.",
+            "  -f, --force               Replace results that already exist. By default a file whose result already exists fails.",
+            "  -b, --block-size <bytes>  The amount of bytes that every checksummed block of a compressed file holds, at most " + HuffmanOutputStream.MAX_FRAME_SIZE + ". The default is " + HuffmanOutputStream.FRAME_SIZE + ".",
+            "  -s, --sample-size <bytes> The amount of bytes of every file that its code is built from. The default is " + HuffmanStreams.DEFAULT_SAMPLE_SIZE + ".",
+            "  -t, --threads <count>     The amount of files that are compressed or decompressed at the same time. The default is the amount of processors.");
+
+    private final boolean compress;
+    private final List<String> paths;
+    private final Path outputDirectory;
+    private final boolean force;
+    private final int blockSize;
+    private final int sampleSize;
+    private final int threads;
+
+    private BatchOptions(final boolean compress, final List<String> paths, final Path outputDirectory, final boolean force, final int blockSize, final int sampleSize, final int threads) {
+        this.compress = compress;
+        this.paths = Collections.unmodifiableList(paths);
+        this.outputDirectory = outputDirectory;
+        this.force = force;
+        this.blockSize = blockSize;
+        this.sampleSize = sampleSize;
+        this.threads = threads;
+    }
+
+    /**
+     * This method will parse the given command line arguments.
+     *
+     * @param args The command line arguments. This parameter is not allowed to be null.
+     * @return Returns an object of the BatchOptions class containing the parsed options.
+     * @throws IllegalArgumentException Thrown when the arguments are not valid. The message describes what's wrong with them.
+     */
+    public static BatchOptions parse(final String... args) {
+        if (args == null) throw new IllegalArgumentException("The args are not allowed to be null.");
+        else if (args.length == 0) throw new IllegalArgumentException("The mode is missing.");
+
+        final boolean compress;
+        if (args[0].equals("compress")) compress = true;
+        else if (args[0].equals("decompress")) compress = false;
+        else throw new IllegalArgumentException("The mode should either be compress or decompress instead of " + args[0] + ".");
+
+        final List<String> paths = new ArrayList<>();
+        Path outputDirectory = null;
+        boolean force = false;
+        int blockSize = HuffmanOutputStream.FRAME_SIZE;
+        int sampleSize = HuffmanStreams.DEFAULT_SAMPLE_SIZE;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 1; i < args.length; i++) {
+            final String arg = args[i];
+
+            if (arg.equals("-o") || arg.equals("--output")) {
+                outputDirectory = Paths.get(getValue(args, i++));
+            } else if (arg.equals("-f") || arg.equals("--force")) {
+                force = true;
+            } else if (arg.equals("-b") || arg.equals("--block-size")) {
+                blockSize = getPositiveInt(args, i++);
+                if (blockSize > HuffmanOutputStream.MAX_FRAME_SIZE) throw new IllegalArgumentException("The option " + arg + " should be at most " + HuffmanOutputStream.MAX_FRAME_SIZE + ".");
+            } else if (arg.equals("-s") || arg.equals("--sample-size")) {
+                sampleSize = getPositiveInt(args, i++);
+            } else if (arg.equals("-t") || arg.equals("--threads")) {
+                threads = getPositiveInt(args, i++);
+            } else if (arg.startsWith("-") && !arg.equals(STANDARD_STREAMS)) {
+                throw new IllegalArgumentException("The option " + arg + " is unknown.");
+            } else {
+                paths.add(arg);
+            }
+        }
+
+        if (paths.isEmpty()) throw new IllegalArgumentException("At least one path should be given.");
+        else if (paths.contains(STANDARD_STREAMS) && paths.size() > 1) throw new IllegalArgumentException("The standard streams can't be combined with other paths.");
+
+        return new BatchOptions(compress, paths, outputDirectory, force, blockSize, sampleSize, threads);
+    }
+
+    /**
+     * @return Returns the value that follows the option at the given index.
+     */
+    private static String getValue(final String[] args, final int index) {
+        if (index + 1 >= args.length) throw new IllegalArgumentException("The option " + args[index] + " requires a value.");
+
+        return args[index + 1];
+    }
+
+    /**
+     * @return Returns the value that follows the option at the given index as an int that is above 0.
+     */
+    private static int getPositiveInt(final String[] args, final int index) {
+        final String value = getValue(args, index);
+
+        try {
+            final int parsed = Integer.parseInt(value);
+            if (parsed < 1) throw new IllegalArgumentException("The option " + args[index] + " should be above 0.");
+
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The option " + args[index] + " requires a number instead of " + value + ".", e);
+        }
+    }
+
+    /**
+     * @return Returns true when the files should be compressed, returns false when they should be decompressed.
+     */
+    public boolean isCompress() {
+        return compress;
+    }
+
+    /**
+     * @return Returns the files and directories that should be processed.
+     */
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * @return Returns the directory that the processed files should be written to, or null when they should be written next to their source.
+     */
+    public Path getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    /**
+     * @return Returns true when results that already exist should be replaced, returns false when their files should fail instead.
+     */
+    public boolean isForce() {
+        return force;
+    }
+
+    /**
+     * @return Returns the amount of bytes that every block of a compressed file holds.
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * @return Returns the amount of bytes of every file that its code is built from.
+     */
+    public int getSampleSize() {
+        return sampleSize;
+    }
+
+    /**
+     * @return Returns the amount of files that are compressed or decompressed at the same time.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return Returns true when the data should be read from stdin and written to stdout.
+     */
+    public boolean isStandardStreams() {
+        return paths.contains(STANDARD_STREAMS);
+    }
+}
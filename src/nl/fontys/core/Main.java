@@ -1,7 +1,10 @@
 package nl.fontys.core;
 
+import nl.fontys.algorithms.CompressionMetrics;
 import nl.fontys.algorithms.HuffmanCompression;
 
+import javax.management.JMException;
+import java.io.IOException;
 import java.util.Scanner;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -12,6 +15,18 @@ public class Main {
     private static final Logger LOGGER = Logger.getLogger(HuffmanCompression.class.getName());
 
     public static void main(String[] args) {
+        /* The batch tool records every file to the default metrics as well, so they're exposed before either mode starts. */
+        try {
+            CompressionMetrics.getDefault().register("default");
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "The compression metrics could not be exposed over JMX.", e);
+        }
+
+        /* With arguments the program runs as a batch tool, without them it asks what to do. */
+        if (args.length > 0) {
+            System.exit(BatchCompressor.run(args));
+        }
+
         huffmanCompression = new HuffmanCompression();
         decideActionToPerform();
     }
@@ -35,10 +50,19 @@ public class Main {
     }
 
     private static void encode(final String text) {
-        huffmanCompression.encode(text);
+        try {
+            huffmanCompression.encode(text);
+            LOGGER.info(String.valueOf(huffmanCompression.getLastReport()));
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "The text could not be encoded.", e);
+        }
     }
 
     private static void decode() {
-        LOGGER.info(huffmanCompression.decode());
+        try {
+            LOGGER.info(huffmanCompression.decode());
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "The text could not be decoded.", e);
+        }
     }
 }
@@ -0,0 +1,158 @@
+package nl.fontys.utilities;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads the bits that have been written by the BitWriter class, in the same order in which they were written.
+ * The bits are read a whole word at a time into a 64-bit register, so that most reads only have to shift the register.
+ * Positions past the end of the bits will be read as 0's.
+ */
+public class BitReader {
+
+    /* A refill always loads at least 57 bits into the register, as a little-endian long that starts at a byte boundary
+       loses at most 7 of its bits to the shift. A single peek can therefore request up to 57 bits. */
+    public static final int MAX_PEEK_LENGTH = 57;
+
+    private final long[] words;
+    private final ByteBuffer buffer;
+    private final long endBit;
+
+    private long register;
+    private int available;
+    private long position;
+
+    /**
+     * Constructor for this class.
+     * The words are read from least to most significant bit, which is the same order that BitSet.toLongArray() uses.
+     *
+     * @param words    The words that contain the bits. This parameter is not allowed to be null.
+     * @param bitCount The amount of bits within the given words.
+     */
+    public BitReader(final long[] words, final long bitCount) {
+        if (words == null) throw new IllegalArgumentException("The words are not allowed to be null.");
+        else if (bitCount < 0) throw new IllegalArgumentException("The bitCount is not allowed to be negative.");
+
+        this.words = words;
+        this.buffer = null;
+        this.endBit = bitCount;
+    }
+
+    /**
+     * Constructor for this class.
+     * The ByteBuffer should use little-endian byte order, so that its bytes are read in the same order in which the BitWriter wrote them.
+     *
+     * @param buffer   The ByteBuffer that contains the bits, starting at index 0. This parameter is not allowed to be null.
+     * @param startBit The position of the first bit that should be read.
+     * @param endBit   The position after the last bit that should be read. This value should not exceed the limit of the ByteBuffer.
+     */
+    public BitReader(final ByteBuffer buffer, final long startBit, final long endBit) {
+        if (buffer == null) throw new IllegalArgumentException("The buffer is not allowed to be null.");
+        else if (startBit < 0 || startBit > endBit) throw new IllegalArgumentException("The startBit and endBit do not form a valid range.");
+        else if (endBit > buffer.limit() * 8L) throw new IllegalArgumentException("The endBit exceeds the limit of the buffer.");
+
+        this.words = null;
+        this.buffer = buffer;
+        this.endBit = endBit;
+        this.position = startBit;
+    }
+
+    /**
+     * This method will return the next bits without consuming them. The first bit is stored in the least significant bit.
+     * Only the lowest given amount of bits are guaranteed to be loaded, the higher bits of the returned value may either hold the bits after them or 0's.
+     *
+     * @param bits The amount of bits that are needed. This value should be between 0 and MAX_PEEK_LENGTH.
+     * @return Returns the register that holds the next bits.
+     */
+    public long peek(final int bits) {
+        if (available < bits) {
+            refill();
+        }
+        return register;
+    }
+
+    /**
+     * This method will consume the given amount of bits. The bits should have been loaded by a peek that requested at least as many bits.
+     * @param bits The amount of bits that should be consumed.
+     */
+    public void skip(final int bits) {
+        register >>>= bits;
+        available -= bits;
+        position += bits;
+    }
+
+    /**
+     * This method will read and consume the given amount of bits.
+     *
+     * @param bits The amount of bits that should be read. This value should be between 0 and MAX_PEEK_LENGTH.
+     * @return Returns the bits, where the first bit is stored in the least significant bit.
+     */
+    public long read(final int bits) {
+        final long value = peek(bits) & ((1L << bits) - 1);
+        skip(bits);
+        return value;
+    }
+
+    /**
+     * @return Returns the position of the next bit that will be read.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * @return Returns the amount of bits that can still be read before the end is reached.
+     */
+    public long getRemaining() {
+        return endBit - position;
+    }
+
+    /**
+     * This method will reload the register, starting at the current position.
+     * The bits that are still within the register are loaded again, which is cheaper than keeping track of where the register ends.
+     */
+    private void refill() {
+        if (words != null) {
+            register = loadWord(position);
+            available = 64;
+        } else {
+            register = loadBuffer(position);
+            available = 64 - (int) (position & 7);
+        }
+    }
+
+    /**
+     * This method will return the 64 bits that start at the given position within the words.
+     * @param position The position of the first bit.
+     * @return Returns the bits, where the first bit is stored in the least significant bit.
+     */
+    private long loadWord(final long position) {
+        final int word = (int) (position >>> 6);
+        final int shift = (int) (position & 63);
+
+        /* Shifting the next word by 1 and then by 63 - shift avoids a branch for shift 0, as Java would ignore a shift by 64. */
+        if (word + 1 < words.length) {
+            return (words[word] >>> shift) | ((words[word + 1] << 1) << (63 - shift));
+        }
+        return word < words.length ? words[word] >>> shift : 0L;
+    }
+
+    /**
+     * This method will return at least 57 bits that start at the given position within the ByteBuffer.
+     * @param position The position of the first bit.
+     * @return Returns the bits, where the first bit is stored in the least significant bit.
+     */
+    private long loadBuffer(final long position) {
+        final int index = (int) (position >>> 3);
+        final int shift = (int) (position & 7);
+
+        if (index + 8 <= buffer.limit()) {
+            return buffer.getLong(index) >>> shift;
+        }
+
+        long value = 0;
+        for (int i = index; i < buffer.limit() && i < index + 8; i++) {
+            value |= (buffer.get(i) & 0xFFL) << ((i - index) * 8);
+        }
+        return value >>> shift;
+    }
+}
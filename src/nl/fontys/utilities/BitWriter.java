@@ -0,0 +1,122 @@
+package nl.fontys.utilities;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class BitWriter {
+
+    /* Bits are collected in a 64-bit accumulator and are only moved to the buffer a whole byte at a time.
+       A code may therefore be at most 57 bits long, as up to 7 bits can still be pending within the accumulator. */
+    public static final int MAX_WRITE_LENGTH = 57;
+
+    private byte[] buffer;
+    private int size;
+
+    private long accumulator;
+    private int pending;
+    private long bitCount;
+
+    /**
+     * Constructor for this class.
+     * @param initialCapacity The amount of bytes that the buffer can initially hold. The buffer will grow whenever it's full.
+     */
+    public BitWriter(final int initialCapacity) {
+        if (initialCapacity < 0) throw new IllegalArgumentException("The initialCapacity is not allowed to be negative.");
+
+        this.buffer = new byte[Math.max(initialCapacity, 8)];
+    }
+
+    /**
+     * This method will write the given amount of lowest bits of the given value.
+     * The least significant bit is written first.
+     *
+     * @param bits   The bits that should be written. Only the lowest length bits are allowed to be set.
+     * @param length The amount of bits that should be written. This value should be between 0 and MAX_WRITE_LENGTH.
+     */
+    public void write(final long bits, final int length) {
+        /* The accumulator can't hold the new bits anymore. Let's move all the complete bytes to the buffer first. */
+        if (pending + length > 64) {
+            flushBytes();
+        }
+        accumulator |= bits << pending;
+        pending += length;
+        bitCount += length;
+    }
+
+    /**
+     * @return Returns the amount of bits that have been written so far.
+     */
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    /**
+     * This method will return all the written bits as a byte array. The last byte is padded with 0's.
+     * @return Returns a byte array containing the written bits.
+     */
+    public byte[] toByteArray() {
+        flushBytes();
+
+        final byte[] bytes = Arrays.copyOf(buffer, size + (pending > 0 ? 1 : 0));
+        if (pending > 0) {
+            bytes[size] = (byte) accumulator;
+        }
+        return bytes;
+    }
+
+    /**
+     * This method will put all the written bits into the given ByteBuffer. The last byte is padded with 0's.
+     * @param byteBuffer The ByteBuffer that the bits should be put in.
+     *                   This parameter is not allowed to be null.
+     */
+    public void writeTo(final ByteBuffer byteBuffer) {
+        if (byteBuffer == null) throw new IllegalArgumentException("The byteBuffer is not allowed to be null.");
+
+        flushBytes();
+        byteBuffer.put(buffer, 0, size);
+        if (pending > 0) {
+            byteBuffer.put((byte) accumulator);
+        }
+    }
+
+    /**
+     * This method will write all the written bits to the given OutputStream. The last byte is padded with 0's.
+     * @param outputStream The OutputStream that the bits should be written to.
+     *                     This parameter is not allowed to be null.
+     * @throws IOException Thrown when the bits could not be written to the given OutputStream.
+     */
+    public void writeTo(final OutputStream outputStream) throws IOException {
+        if (outputStream == null) throw new IllegalArgumentException("The outputStream is not allowed to be null.");
+
+        flushBytes();
+        outputStream.write(buffer, 0, size);
+        if (pending > 0) {
+            outputStream.write((byte) accumulator);
+        }
+    }
+
+    /**
+     * This method will discard all the written bits, so that the buffer can be reused.
+     */
+    public void reset() {
+        size = 0;
+        accumulator = 0;
+        pending = 0;
+        bitCount = 0;
+    }
+
+    /**
+     * This method will move every complete byte within the accumulator to the buffer.
+     */
+    private void flushBytes() {
+        if (size + 8 > buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        for (; pending >= 8; pending -= 8) {
+            buffer[size++] = (byte) accumulator;
+            accumulator >>>= 8;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package nl.fontys.algorithms;
+
+import nl.fontys.utilities.TestData;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+public class AdaptiveHuffmanStreamTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_Zero_Interval_Test() throws Exception {
+        new AdaptiveHuffmanOutputStream(new ByteArrayOutputStream(), 0);
+    }
+
+    @Test
+    public void stream_Empty_Test() throws Exception {
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        new AdaptiveHuffmanOutputStream(encoded).close();
+
+        Assert.assertArrayEquals(new byte[0], TestData.readFully(new AdaptiveHuffmanInputStream(new ByteArrayInputStream(encoded.toByteArray()))));
+    }
+
+    @Test
+    public void stream_Correct_Test() throws Exception {
+        final byte[] bytes = TestData.getLoremIpsumBytes(500);
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+
+        try (final OutputStream outputStream = new AdaptiveHuffmanOutputStream(encoded)) {
+            outputStream.write(bytes, 0, 1000);
+            outputStream.write(bytes[1000]);
+            outputStream.write(bytes, 1001, bytes.length - 1001);
+        }
+
+        /* The code adapts within the first few kilobytes, so the stream should compress nearly as well as a code that is built up front. */
+        Assert.assertTrue(encoded.size() < bytes.length * 6 / 10);
+        Assert.assertArrayEquals(bytes, TestData.readFully(new AdaptiveHuffmanInputStream(new ByteArrayInputStream(encoded.toByteArray()))));
+    }
+
+    @Test
+    public void stream_Changing_Distribution_Test() throws Exception {
+        /* The random bytes in between force the code to adapt twice: once to the random bytes and once back to the text. */
+        final byte[] text = TestData.getLoremIpsumBytes(50);
+        final byte[] randomBytes = new byte[100_000];
+        new Random(13).nextBytes(randomBytes);
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(text);
+        bytes.write(randomBytes);
+        bytes.write(text);
+
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (final OutputStream outputStream = new AdaptiveHuffmanOutputStream(encoded, 4096)) {
+            outputStream.write(bytes.toByteArray());
+        }
+        Assert.assertArrayEquals(bytes.toByteArray(), TestData.readFully(new AdaptiveHuffmanInputStream(new ByteArrayInputStream(encoded.toByteArray()))));
+    }
+
+    @Test
+    public void flush_Decodable_Test() throws Exception {
+        final byte[] bytes = TestData.getLoremIpsumBytes(5);
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        final OutputStream outputStream = new AdaptiveHuffmanOutputStream(encoded);
+
+        outputStream.write(bytes, 0, 100);
+        outputStream.flush();
+
+        /* The stream has not ended yet, but every byte that has been flushed can already be decoded. */
+        final byte[] decoded = new byte[100];
+        new DataInputStream(new AdaptiveHuffmanInputStream(new ByteArrayInputStream(encoded.toByteArray()))).readFully(decoded);
+        Assert.assertArrayEquals(Arrays.copyOf(bytes, 100), decoded);
+
+        outputStream.write(bytes, 100, bytes.length - 100);
+        outputStream.close();
+        Assert.assertArrayEquals(bytes, TestData.readFully(new AdaptiveHuffmanInputStream(new ByteArrayInputStream(encoded.toByteArray()))));
+    }
+
+    @Test(expected = ChecksumMismatchException.class)
+    public void stream_Damaged_Frame_Test() throws Exception {
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (final OutputStream outputStream = new AdaptiveHuffmanOutputStream(encoded)) {
+            outputStream.write(TestData.getLoremIpsumBytes(10));
+        }
+
+        /* The end of the stream is followed by the checksum of the last frame and the end marker, so this byte lies within the encoded bits. */
+        final byte[] damaged = encoded.toByteArray();
+        damaged[damaged.length - 20] ^= 1;
+        TestData.readFully(new AdaptiveHuffmanInputStream(new ByteArrayInputStream(damaged)));
+    }
+
+    @Test(expected = UnsupportedFormatException.class)
+    public void read_Static_Stream_Test() throws Exception {
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        HuffmanStreams.compress(new ByteArrayInputStream(TestData.getLoremIpsumBytes(1)), encoded, 1024);
+
+        new AdaptiveHuffmanInputStream(new ByteArrayInputStream(encoded.toByteArray()));
+    }
+
+    @Test(expected = CorruptedDataException.class)
+    public void read_Invalid_Interval_Test() throws Exception {
+        /* The header has a valid checksum, so only the rebuild interval itself can be rejected. */
+        final ByteArrayOutputStream header = new ByteArrayOutputStream();
+        final CRC32 checksum = new CRC32();
+        final DataOutputStream dataOutputStream = new DataOutputStream(new CheckedOutputStream(header, checksum));
+        dataOutputStream.writeInt(AdaptiveHuffmanOutputStream.MAGIC);
+        dataOutputStream.writeByte(AdaptiveHuffmanOutputStream.FORMAT_VERSION);
+        dataOutputStream.writeInt(0);
+        new DataOutputStream(header).writeInt((int) checksum.getValue());
+
+        new AdaptiveHuffmanInputStream(new ByteArrayInputStream(header.toByteArray()));
+    }
+}
@@ -0,0 +1,94 @@
+package nl.fontys.algorithms;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+
+public class CanonicalHuffmanCodeTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fromCodeLengths_Zero_Length_Test() throws Exception {
+        CanonicalHuffmanCode.fromCodeLengths(new int[]{'a', 'b'}, new int[]{1, 0}, 2);
+    }
+
+    @Test
+    public void fromCodeLengths_Correct_Test() throws Exception {
+        final HashMap<Character, String> bitCodes = CanonicalHuffmanCode.fromCodeLengths(new int[]{'d', 'c', 'b', 'a'}, new int[]{3, 3, 1, 2}, 4).toBitCodeHashMap();
+
+        Assert.assertEquals("0", bitCodes.get('b'));
+        Assert.assertEquals("10", bitCodes.get('a'));
+        Assert.assertEquals("110", bitCodes.get('c'));
+        Assert.assertEquals("111", bitCodes.get('d'));
+    }
+
+    @Test
+    public void writeTo_ReadFrom_Correct_Test() throws Exception {
+        final CanonicalHuffmanCode code = CanonicalHuffmanCode.fromCodeLengths(new int[]{'x', 'y', 'z', '!'}, new int[]{2, 2, 2, 2}, 4);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        code.writeTo(new DataOutputStream(bytes));
+        final CanonicalHuffmanCode readCode = CanonicalHuffmanCode.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        /* The header consists of the longest length, a single byte count per length and the characters themselves, which all fit within a byte. */
+        Assert.assertEquals(1 + 2 + 4, bytes.size());
+        Assert.assertEquals(code.toBitCodeHashMap(), readCode.toBitCodeHashMap());
+    }
+
+    @Test
+    public void writeTo_ReadFrom_Text_Symbols_Test() throws Exception {
+        /* A single character beyond the byte range makes every character take 2 bytes. */
+        final CanonicalHuffmanCode code = CanonicalHuffmanCode.fromCodeLengths(new int[]{'x', 'y', '\u20AC'}, new int[]{1, 2, 2}, 3);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        code.writeTo(new DataOutputStream(bytes));
+        final CanonicalHuffmanCode readCode = CanonicalHuffmanCode.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        Assert.assertEquals(1 + 2 + 3 * 2, bytes.size());
+        Assert.assertEquals(code.toBitCodeHashMap(), readCode.toBitCodeHashMap());
+    }
+
+    @Test
+    public void writeTo_ReadFrom_Large_Count_Test() throws Exception {
+        /* Every byte equally often gives 256 codes of 8 bits, of which the amount takes a varint of 2 bytes. */
+        final long[] frequencies = new long[256];
+        Arrays.fill(frequencies, 1);
+        final CanonicalHuffmanCode code = CanonicalHuffmanCode.fromFrequencies(frequencies);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        code.writeTo(new DataOutputStream(bytes));
+        final CanonicalHuffmanCode readCode = CanonicalHuffmanCode.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        Assert.assertEquals(1 + 7 + 2 + 256, bytes.size());
+        Assert.assertEquals(code.toBitCodeHashMap(), readCode.toBitCodeHashMap());
+    }
+
+    @Test(expected = CorruptedDataException.class)
+    public void readFrom_Overfull_Code_Test() throws Exception {
+        /* Three codes of a single bit can't form a prefix code. */
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream outputStream = new DataOutputStream(bytes);
+        outputStream.writeByte(1);
+        outputStream.writeByte(3);
+        outputStream.writeChars("abc");
+
+        CanonicalHuffmanCode.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test(expected = CorruptedDataException.class)
+    public void readFrom_Empty_Code_Test() throws Exception {
+        /* Every encoder writes at least one code, so a code without any codes can only come from damaged data. */
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream outputStream = new DataOutputStream(bytes);
+        outputStream.writeByte(2);
+        outputStream.writeByte(0);
+        outputStream.writeByte(0);
+
+        CanonicalHuffmanCode.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
@@ -0,0 +1,162 @@
+package nl.fontys.algorithms;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+public class CompressionMetricsTest {
+
+    private static final String LOREM_IPSUM = "Lorem ipsum dolor sit amet, consectetuer adipiscing elit.";
+
+    @Test(expected = IllegalArgumentException.class)
+    public void record_Null_Test() throws Exception {
+        new CompressionMetrics().record(null);
+    }
+
+    @Test
+    public void record_Correct_Test() throws Exception {
+        final CompressionMetrics metrics = new CompressionMetrics();
+        metrics.record(new CompressionReport(100, 50, 100, 300, 250, 1, 2, 3, 4));
+        metrics.record(new CompressionReport(300, 100, 300, 900, 750, 1, 2, 3, 4));
+
+        Assert.assertEquals(2, metrics.getCompressions());
+        Assert.assertEquals(400, metrics.getBytesIn());
+        Assert.assertEquals(150, metrics.getBytesOut());
+        Assert.assertEquals(400.0 / 150, metrics.getCompressionRatio(), 1e-9);
+        Assert.assertEquals(3.0, metrics.getAverageCodeLength(), 1e-9);
+        Assert.assertEquals(2.5, metrics.getEntropy(), 1e-9);
+        Assert.assertEquals(8, metrics.getWriteNanos());
+
+        metrics.reset();
+        Assert.assertEquals(0, metrics.getCompressions());
+        Assert.assertEquals(0, metrics.getCompressionRatio(), 0);
+    }
+
+    @Test
+    public void record_Concurrent_Test() throws Exception {
+        final CompressionMetrics metrics = new CompressionMetrics();
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+        for (int i = 0; i < 1000; i++) {
+            executorService.execute(() -> metrics.record(new CompressionReport(10, 5, 10, 20, 15, 1, 1, 1, 1)));
+        }
+        executorService.shutdown();
+        Assert.assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+
+        Assert.assertEquals(1000, metrics.getCompressions());
+        Assert.assertEquals(10_000, metrics.getBytesIn());
+    }
+
+    @Test
+    public void huffmanCompression_Report_Test() throws Exception {
+        final CompressionMetrics metrics = new CompressionMetrics();
+        final HuffmanCompression huffmanCompression = new HuffmanCompression(CanonicalHuffmanCode.MAX_CODE_LENGTH, metrics);
+        final byte[] bytes = LOREM_IPSUM.getBytes(StandardCharsets.UTF_8);
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+
+        huffmanCompression.encodeBytes(bytes, encoded);
+        final CompressionReport report = huffmanCompression.getLastReport();
+
+        Assert.assertEquals(bytes.length, report.getBytesIn());
+        Assert.assertEquals(encoded.size(), report.getBytesOut());
+
+        /* A Huffman code is never better than the entropy, and less than a bit worse. */
+        Assert.assertTrue(report.getAverageCodeLength() >= report.getEntropy());
+        Assert.assertTrue(report.getAverageCodeLength() < report.getEntropy() + 1);
+
+        huffmanCompression.decodeBytes(new ByteArrayInputStream(encoded.toByteArray()));
+        Assert.assertEquals(1, metrics.getCompressions());
+        Assert.assertEquals(1, metrics.getDecompressions());
+        Assert.assertEquals(bytes.length, metrics.getDecompressedBytes());
+    }
+
+    @Test
+    public void parallelHuffmanCompression_Record_Test() throws Exception {
+        final CompressionMetrics metrics = new CompressionMetrics();
+        final ParallelHuffmanCompression compression = new ParallelHuffmanCompression(16, ForkJoinPool.commonPool(), metrics);
+        final byte[] bytes = LOREM_IPSUM.getBytes(StandardCharsets.UTF_8);
+
+        final byte[] compressed = compression.compress(bytes);
+        compression.decompress(compressed);
+
+        Assert.assertEquals(1, metrics.getCompressions());
+        Assert.assertEquals(bytes.length, metrics.getBytesIn());
+        Assert.assertEquals(compressed.length, metrics.getBytesOut());
+        Assert.assertTrue(metrics.getAverageCodeLength() >= metrics.getEntropy());
+        Assert.assertEquals(bytes.length, metrics.getDecompressedBytes());
+    }
+
+    @Test
+    public void entropyCompression_Record_Test() throws Exception {
+        final CompressionMetrics metrics = new CompressionMetrics();
+        final EntropyCompression compression = new EntropyCompression(EntropyBackend.TANS, metrics);
+        final byte[] bytes = LOREM_IPSUM.getBytes(StandardCharsets.UTF_8);
+
+        final byte[] compressed = compression.compress(bytes);
+        compression.decompress(compressed);
+
+        Assert.assertEquals(1, metrics.getCompressions());
+        Assert.assertEquals(compressed.length, metrics.getBytesOut());
+        Assert.assertEquals(1, metrics.getDecompressions());
+    }
+
+    @Test
+    public void mappedHuffmanCompression_Record_Test() throws Exception {
+        final CompressionMetrics metrics = new CompressionMetrics();
+        final MappedHuffmanCompression compression = new MappedHuffmanCompression(1024, 64, 16, metrics);
+        final Path source = Files.createTempFile("metrics", ".txt");
+        final Path target = Files.createTempFile("metrics", ".huff");
+
+        try {
+            Files.write(source, LOREM_IPSUM.getBytes(StandardCharsets.UTF_8));
+            compression.compress(source, target);
+            compression.decodeRange(target, 10, 20);
+
+            Assert.assertEquals(1, metrics.getCompressions());
+            Assert.assertEquals(Files.size(source), metrics.getBytesIn());
+            Assert.assertEquals(Files.size(target), metrics.getBytesOut());
+            Assert.assertEquals(20, metrics.getDecompressedBytes());
+        } finally {
+            Files.delete(source);
+            Files.delete(target);
+        }
+    }
+
+    @Test
+    public void huffmanStreams_Default_Metrics_Test() throws Exception {
+        final long compressions = CompressionMetrics.getDefault().getCompressions();
+        final long decompressions = CompressionMetrics.getDefault().getDecompressions();
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+
+        HuffmanStreams.compress(new ByteArrayInputStream(LOREM_IPSUM.getBytes(StandardCharsets.UTF_8)), encoded, 1024);
+        HuffmanStreams.decompress(new ByteArrayInputStream(encoded.toByteArray()), new ByteArrayOutputStream());
+
+        Assert.assertEquals(compressions + 1, CompressionMetrics.getDefault().getCompressions());
+        Assert.assertEquals(decompressions + 1, CompressionMetrics.getDefault().getDecompressions());
+    }
+
+    @Test
+    public void register_Correct_Test() throws Exception {
+        final CompressionMetrics metrics = new CompressionMetrics();
+        metrics.record(new CompressionReport(100, 50, 100, 300, 250, 1, 2, 3, 4));
+
+        final ObjectName objectName = metrics.register("register_Correct_Test");
+        try {
+            Assert.assertEquals(100L, ManagementFactory.getPlatformMBeanServer().getAttribute(objectName, "BytesIn"));
+            Assert.assertEquals(2.0, (Double) ManagementFactory.getPlatformMBeanServer().getAttribute(objectName, "CompressionRatio"), 1e-9);
+        } finally {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        }
+    }
+}
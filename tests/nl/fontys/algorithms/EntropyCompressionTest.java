@@ -0,0 +1,71 @@
+package nl.fontys.algorithms;
+
+import nl.fontys.utilities.TestData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EntropyCompressionTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_Null_Test() throws Exception {
+        new EntropyCompression(null);
+    }
+
+    @Test
+    public void compress_Every_Backend_Test() throws Exception {
+        final byte[] bytes = TestData.getLoremIpsumBytes(20);
+
+        for (final EntropyBackend backend : EntropyBackend.values()) {
+            final byte[] compressed = new EntropyCompression(backend).compress(bytes);
+
+            Assert.assertEquals(backend, EntropyCompression.readBackend(compressed));
+            Assert.assertTrue(compressed.length < bytes.length);
+
+            /* The backend is read from the compressed bytes, so an instance with another backend can decompress them as well. */
+            Assert.assertArrayEquals(bytes, new EntropyCompression().decompress(compressed));
+        }
+    }
+
+    @Test
+    public void compress_Empty_Test() throws Exception {
+        for (final EntropyBackend backend : EntropyBackend.values()) {
+            final EntropyCompression entropyCompression = new EntropyCompression(backend);
+            Assert.assertArrayEquals(new byte[0], entropyCompression.decompress(entropyCompression.compress(new byte[0])));
+        }
+    }
+
+    @Test(expected = UnsupportedFormatException.class)
+    public void decompress_Unknown_Backend_Test() throws Exception {
+        final byte[] compressed = new EntropyCompression().compress(TestData.getLoremIpsumBytes(1));
+        compressed[5] = (byte) 0x7F;
+        new EntropyCompression().decompress(compressed);
+    }
+
+    @Test(expected = UnsupportedFormatException.class)
+    public void decompress_Unsupported_Version_Test() throws Exception {
+        final byte[] compressed = new EntropyCompression().compress(TestData.getLoremIpsumBytes(1));
+        compressed[4] = (byte) (EntropyCompression.FORMAT_VERSION + 1);
+        new EntropyCompression().decompress(compressed);
+    }
+
+    @Test(expected = CorruptedDataException.class)
+    public void decompress_Empty_Test() throws Exception {
+        new EntropyCompression().decompress(new byte[0]);
+    }
+
+    @Test
+    public void decompress_Damaged_Test() throws Exception {
+        /* A flipped bit within the encoded bytes would otherwise decode into different bytes without any error. */
+        for (final EntropyBackend backend : EntropyBackend.values()) {
+            final byte[] compressed = new EntropyCompression(backend).compress(TestData.getLoremIpsumBytes(1));
+            compressed[compressed.length - 10] ^= 0x04;
+
+            try {
+                new EntropyCompression().decompress(compressed);
+                Assert.fail("The damaged bytes should have been detected.");
+            } catch (ChecksumMismatchException e) {
+                Assert.assertEquals(0, e.getBlock());
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package nl.fontys.algorithms;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HuffmanCodeLengthsTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void compute_Negative_Frequency_Test() throws Exception {
+        HuffmanCodeLengths.compute(new long[]{1, -1});
+    }
+
+    @Test
+    public void compute_Correct_Test() throws Exception {
+        Assert.assertArrayEquals(new int[]{1, 0, 2, 3, 3}, HuffmanCodeLengths.compute(new long[]{10, 0, 5, 2, 1}));
+    }
+
+    @Test
+    public void compute_Single_Symbol_Test() throws Exception {
+        Assert.assertArrayEquals(new int[]{0, 1}, HuffmanCodeLengths.compute(new long[]{0, 7}));
+    }
+
+    @Test
+    public void computeInPlace_Optimal_Test() throws Exception {
+        /* Equal weights should result in a complete tree, so 8 weights all get a length of 3. */
+        final long[] weights = {4, 4, 4, 4, 4, 4, 4, 4};
+        HuffmanCodeLengths.computeInPlace(weights, weights.length);
+
+        Assert.assertArrayEquals(new long[]{3, 3, 3, 3, 3, 3, 3, 3}, weights);
+    }
+
+    @Test
+    public void computeInPlace_Fibonacci_Test() throws Exception {
+        /* Fibonacci weights result in the deepest possible tree, where every next weight is one level closer to the root. */
+        final long[] weights = {1, 1, 2, 3, 5, 8, 13};
+        HuffmanCodeLengths.computeInPlace(weights, weights.length);
+
+        Assert.assertArrayEquals(new long[]{6, 6, 5, 4, 3, 2, 1}, weights);
+    }
+
+    @Test
+    public void computeInPlace_Limited_Test() throws Exception {
+        /* Without a limit the lightest weights get a length of 6. With a limit of 4 the lengths are as optimal as they can be within 4 bits. */
+        final long[] weights = {1, 1, 2, 3, 5, 8, 13};
+        HuffmanCodeLengths.computeInPlace(weights, weights.length, 4);
+
+        Assert.assertArrayEquals(new long[]{4, 4, 3, 3, 3, 2, 2}, weights);
+        Assert.assertEquals(80, HuffmanCodeLengths.getEncodedBitCount(new long[]{1, 1, 2, 3, 5, 8, 13}, weights, weights.length));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void computeInPlace_Limit_Too_Small_Test() throws Exception {
+        HuffmanCodeLengths.computeInPlace(new long[]{1, 1, 1, 1, 1}, 5, 2);
+    }
+}
@@ -0,0 +1,115 @@
+package nl.fontys.algorithms;
+
+import nl.fontys.utilities.Constants;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class HuffmanCodecTest {
+
+    private final HuffmanCodec huffmanCodec;
+
+    public HuffmanCodecTest() {
+        final long[] frequencies = new long[Alphabet.BINARY.getSize()];
+
+        for (final byte b : Constants.LOREM_IPSUM.getBytes(StandardCharsets.UTF_8)) {
+            frequencies[b & 0xFF]++;
+        }
+        huffmanCodec = HuffmanCodec.fromFrequencies(frequencies);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_Null_Test() throws Exception {
+        new HuffmanCodec(null);
+    }
+
+    @Test
+    public void encode_Correct_Test() throws Exception {
+        Assert.assertEquals(Constants.LOREM_IPSUM, huffmanCodec.decode(huffmanCodec.encode(Constants.LOREM_IPSUM)));
+    }
+
+    @Test
+    public void encode_Empty_Test() throws Exception {
+        Assert.assertEquals("", huffmanCodec.decode(huffmanCodec.encode("")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void encode_Unknown_Character_Test() throws Exception {
+        huffmanCodec.encode("Lorem ipsum ~");
+    }
+
+    @Test
+    public void encodeBytes_Correct_Test() throws Exception {
+        final byte[] bytes = "Aenean commodo ligula eget dolor.".getBytes(StandardCharsets.UTF_8);
+        final byte[] encoded = huffmanCodec.encodeBytes(bytes);
+
+        Assert.assertTrue(encoded.length < bytes.length);
+        Assert.assertArrayEquals(bytes, huffmanCodec.decodeBytes(encoded));
+    }
+
+    @Test
+    public void decode_Same_Code_Test() throws Exception {
+        final HuffmanCodec otherCodec = new HuffmanCodec(huffmanCodec.getCode());
+        Assert.assertEquals(Constants.LOREM_IPSUM, otherCodec.decode(huffmanCodec.encode(Constants.LOREM_IPSUM)));
+    }
+
+    @Test(expected = IOException.class)
+    public void decode_Truncated_Test() throws Exception {
+        final byte[] encoded = huffmanCodec.encode(Constants.LOREM_IPSUM);
+        huffmanCodec.decode(Arrays.copyOf(encoded, encoded.length - 1));
+    }
+
+    @Test(expected = CorruptedDataException.class)
+    public void decodeBytes_Oversized_Symbol_Count_Test() throws Exception {
+        /* A header that claims far more symbols than its bits can hold should be rejected before the output is allocated. */
+        final ByteBuffer encoded = ByteBuffer.allocate(CodecScratch.HEADER_SIZE);
+        encoded.putInt(Integer.MAX_VALUE);
+        encoded.putLong(0);
+        huffmanCodec.decodeBytes(encoded.array());
+    }
+
+    @Test(expected = CorruptedDataException.class)
+    public void decodeBytes_Text_Code_Test() throws Exception {
+        final long[] frequencies = new long[0x101];
+        frequencies[0x01] = 1;
+        frequencies[0x100] = 1;
+
+        final HuffmanCodec textCodec = HuffmanCodec.fromFrequencies(frequencies);
+        textCodec.decodeBytes(textCodec.encode("\u0001\u0100"));
+    }
+
+    @Test
+    public void encode_Concurrent_Test() throws Exception {
+        final ExecutorService executorService = Executors.newFixedThreadPool(8);
+        final List<Future<Boolean>> futures = new ArrayList<>();
+
+        /* Every task encodes a text of a different length, so the scratch buffers of the threads are resized in between. */
+        for (int task = 0; task < 64; task++) {
+            final String text = Constants.LOREM_IPSUM.substring(0, 1 + task * Constants.LOREM_IPSUM.length() / 64);
+
+            futures.add(executorService.submit(() -> {
+                for (int i = 0; i < 100; i++) {
+                    if (!text.equals(huffmanCodec.decode(huffmanCodec.encode(text)))) return false;
+                }
+                return true;
+            }));
+        }
+
+        try {
+            for (final Future<Boolean> future : futures) {
+                Assert.assertTrue(future.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+}
@@ -3,6 +3,9 @@ package nl.fontys.algorithms;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
 import java.util.HashMap;
 
 public class HuffmanCompressionTest {
@@ -28,8 +31,12 @@ public class HuffmanCompressionTest {
     public void encode_Correct_Test() throws Exception {
         final HashMap<Character, String> hashMap = huffmanCompression.encode(LOREM_IPSUM);
 
-        Assert.assertEquals("11", hashMap.get('t'));
-        Assert.assertEquals("0000", hashMap.get('!'));
+        /* The bitcodes are canonical. 's' has the shortest bitcode, after which ' ', 'h', 'i' and 't' follow with a length of 3 and '!', 'T', 'a' and 'e' with a length of 4. */
+        Assert.assertEquals("00", hashMap.get('s'));
+        Assert.assertEquals("010", hashMap.get(' '));
+        Assert.assertEquals("101", hashMap.get('t'));
+        Assert.assertEquals("1100", hashMap.get('!'));
+        Assert.assertEquals("1111", hashMap.get('e'));
     }
 
     @Test
@@ -37,4 +44,153 @@ public class HuffmanCompressionTest {
         huffmanCompression.encode(LOREM_IPSUM);
         Assert.assertEquals(LOREM_IPSUM, huffmanCompression.decode());
     }
+
+    @Test
+    public void decode_Skewed_Text_Test() throws Exception {
+        /* Fibonacci frequencies result in the deepest possible tree, which makes sure that the long bitcodes are decoded correctly as well. */
+        final String text = getFibonacciText();
+
+        huffmanCompression.encode(text);
+        Assert.assertEquals(text, huffmanCompression.decode());
+    }
+
+    @Test
+    public void decode_Limited_Code_Length_Test() throws Exception {
+        final HuffmanCompression limitedHuffmanCompression = new HuffmanCompression(8);
+        final String text = getFibonacciText();
+
+        for (final String bitcode : limitedHuffmanCompression.encode(text).values()) {
+            Assert.assertTrue(bitcode.length() <= 8);
+        }
+        Assert.assertEquals(text, limitedHuffmanCompression.decode());
+    }
+
+    @Test
+    public void encode_Length_Limit_Cost_Test() throws Exception {
+        final HuffmanCompression limitedHuffmanCompression = new HuffmanCompression(8);
+        final String text = getFibonacciText();
+
+        /* The Fibonacci frequencies need codes of up to 17 bits, so limiting them to 8 bits costs some encoded bits. */
+        limitedHuffmanCompression.encode(text, new ByteArrayOutputStream());
+        final CompressionReport textReport = limitedHuffmanCompression.getLastReport();
+        Assert.assertTrue(textReport.getUnlimitedBitCount() < textReport.getEncodedBitCount());
+        Assert.assertEquals(textReport.getEncodedBitCount() - textReport.getUnlimitedBitCount(), textReport.getLengthLimitCost());
+
+        /* The same distribution over bytes should report the same cost. */
+        limitedHuffmanCompression.encodeBytes(text.getBytes("UTF-8"), new ByteArrayOutputStream());
+        final CompressionReport bytesReport = limitedHuffmanCompression.getLastReport();
+        Assert.assertEquals(textReport.getUnlimitedBitCount(), bytesReport.getUnlimitedBitCount());
+        Assert.assertEquals(textReport.getEncodedBitCount(), bytesReport.getEncodedBitCount());
+
+        /* Without a limit there is no cost. */
+        huffmanCompression.encodeBytes(text.getBytes("UTF-8"), new ByteArrayOutputStream());
+        Assert.assertEquals(0, huffmanCompression.getLastReport().getLengthLimitCost());
+        Assert.assertEquals(textReport.getUnlimitedBitCount(), huffmanCompression.getLastReport().getEncodedBitCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_Invalid_Code_Length_Test() throws Exception {
+        new HuffmanCompression(0);
+    }
+
+    @Test
+    public void decode_Single_Character_Test() throws Exception {
+        huffmanCompression.encode("aaaa");
+        Assert.assertEquals("aaaa", huffmanCompression.decode());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void encodeBytes_Null_Test() throws Exception {
+        huffmanCompression.encodeBytes(null);
+    }
+
+    @Test
+    public void decodeBytes_Correct_Test() throws Exception {
+        final byte[] bytes = new byte[1024];
+
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i * i);
+        }
+        huffmanCompression.encodeBytes(bytes);
+        Assert.assertArrayEquals(bytes, huffmanCompression.decodeBytes());
+    }
+
+    @Test(expected = UnsupportedFormatException.class)
+    public void decode_Binary_File_Test() throws Exception {
+        huffmanCompression.encodeBytes(new byte[]{1, 2, 3});
+        huffmanCompression.decode();
+    }
+
+    @Test(expected = UnsupportedFormatException.class)
+    public void decodeBytes_Invalid_Magic_Test() throws Exception {
+        huffmanCompression.decodeBytes(new ByteArrayInputStream(new byte[]{'Z', 'I', 'P', '!', 1}));
+    }
+
+    @Test(expected = UnsupportedFormatException.class)
+    public void decodeBytes_Unsupported_Version_Test() throws Exception {
+        final byte[] encoded = encodeBytes(new byte[]{1, 2, 3});
+        encoded[4] = (byte) (HuffmanCompression.FORMAT_VERSION + 1);
+        huffmanCompression.decodeBytes(new ByteArrayInputStream(encoded));
+    }
+
+    @Test
+    public void decodeBytes_Damaged_Block_Test() throws Exception {
+        /* Three blocks of encoded bits, of which only the last one is damaged. */
+        final byte[] bytes = new byte[HuffmanCompression.CHECKSUM_BLOCK_SIZE * 3];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i * 31 + i / 7);
+        }
+        final byte[] encoded = encodeBytes(bytes);
+        encoded[encoded.length - 10] ^= 0x10;
+
+        try {
+            huffmanCompression.decodeBytes(new ByteArrayInputStream(encoded));
+            Assert.fail("The damaged block should have been detected.");
+        } catch (ChecksumMismatchException e) {
+            Assert.assertEquals(2, e.getBlock());
+        }
+    }
+
+    @Test
+    public void decodeBytes_Damaged_Header_Test() throws Exception {
+        final byte[] encoded = encodeBytes(new byte[]{1, 2, 3, 3});
+
+        /* The last byte of the header is part of the amount of encoded bits, which is covered by the checksum of the header. */
+        encoded[encoded.length - 10] ^= 0x01;
+
+        try {
+            huffmanCompression.decodeBytes(new ByteArrayInputStream(encoded));
+            Assert.fail("The damaged header should have been detected.");
+        } catch (ChecksumMismatchException e) {
+            Assert.assertEquals(-1, e.getBlock());
+        }
+    }
+
+    @Test(expected = CorruptedDataException.class)
+    public void decodeBytes_Truncated_Test() throws Exception {
+        final byte[] encoded = encodeBytes("This is a test!".getBytes("UTF-8"));
+        huffmanCompression.decodeBytes(new ByteArrayInputStream(Arrays.copyOf(encoded, encoded.length - 5)));
+    }
+
+    private byte[] encodeBytes(final byte[] bytes) throws Exception {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        huffmanCompression.encodeBytes(bytes, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static String getFibonacciText() {
+        final StringBuilder text = new StringBuilder();
+        int previous = 1;
+        int current = 1;
+
+        for (char character = 'a'; character <= 'r'; character++) {
+            for (int i = 0; i < current; i++) {
+                text.append(character);
+            }
+            final int next = previous + current;
+            previous = current;
+            current = next;
+        }
+        return text.toString();
+    }
 }
@@ -0,0 +1,101 @@
+package nl.fontys.algorithms;
+
+import nl.fontys.utilities.BitWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+
+public class HuffmanDecodingTableTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_Null_Test() throws Exception {
+        new HuffmanDecodingTable(null, new long[0], new int[0], 0);
+    }
+
+    @Test
+    public void decode_Short_Codes_Test() throws Exception {
+        /* a = 0, b = 10, c = 11. The first bit of every code is stored in the least significant bit. */
+        final HuffmanDecodingTable table = new HuffmanDecodingTable(new int[]{'a', 'b', 'c'}, new long[]{0b0, 0b01, 0b11}, new int[]{1, 2, 2}, 3);
+        final StringBuilder output = new StringBuilder();
+
+        /* The bits 0 10 11 0 are read from the least significant bit onwards, so bit 1, 3 and 4 are set. */
+        table.decode(new long[]{0b11010L}, 6, output);
+        Assert.assertEquals("abca", output.toString());
+    }
+
+    @Test
+    public void decode_Long_Codes_Test() throws Exception {
+        /* Every symbol i has the code of i 1's followed by a single 0, except for the last one which only has 1's.
+           This results in codes of up to 24 bits which need more than a single secondary table. */
+        final int count = 25;
+        final int[] symbols = new int[count];
+        final long[] codes = new long[count];
+        final int[] lengths = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            symbols[i] = 'A' + i;
+            lengths[i] = i == count - 1 ? count - 1 : i + 1;
+            codes[i] = (1L << Math.min(i, count - 1)) - 1;
+        }
+
+        final HuffmanDecodingTable table = new HuffmanDecodingTable(symbols, codes, lengths, count);
+        final long[] words = new long[2];
+        long position = 0;
+
+        for (final int symbol : new int[]{24, 0, 23, 1, 12}) {
+            for (int bit = 0; bit < lengths[symbol]; bit++, position++) {
+                if ((codes[symbol] >>> bit & 1L) != 0) {
+                    words[(int) (position >>> 6)] |= 1L << (position & 63);
+                }
+            }
+        }
+
+        final StringBuilder output = new StringBuilder();
+        table.decode(words, position, output);
+        Assert.assertEquals("YAXBM", output.toString());
+    }
+
+    @Test
+    public void decode_Bytes_Mixed_Codes_Test() throws Exception {
+        /* Frequencies that grow like the Fibonacci sequence result in codes of 1 up to 39 bits, so short codes are decoded in pairs and long codes in between them. */
+        final long[] frequencies = new long[40];
+        frequencies[0] = 1;
+        frequencies[1] = 1;
+        for (int i = 2; i < frequencies.length; i++) {
+            frequencies[i] = frequencies[i - 1] + frequencies[i - 2];
+        }
+
+        final CanonicalHuffmanCode code = CanonicalHuffmanCode.fromFrequencies(frequencies);
+        final Random random = new Random(3);
+        final byte[] symbols = new byte[10_000];
+        final BitWriter bitWriter = new BitWriter(0);
+
+        for (int i = 0; i < symbols.length; i++) {
+            final int symbol = random.nextInt(4) == 0 ? random.nextInt(frequencies.length) : frequencies.length - 1 - random.nextInt(3);
+            symbols[i] = (byte) symbol;
+            bitWriter.write(code.getCode(symbol), code.getLength(symbol));
+        }
+
+        final byte[] bytes = bitWriter.toByteArray();
+        final long[] words = new long[(bytes.length + 7) / 8];
+        ByteBuffer.wrap(Arrays.copyOf(bytes, words.length * 8)).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(words);
+
+        final byte[] output = new byte[symbols.length];
+        Assert.assertEquals(symbols.length, code.getDecodingTable().decode(words, bitWriter.getBitCount(), output, 0, output.length));
+        Assert.assertArrayEquals(symbols, output);
+
+        /* An odd length stops decoding halfway through a pair. */
+        final byte[] partialOutput = new byte[symbols.length];
+        Assert.assertEquals(999, code.getDecodingTable().decode(words, bitWriter.getBitCount(), partialOutput, 0, 999));
+        Assert.assertArrayEquals(Arrays.copyOf(symbols, 999), Arrays.copyOf(partialOutput, 999));
+
+        final ByteBuffer bufferOutput = ByteBuffer.allocate(symbols.length);
+        final long position = code.getDecodingTable().decode(ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN), 0, bitWriter.getBitCount(), bufferOutput);
+        Assert.assertEquals(bitWriter.getBitCount(), position);
+        Assert.assertArrayEquals(symbols, bufferOutput.array());
+    }
+}
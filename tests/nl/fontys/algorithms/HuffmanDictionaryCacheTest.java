@@ -0,0 +1,131 @@
+package nl.fontys.algorithms;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class HuffmanDictionaryCacheTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_Zero_Capacity_Test() throws Exception {
+        new HuffmanDictionaryCache(0, HuffmanDictionaryCacheTest::train);
+    }
+
+    @Test
+    public void get_Least_Recently_Used_Test() throws Exception {
+        final List<Integer> loadedIds = new ArrayList<>();
+        final HuffmanDictionaryCache cache = new HuffmanDictionaryCache(2, id -> {
+            loadedIds.add(id);
+            return train(id);
+        });
+
+        cache.get(1);
+        cache.get(2);
+        cache.get(1);
+        cache.get(3);
+        cache.get(1);
+        cache.get(2);
+
+        /* Dictionary 2 was the least recently used one when dictionary 3 was loaded, so it has to be loaded again. */
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(Arrays.asList(1, 2, 3, 2), loadedIds);
+    }
+
+    @Test
+    public void get_Load_Outside_Lock_Test() throws Exception {
+        final CountDownLatch firstLoading = new CountDownLatch(1);
+        final CountDownLatch otherLoaded = new CountDownLatch(1);
+        final HuffmanDictionaryCache cache = new HuffmanDictionaryCache(4, id -> {
+            /* Dictionary 1 only finishes loading once dictionary 2 has been loaded by another thread, which deadlocks when loading holds the lock. */
+            if (id == 1) {
+                firstLoading.countDown();
+                await(otherLoaded);
+            }
+            return train(id);
+        });
+
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            final Future<HuffmanDictionary> first = executorService.submit(() -> cache.get(1));
+            await(firstLoading);
+            cache.get(2);
+            otherLoaded.countDown();
+
+            Assert.assertEquals(1, first.get().getId());
+            Assert.assertEquals(2, cache.size());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void decode_Correct_Test() throws Exception {
+        final HuffmanDictionaryCache cache = new HuffmanDictionaryCache(4, HuffmanDictionaryCacheTest::train);
+        final byte[] message = "Cum sociis natoque penatibus".getBytes(StandardCharsets.UTF_8);
+
+        Assert.assertArrayEquals(message, cache.decode(train(5).encode(message)));
+        Assert.assertArrayEquals(message, cache.decode(train(6).encode(message)));
+    }
+
+    @Test(expected = IOException.class)
+    public void get_Wrong_Id_Test() throws Exception {
+        new HuffmanDictionaryCache(4, id -> train(id + 1)).get(1);
+    }
+
+    @Test
+    public void fromDirectory_Correct_Test() throws Exception {
+        final Path directory = Files.createTempDirectory("huffman");
+        final Path file = directory.resolve(9 + HuffmanDictionaryCache.FILE_EXTENSION);
+
+        try {
+            try (final OutputStream outputStream = Files.newOutputStream(file)) {
+                train(9).writeTo(outputStream);
+            }
+            final byte[] message = "Nulla consequat massa quis enim.".getBytes(StandardCharsets.UTF_8);
+            final HuffmanDictionaryCache cache = HuffmanDictionaryCache.fromDirectory(directory, 4);
+
+            Assert.assertArrayEquals(message, cache.decode(train(9).encode(message)));
+        } finally {
+            Files.delete(file);
+            Files.delete(directory);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void fromDirectory_Missing_Test() throws Exception {
+        final Path directory = Files.createTempDirectory("huffman");
+
+        try {
+            HuffmanDictionaryCache.fromDirectory(directory, 4).get(9);
+        } finally {
+            Files.delete(directory);
+        }
+    }
+
+    private static HuffmanDictionary train(final int id) {
+        return HuffmanDictionary.train(id, Collections.singletonList(("Lorem ipsum dolor sit amet " + id).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void await(final CountDownLatch latch) throws IOException {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) throw new IOException("The other dictionary has not been loaded in time.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+}
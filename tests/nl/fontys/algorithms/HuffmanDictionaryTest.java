@@ -0,0 +1,117 @@
+package nl.fontys.algorithms;
+
+import nl.fontys.utilities.Constants;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class HuffmanDictionaryTest {
+
+    private final HuffmanDictionary huffmanDictionary;
+
+    public HuffmanDictionaryTest() {
+        huffmanDictionary = HuffmanDictionary.train(7, Collections.singletonList(Constants.LOREM_IPSUM.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void train_Null_Test() throws Exception {
+        HuffmanDictionary.train(1, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_Missing_Byte_Test() throws Exception {
+        new HuffmanDictionary(1, CanonicalHuffmanCode.fromFrequencies(new long[]{1, 2, 3}));
+    }
+
+    @Test
+    public void encode_Correct_Test() throws Exception {
+        final byte[] message = "Donec quam felis, ultricies nec, pellentesque eu, pretium quis, sem.".getBytes(StandardCharsets.UTF_8);
+        final byte[] encoded = huffmanDictionary.encode(message);
+
+        Assert.assertEquals(7, HuffmanDictionary.readId(encoded));
+        Assert.assertTrue(encoded.length < message.length);
+        Assert.assertArrayEquals(message, huffmanDictionary.decode(encoded));
+    }
+
+    @Test
+    public void encode_Header_Size_Test() throws Exception {
+        /* A message of less than 16 bytes fits its amount of bytes and padding bits within a single byte after the ID. */
+        final byte[] message = "Aenean massa.".getBytes(StandardCharsets.UTF_8);
+        long bitCount = 0;
+        for (final byte b : message) {
+            bitCount += huffmanDictionary.getCode().getLength(b & 0xFF);
+        }
+
+        Assert.assertEquals(HuffmanDictionary.ID_SIZE + 1 + (bitCount + 7) / 8, huffmanDictionary.encode(message).length);
+    }
+
+    @Test
+    public void encode_Empty_Test() throws Exception {
+        final byte[] encoded = huffmanDictionary.encode(new byte[0]);
+
+        Assert.assertEquals(HuffmanDictionary.ID_SIZE + 1, encoded.length);
+        Assert.assertArrayEquals(new byte[0], huffmanDictionary.decode(encoded));
+    }
+
+    @Test(expected = CorruptedDataException.class)
+    public void decode_Invalid_Padding_Test() throws Exception {
+        /* Padding bits without a single encoded byte would make the amount of encoded bits negative. */
+        final byte[] encoded = huffmanDictionary.encode(new byte[0]);
+        encoded[HuffmanDictionary.ID_SIZE] = 0x07;
+        huffmanDictionary.decode(encoded);
+    }
+
+    @Test
+    public void encode_Unseen_Bytes_Test() throws Exception {
+        final byte[] message = {0, -1, 'Q', 'Z', '~', 127};
+        Assert.assertArrayEquals(message, huffmanDictionary.decode(huffmanDictionary.encode(message)));
+    }
+
+    @Test(expected = UnsupportedFormatException.class)
+    public void decode_Other_Dictionary_Test() throws Exception {
+        final HuffmanDictionary otherDictionary = HuffmanDictionary.train(8, Collections.singletonList(new byte[]{1, 2, 3}));
+        huffmanDictionary.decode(otherDictionary.encode(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    public void writeTo_ReadFrom_Test() throws Exception {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        huffmanDictionary.writeTo(outputStream);
+
+        final HuffmanDictionary readDictionary = HuffmanDictionary.readFrom(new ByteArrayInputStream(outputStream.toByteArray()));
+        final byte[] message = "Aenean massa.".getBytes(StandardCharsets.UTF_8);
+
+        Assert.assertEquals(7, readDictionary.getId());
+        Assert.assertArrayEquals(message, readDictionary.decode(huffmanDictionary.encode(message)));
+    }
+
+    @Test(expected = UnsupportedFormatException.class)
+    public void readFrom_Unsupported_Version_Test() throws Exception {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        huffmanDictionary.writeTo(outputStream);
+
+        final byte[] bytes = outputStream.toByteArray();
+        bytes[0] = (byte) (HuffmanDictionary.FORMAT_VERSION + 1);
+        HuffmanDictionary.readFrom(new ByteArrayInputStream(bytes));
+    }
+
+    @Test(expected = CorruptedDataException.class)
+    public void readFrom_Truncated_Test() throws Exception {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        huffmanDictionary.writeTo(outputStream);
+
+        final byte[] bytes = outputStream.toByteArray();
+        HuffmanDictionary.readFrom(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+    @Test(expected = CorruptedDataException.class)
+    public void decode_Truncated_Test() throws Exception {
+        final byte[] encoded = huffmanDictionary.encode(Constants.LOREM_IPSUM.getBytes(StandardCharsets.UTF_8));
+        huffmanDictionary.decode(Arrays.copyOf(encoded, encoded.length - 1));
+    }
+}
@@ -0,0 +1,219 @@
+package nl.fontys.algorithms;
+
+import nl.fontys.utilities.Constants;
+import nl.fontys.utilities.TestData;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+public class HuffmanStreamsTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void compress_Null_Test() throws Exception {
+        HuffmanStreams.compress(null, null);
+    }
+
+    @Test
+    public void stream_Multiple_Frames_Test() throws Exception {
+        /* Several hundred kilobytes make sure that the encoded bytes are spread over more than a single frame. */
+        final byte[] bytes = TestData.getLoremIpsumBytes(500);
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+
+        try (final OutputStream outputStream = new HuffmanOutputStream(encoded, HuffmanStreams.buildCode(HuffmanStreams.countFrequencies(new ByteArrayInputStream(bytes)), false))) {
+            outputStream.write(bytes, 0, 1000);
+            outputStream.write(bytes[1000]);
+            outputStream.write(bytes, 1001, bytes.length - 1001);
+        }
+
+        Assert.assertTrue(encoded.size() < bytes.length);
+        Assert.assertArrayEquals(bytes, TestData.readFully(new HuffmanInputStream(new ByteArrayInputStream(encoded.toByteArray()))));
+    }
+
+    @Test
+    public void stream_Sampled_Frequencies_Test() throws Exception {
+        /* The sample only contains the Lorem Ipsum text, the random bytes after it can only be encoded because the code has been smoothed. */
+        final byte[] bytes = new byte[Constants.LOREM_IPSUM.length() + 1024];
+        System.arraycopy(Constants.LOREM_IPSUM.getBytes(StandardCharsets.UTF_8), 0, bytes, 0, Constants.LOREM_IPSUM.length());
+        final byte[] randomBytes = new byte[1024];
+        new Random(41).nextBytes(randomBytes);
+        System.arraycopy(randomBytes, 0, bytes, Constants.LOREM_IPSUM.length(), randomBytes.length);
+
+        final CanonicalHuffmanCode code = HuffmanStreams.buildCode(HuffmanStreams.sampleFrequencies(new ByteArrayInputStream(bytes), Constants.LOREM_IPSUM.length()), true);
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+
+        try (final OutputStream outputStream = new HuffmanOutputStream(encoded, code)) {
+            outputStream.write(bytes);
+        }
+        Assert.assertArrayEquals(bytes, TestData.readFully(new HuffmanInputStream(new ByteArrayInputStream(encoded.toByteArray()))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stream_Unknown_Byte_Test() throws Exception {
+        final CanonicalHuffmanCode code = HuffmanStreams.buildCode(HuffmanStreams.countFrequencies(new ByteArrayInputStream(new byte[]{1, 2, 3})), false);
+
+        try (final OutputStream outputStream = new HuffmanOutputStream(new ByteArrayOutputStream(), code)) {
+            outputStream.write(4);
+        }
+    }
+
+    @Test
+    public void compress_Decompress_Stream_Test() throws Exception {
+        final byte[] bytes = TestData.getLoremIpsumBytes(50);
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        final ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+
+        final SamplingReport report = HuffmanStreams.compress(new ByteArrayInputStream(bytes), encoded, 1024);
+        HuffmanStreams.decompress(new ByteArrayInputStream(encoded.toByteArray()), decoded);
+
+        Assert.assertEquals(1024, report.getSampledBytes());
+        Assert.assertEquals(bytes.length, report.getTotalBytes());
+        Assert.assertArrayEquals(bytes, decoded.toByteArray());
+    }
+
+    @Test(expected = ChecksumMismatchException.class)
+    public void stream_Damaged_Frame_Test() throws Exception {
+        final byte[] bytes = TestData.getLoremIpsumBytes(10);
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        HuffmanStreams.compress(new ByteArrayInputStream(bytes), encoded, bytes.length);
+
+        /* The end of the stream is followed by the checksum of the last frame and the end marker, so this byte lies within the encoded bits. */
+        final byte[] damaged = encoded.toByteArray();
+        damaged[damaged.length - 20] ^= 1;
+        TestData.readFully(new HuffmanInputStream(new ByteArrayInputStream(damaged)));
+    }
+
+    @Test(expected = CorruptedDataException.class)
+    public void stream_Truncated_Test() throws Exception {
+        final byte[] bytes = TestData.getLoremIpsumBytes(10);
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        HuffmanStreams.compress(new ByteArrayInputStream(bytes), encoded, bytes.length);
+
+        TestData.readFully(new HuffmanInputStream(new ByteArrayInputStream(Arrays.copyOf(encoded.toByteArray(), encoded.size() - 4))));
+    }
+
+    @Test(expected = CorruptedDataException.class)
+    public void stream_Empty_Frame_Test() throws Exception {
+        /* Every code of 4 equally frequent bytes is 2 bits long, so a frame of a single bit has a valid checksum but does not contain a code. */
+        final CanonicalHuffmanCode code = HuffmanStreams.buildCode(HuffmanStreams.countFrequencies(new ByteArrayInputStream(new byte[]{1, 2, 3, 4})), false);
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        new HuffmanOutputStream(encoded, code);
+
+        final CRC32 checksum = new CRC32();
+        checksum.update(0);
+        final DataOutputStream dataOutputStream = new DataOutputStream(encoded);
+        dataOutputStream.writeInt(1);
+        dataOutputStream.writeByte(0);
+        dataOutputStream.writeInt((int) checksum.getValue());
+        dataOutputStream.writeInt(0);
+
+        final InputStream inputStream = new HuffmanInputStream(new ByteArrayInputStream(encoded.toByteArray()));
+        inputStream.read();
+    }
+
+    @Test(expected = UnsupportedFormatException.class)
+    public void stream_Invalid_Magic_Test() throws Exception {
+        new HuffmanInputStream(new ByteArrayInputStream(new byte[]{'Z', 'I', 'P', '!', 1}));
+    }
+
+    @Test
+    public void channel_Correct_Test() throws Exception {
+        final byte[] bytes = TestData.getLoremIpsumBytes(10);
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+
+        try (final WritableByteChannel channel = HuffmanStreams.newEncodingChannel(Channels.newChannel(encoded), HuffmanStreams.buildCode(HuffmanStreams.countFrequencies(new ByteArrayInputStream(bytes)), false))) {
+            channel.write(ByteBuffer.wrap(bytes));
+        }
+
+        final ByteBuffer decoded = ByteBuffer.allocate(bytes.length + 1);
+        try (final ReadableByteChannel channel = HuffmanStreams.newDecodingChannel(Channels.newChannel(new ByteArrayInputStream(encoded.toByteArray())))) {
+            while (channel.read(decoded) != -1) { }
+        }
+        Assert.assertEquals(ByteBuffer.wrap(bytes), decoded.flip());
+    }
+
+    @Test
+    public void compress_Decompress_File_Test() throws Exception {
+        final Path source = Files.createTempFile("huffman", ".txt");
+        final Path compressed = Files.createTempFile("huffman", ".bin");
+        final Path decompressed = Files.createTempFile("huffman", ".txt");
+
+        try {
+            Files.write(source, TestData.getLoremIpsumBytes(200));
+            HuffmanStreams.compress(source, compressed);
+            HuffmanStreams.decompress(compressed, decompressed);
+
+            Assert.assertTrue(Files.size(compressed) < Files.size(source));
+            Assert.assertArrayEquals(Files.readAllBytes(source), Files.readAllBytes(decompressed));
+        } finally {
+            Files.delete(source);
+            Files.delete(compressed);
+            Files.delete(decompressed);
+        }
+    }
+
+    @Test
+    public void sampleFrequencies_Spread_Over_File_Test() throws Exception {
+        /* The first half of the file only holds 'a' and the second half only 'b', a sample of the first bytes would never see a 'b'. */
+        final byte[] bytes = new byte[HuffmanStreams.SAMPLE_CHUNK_SIZE * 64];
+        Arrays.fill(bytes, 0, bytes.length / 2, (byte) 'a');
+        Arrays.fill(bytes, bytes.length / 2, bytes.length, (byte) 'b');
+        final Path file = Files.createTempFile("huffman", ".txt");
+
+        try {
+            Files.write(file, bytes);
+            final long[] frequencies = HuffmanStreams.sampleFrequencies(file, HuffmanStreams.SAMPLE_CHUNK_SIZE * 8);
+
+            Assert.assertEquals(HuffmanStreams.SAMPLE_CHUNK_SIZE * 4, frequencies['a']);
+            Assert.assertEquals(HuffmanStreams.SAMPLE_CHUNK_SIZE * 4, frequencies['b']);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void compress_Sampled_File_Test() throws Exception {
+        /* The random bytes at the end are barely sampled, so they're mostly encoded with the codes that smoothing gave them. */
+        final byte[] text = TestData.getLoremIpsumBytes(2000);
+        final byte[] bytes = Arrays.copyOf(text, text.length + 4096);
+        final byte[] randomBytes = new byte[4096];
+        new Random(17).nextBytes(randomBytes);
+        System.arraycopy(randomBytes, 0, bytes, text.length, randomBytes.length);
+
+        final Path source = Files.createTempFile("huffman", ".txt");
+        final Path compressed = Files.createTempFile("huffman", ".bin");
+        final Path decompressed = Files.createTempFile("huffman", ".txt");
+
+        try {
+            Files.write(source, bytes);
+            final SamplingReport report = HuffmanStreams.compress(source, compressed, bytes.length / 20);
+            HuffmanStreams.decompress(compressed, decompressed);
+
+            Assert.assertArrayEquals(bytes, Files.readAllBytes(decompressed));
+            Assert.assertEquals(bytes.length, report.getTotalBytes());
+            Assert.assertTrue(report.getSampledBytes() <= bytes.length / 20 + HuffmanStreams.SAMPLE_CHUNK_SIZE);
+
+            /* The exact code is optimal, so the sampled code can only be as good or worse. The text dominates the file, so only a little is lost. */
+            Assert.assertTrue(report.getEncodedBitCount() >= report.getExactBitCount());
+            Assert.assertTrue(report.getRatioLoss() >= 0 && report.getRatioLoss() < 0.05);
+        } finally {
+            Files.delete(source);
+            Files.delete(compressed);
+            Files.delete(decompressed);
+        }
+    }
+}
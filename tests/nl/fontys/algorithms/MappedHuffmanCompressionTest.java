@@ -0,0 +1,182 @@
+package nl.fontys.algorithms;
+
+import nl.fontys.utilities.Constants;
+import nl.fontys.utilities.TestData;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+public class MappedHuffmanCompressionTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_Small_Region_Test() throws Exception {
+        new MappedHuffmanCompression(8, 1024);
+    }
+
+    @Test
+    public void compress_Default_Test() throws Exception {
+        assertRoundTrip(new MappedHuffmanCompression(), TestData.getLoremIpsumBytes(100));
+    }
+
+    @Test
+    public void compress_Small_Regions_Test() throws Exception {
+        /* Tiny regions and buffers make sure that codes cross the end of a region and that the buffer is written many times. */
+        final byte[] bytes = new byte[10_000];
+        final Random random = new Random(41);
+
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (random.nextInt(random.nextInt(256) + 1));
+        }
+        assertRoundTrip(new MappedHuffmanCompression(37, 16), bytes);
+    }
+
+    @Test
+    public void compress_Empty_Test() throws Exception {
+        assertRoundTrip(new MappedHuffmanCompression(), new byte[0]);
+    }
+
+    @Test
+    public void decodeRange_Correct_Test() throws Exception {
+        final byte[] bytes = new byte[10_000];
+        final Random random = new Random(43);
+
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (random.nextInt(random.nextInt(256) + 1));
+        }
+
+        /* A small index interval makes the ranges start and end within different blocks, and tiny regions make the blocks cross regions. */
+        final MappedHuffmanCompression mappedHuffmanCompression = new MappedHuffmanCompression(37, 16, 100);
+        final Path source = Files.createTempFile("huffman", ".bin");
+        final Path compressed = Files.createTempFile("huffman", ".bin");
+
+        try {
+            Files.write(source, bytes);
+            mappedHuffmanCompression.compress(source, compressed);
+
+            for (final int[] range : new int[][]{{0, 1}, {0, 100}, {99, 2}, {250, 1234}, {9_900, 100}, {9_999, 1}, {0, 10_000}, {5_000, 0}}) {
+                Assert.assertArrayEquals(Arrays.copyOfRange(bytes, range[0], range[0] + range[1]), mappedHuffmanCompression.decodeRange(compressed, range[0], range[1]));
+            }
+        } finally {
+            Files.delete(source);
+            Files.delete(compressed);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeRange_Exceeds_File_Test() throws Exception {
+        final Path source = Files.createTempFile("huffman", ".bin");
+        final Path compressed = Files.createTempFile("huffman", ".bin");
+
+        try {
+            Files.write(source, Constants.LOREM_IPSUM.getBytes(StandardCharsets.UTF_8));
+            new MappedHuffmanCompression().compress(source, compressed);
+            new MappedHuffmanCompression().decodeRange(compressed, 10, Constants.LOREM_IPSUM.length());
+        } finally {
+            Files.delete(source);
+            Files.delete(compressed);
+        }
+    }
+
+    @Test(expected = UnsupportedFormatException.class)
+    public void decompress_Wrong_Magic_Test() throws Exception {
+        final Path source = Files.createTempFile("huffman", ".bin");
+        final Path decompressed = Files.createTempFile("huffman", ".bin");
+
+        try {
+            Files.write(source, Constants.LOREM_IPSUM.getBytes(StandardCharsets.UTF_8));
+            new MappedHuffmanCompression().decompress(source, decompressed);
+        } finally {
+            Files.delete(source);
+            Files.delete(decompressed);
+        }
+    }
+
+    @Test
+    public void decompress_Damaged_Block_Test() throws Exception {
+        final byte[] bytes = TestData.getLoremIpsumBytes(3);
+        final MappedHuffmanCompression mappedHuffmanCompression = new MappedHuffmanCompression(37, 16, 100);
+        final Path source = Files.createTempFile("huffman", ".bin");
+        final Path compressed = Files.createTempFile("huffman", ".bin");
+
+        try {
+            Files.write(source, bytes);
+            mappedHuffmanCompression.compress(source, compressed);
+
+            /* The index takes 12 bytes per block, so this byte lies within the encoded bits of the last block. */
+            final byte[] encoded = Files.readAllBytes(compressed);
+            final int blockCount = (bytes.length + 99) / 100;
+            encoded[encoded.length - blockCount * 12 - 1] ^= 0x01;
+            Files.write(compressed, encoded);
+
+            try {
+                mappedHuffmanCompression.decodeRange(compressed, bytes.length - 1, 1);
+                Assert.fail("The damaged block should have been detected.");
+            } catch (ChecksumMismatchException e) {
+                Assert.assertEquals(blockCount - 1, e.getBlock());
+            }
+
+            /* The blocks before the damaged one can still be decoded. */
+            Assert.assertArrayEquals(Arrays.copyOf(bytes, 100), mappedHuffmanCompression.decodeRange(compressed, 0, 100));
+        } finally {
+            Files.delete(source);
+            Files.delete(compressed);
+        }
+    }
+
+    @Test
+    public void decompress_Flipped_Bits_Test() throws Exception {
+        /* Every single flipped bit, wherever it lies within the file, should be detected instead of being decoded into different bytes. */
+        final byte[] bytes = "The quick brown fox jumps over the lazy dog.".getBytes(StandardCharsets.UTF_8);
+        final MappedHuffmanCompression mappedHuffmanCompression = new MappedHuffmanCompression(37, 16, 10);
+        final Path source = Files.createTempFile("huffman", ".bin");
+        final Path compressed = Files.createTempFile("huffman", ".bin");
+        final Path decompressed = Files.createTempFile("huffman", ".bin");
+
+        try {
+            Files.write(source, bytes);
+            mappedHuffmanCompression.compress(source, compressed);
+            final byte[] encoded = Files.readAllBytes(compressed);
+
+            for (int bit = 0; bit < encoded.length * 8; bit++) {
+                final byte[] damaged = encoded.clone();
+                damaged[bit / 8] ^= 1 << (bit % 8);
+                Files.write(compressed, damaged);
+
+                try {
+                    mappedHuffmanCompression.decompress(compressed, decompressed);
+                    Assert.fail("The flipped bit " + bit + " should have been detected.");
+                } catch (CorruptedDataException | UnsupportedFormatException e) {
+                    /* The magic number and the version are reported as an unsupported format, everything else as damaged data. */
+                    Assert.assertEquals(bit < 40, e instanceof UnsupportedFormatException);
+                }
+            }
+        } finally {
+            Files.delete(source);
+            Files.delete(compressed);
+            Files.delete(decompressed);
+        }
+    }
+
+    private static void assertRoundTrip(final MappedHuffmanCompression mappedHuffmanCompression, final byte[] bytes) throws Exception {
+        final Path source = Files.createTempFile("huffman", ".bin");
+        final Path compressed = Files.createTempFile("huffman", ".bin");
+        final Path decompressed = Files.createTempFile("huffman", ".bin");
+
+        try {
+            Files.write(source, bytes);
+            mappedHuffmanCompression.compress(source, compressed);
+            mappedHuffmanCompression.decompress(compressed, decompressed);
+
+            Assert.assertArrayEquals(bytes, Files.readAllBytes(decompressed));
+        } finally {
+            Files.delete(source);
+            Files.delete(compressed);
+            Files.delete(decompressed);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package nl.fontys.algorithms;
+
+import nl.fontys.utilities.Constants;
+import nl.fontys.utilities.TestData;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+
+public class ParallelHuffmanCompressionTest {
+
+    private final ParallelHuffmanCompression parallelHuffmanCompression;
+
+    public ParallelHuffmanCompressionTest() {
+        /* A small block size makes sure that the text is split into many blocks. */
+        parallelHuffmanCompression = new ParallelHuffmanCompression(1000, new ForkJoinPool(4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_Zero_Block_Size_Test() throws Exception {
+        new ParallelHuffmanCompression(0, ForkJoinPool.commonPool());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_Oversized_Block_Size_Test() throws Exception {
+        new ParallelHuffmanCompression(ParallelHuffmanCompression.MAX_BLOCK_SIZE + 1, ForkJoinPool.commonPool());
+    }
+
+    @Test
+    public void decompress_Oversized_Block_Size_Test() throws Exception {
+        final byte[] compressed = new ParallelHuffmanCompression(ParallelHuffmanCompression.MAX_BLOCK_SIZE, ForkJoinPool.commonPool())
+                .compress(Constants.LOREM_IPSUM.getBytes(StandardCharsets.UTF_8));
+
+        /* The block size directly follows the code. The checksum of the header is recomputed, so that only the block size itself is rejected. */
+        final ByteArrayInputStream codeInputStream = new ByteArrayInputStream(compressed);
+        CanonicalHuffmanCode.readFrom(new DataInputStream(codeInputStream));
+        final int codeLength = compressed.length - codeInputStream.available();
+        ByteBuffer.wrap(compressed).putInt(codeLength, ParallelHuffmanCompression.MAX_BLOCK_SIZE + 1);
+
+        final CRC32 checksum = new CRC32();
+        checksum.update(compressed, 0, codeLength + Integer.BYTES * 3);
+        ByteBuffer.wrap(compressed).putInt(codeLength + Integer.BYTES * 3, (int) checksum.getValue());
+
+        try {
+            parallelHuffmanCompression.decompress(compressed);
+            Assert.fail("The oversized block size should have been rejected.");
+        } catch (CorruptedDataException e) {
+            Assert.assertFalse(e instanceof ChecksumMismatchException);
+        }
+    }
+
+    @Test
+    public void compress_Empty_Test() throws Exception {
+        Assert.assertArrayEquals(new byte[0], parallelHuffmanCompression.decompress(parallelHuffmanCompression.compress(new byte[0])));
+    }
+
+    @Test
+    public void compress_Correct_Test() throws Exception {
+        final byte[] bytes = TestData.getLoremIpsumBytes(100);
+        final byte[] compressed = parallelHuffmanCompression.compress(bytes);
+
+        Assert.assertTrue(compressed.length < bytes.length);
+        Assert.assertArrayEquals(bytes, parallelHuffmanCompression.decompress(compressed));
+    }
+
+    @Test(expected = IOException.class)
+    public void decompress_Truncated_Test() throws Exception {
+        final byte[] compressed = parallelHuffmanCompression.compress(Constants.LOREM_IPSUM.getBytes(StandardCharsets.UTF_8));
+        parallelHuffmanCompression.decompress(Arrays.copyOf(compressed, compressed.length - 10));
+    }
+
+    @Test
+    public void decompress_Damaged_Block_Test() throws Exception {
+        final byte[] bytes = Constants.LOREM_IPSUM.getBytes(StandardCharsets.UTF_8);
+        final byte[] compressed = parallelHuffmanCompression.compress(bytes);
+
+        /* The last block ends with its 4 byte checksum, so this byte lies within the encoded bits of the last block. */
+        compressed[compressed.length - 6] ^= 1;
+
+        try {
+            parallelHuffmanCompression.decompress(compressed);
+            Assert.fail("The damaged block has been decoded.");
+        } catch (ChecksumMismatchException e) {
+            Assert.assertEquals((bytes.length - 1) / 1000, e.getBlock());
+        }
+    }
+}
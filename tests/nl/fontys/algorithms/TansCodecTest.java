@@ -0,0 +1,154 @@
+package nl.fontys.algorithms;
+
+import nl.fontys.utilities.Constants;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+public class TansCodecTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fromFrequencies_Small_Table_Test() throws Exception {
+        TansCodec.fromFrequencies(new long[]{1, 2}, TansCodec.MIN_TABLE_LOG - 1);
+    }
+
+    @Test
+    public void fromFrequencies_Normalized_Test() throws Exception {
+        final TansCodec tansCodec = TansCodec.fromFrequencies(getFrequencies(getSkewedBytes(10_000)));
+        int total = 0;
+
+        for (int symbol = 0; symbol < 256; symbol++) {
+            total += tansCodec.getNormalizedFrequency(symbol);
+        }
+        Assert.assertEquals(1 << TansCodec.DEFAULT_TABLE_LOG, total);
+    }
+
+    @Test
+    public void encodeBytes_Correct_Test() throws Exception {
+        final byte[] bytes = Constants.LOREM_IPSUM.getBytes(StandardCharsets.UTF_8);
+        final TansCodec tansCodec = TansCodec.fromFrequencies(getFrequencies(bytes));
+
+        Assert.assertArrayEquals(bytes, tansCodec.decodeBytes(tansCodec.encodeBytes(bytes)));
+    }
+
+    @Test
+    public void encodeBytes_Random_Test() throws Exception {
+        final byte[] bytes = new byte[100_000];
+        new Random(17).nextBytes(bytes);
+
+        for (int tableLog = TansCodec.MIN_TABLE_LOG; tableLog <= TansCodec.MAX_TABLE_LOG; tableLog++) {
+            final TansCodec tansCodec = TansCodec.fromFrequencies(getFrequencies(bytes), tableLog);
+            Assert.assertArrayEquals(bytes, tansCodec.decodeBytes(tansCodec.encodeBytes(bytes)));
+        }
+    }
+
+    @Test
+    public void encodeBytes_Single_Byte_Test() throws Exception {
+        /* A single byte occupies every state, so it doesn't cost any bits at all. Only the final state is stored. */
+        final byte[] bytes = new byte[1000];
+        final TansCodec tansCodec = TansCodec.fromFrequencies(getFrequencies(bytes));
+        final byte[] encoded = tansCodec.encodeBytes(bytes);
+
+        Assert.assertEquals(CodecScratch.HEADER_SIZE + 2, encoded.length);
+        Assert.assertArrayEquals(bytes, tansCodec.decodeBytes(encoded));
+    }
+
+    @Test
+    public void encodeBytes_Empty_Test() throws Exception {
+        final TansCodec tansCodec = TansCodec.fromFrequencies(new long[256]);
+        Assert.assertArrayEquals(new byte[0], tansCodec.decodeBytes(tansCodec.encodeBytes(new byte[0])));
+    }
+
+    @Test
+    public void encodeBytes_Skewed_Ratio_Test() throws Exception {
+        /* Huffman spends at least a single bit on the most frequent byte, while tANS comes close to the entropy of the distribution. */
+        final byte[] bytes = getSkewedBytes(100_000);
+        final long[] frequencies = getFrequencies(bytes);
+
+        final int tansSize = TansCodec.fromFrequencies(frequencies).encodeBytes(bytes).length;
+        final int huffmanSize = new HuffmanCodec(HuffmanStreams.buildCode(frequencies, false)).encodeBytes(bytes).length;
+
+        Assert.assertTrue(tansSize * 10 < huffmanSize * 8);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void encodeBytes_Unknown_Byte_Test() throws Exception {
+        TansCodec.fromFrequencies(new long[]{1, 2, 3}).encodeBytes(new byte[]{1, 2, 3, 4});
+    }
+
+    @Test(expected = CorruptedDataException.class)
+    public void decodeBytes_Other_Model_Test() throws Exception {
+        final byte[] bytes = Constants.LOREM_IPSUM.getBytes(StandardCharsets.UTF_8);
+        final byte[] encoded = TansCodec.fromFrequencies(getFrequencies(bytes)).encodeBytes(bytes);
+
+        TansCodec.fromFrequencies(getFrequencies(getSkewedBytes(1000))).decodeBytes(encoded);
+    }
+
+    @Test
+    public void decodeBytes_Oversized_Symbol_Count_Test() throws Exception {
+        /* A damaged amount of bytes should be rejected before an output of that size is allocated, for a flat as well as a skewed model. */
+        for (final byte[] bytes : new byte[][]{Constants.LOREM_IPSUM.getBytes(StandardCharsets.UTF_8), getSkewedBytes(10_000)}) {
+            final TansCodec tansCodec = TansCodec.fromFrequencies(getFrequencies(bytes));
+            final byte[] encoded = tansCodec.encodeBytes(bytes);
+            ByteBuffer.wrap(encoded).putInt(0, Integer.MAX_VALUE);
+
+            try {
+                tansCodec.decodeBytes(encoded);
+                Assert.fail("The amount of bytes should have been rejected.");
+            } catch (CorruptedDataException e) {
+                Assert.assertTrue(e.getMessage().contains("at most"));
+            }
+        }
+    }
+
+    @Test
+    public void encodeBytes_Dominant_Byte_Test() throws Exception {
+        /* A byte that occupies all states but one is decoded many times in a row without reading a bit, which the bound on the amount of bytes should allow. */
+        final byte[] bytes = new byte[100_000];
+        bytes[50_000] = 1;
+        final TansCodec tansCodec = TansCodec.fromFrequencies(getFrequencies(bytes));
+
+        Assert.assertEquals((1 << TansCodec.DEFAULT_TABLE_LOG) - 1, tansCodec.getNormalizedFrequency(0));
+        Assert.assertArrayEquals(bytes, tansCodec.decodeBytes(tansCodec.encodeBytes(bytes)));
+    }
+
+    @Test
+    public void writeModelTo_ReadFrom_Test() throws Exception {
+        final byte[] bytes = Constants.LOREM_IPSUM.getBytes(StandardCharsets.UTF_8);
+        final TansCodec tansCodec = TansCodec.fromFrequencies(getFrequencies(bytes), 12);
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        tansCodec.writeModelTo(new DataOutputStream(byteArrayOutputStream));
+
+        final TansCodec readCodec = TansCodec.readFrom(new DataInputStream(new ByteArrayInputStream(byteArrayOutputStream.toByteArray())));
+
+        Assert.assertEquals(12, readCodec.getTableLog());
+        Assert.assertArrayEquals(bytes, readCodec.decodeBytes(tansCodec.encodeBytes(bytes)));
+    }
+
+    private static byte[] getSkewedBytes(final int size) {
+        final byte[] bytes = new byte[size];
+        final Random random = new Random(19);
+
+        /* Byte 0 takes 90% of the bytes, which Huffman can't encode in less than a single bit. */
+        for (int i = 0; i < size; i++) {
+            bytes[i] = random.nextInt(10) == 0 ? (byte) (1 + random.nextInt(8)) : 0;
+        }
+        return bytes;
+    }
+
+    private static long[] getFrequencies(final byte[] bytes) {
+        final long[] frequencies = new long[256];
+
+        for (final byte b : bytes) {
+            frequencies[b & 0xFF]++;
+        }
+        return frequencies;
+    }
+}
@@ -0,0 +1,175 @@
+package nl.fontys.core;
+
+import nl.fontys.utilities.Constants;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+public class BatchCompressorTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void processFiles_Directory_Tree_Test() throws Exception {
+        final Path input = temporaryFolder.newFolder("input").toPath();
+        final Path output = temporaryFolder.newFolder("output").toPath();
+        final Path restored = temporaryFolder.newFolder("restored").toPath();
+
+        Files.createDirectories(input.resolve("nested"));
+        Files.write(input.resolve("a.txt"), Constants.LOREM_IPSUM.getBytes(StandardCharsets.UTF_8));
+        Files.write(input.resolve("nested").resolve("b.txt"), "Nulla consequat massa quis enim.".getBytes(StandardCharsets.UTF_8));
+
+        /* The small sample size makes sure that the code of the larger file is built from a sample instead of an exact count,
+           while the small block size splits it into many blocks. */
+        final BatchCompressor compressor = createBatchCompressor("compress", "-s", "64", "-b", "100", "-t", "2", "-o", output.toString(), input.toString());
+        Assert.assertTrue(compressor.processFiles());
+        Assert.assertEquals(2, compressor.getFiles());
+        Assert.assertTrue(Files.exists(output.resolve("nested").resolve("b.txt" + BatchCompressor.EXTENSION)));
+
+        final BatchCompressor decompressor = createBatchCompressor("decompress", "-o", restored.toString(), output.toString());
+        Assert.assertTrue(decompressor.processFiles());
+        Assert.assertArrayEquals(Files.readAllBytes(input.resolve("a.txt")), Files.readAllBytes(restored.resolve("a.txt")));
+        Assert.assertArrayEquals(Files.readAllBytes(input.resolve("nested").resolve("b.txt")), Files.readAllBytes(restored.resolve("nested").resolve("b.txt")));
+    }
+
+    @Test
+    public void processFiles_Failure_Continues_Test() throws Exception {
+        final Path input = temporaryFolder.newFolder("input").toPath();
+        Files.write(input.resolve("valid.txt"), Constants.LOREM_IPSUM.getBytes(StandardCharsets.UTF_8));
+
+        final BatchCompressor compressor = createBatchCompressor("compress", input.toString());
+        Assert.assertTrue(compressor.processFiles());
+
+        /* A damaged file fails on its own, while the valid file is still decompressed next to it. */
+        Files.write(input.resolve("damaged.txt" + BatchCompressor.EXTENSION), new byte[]{1, 2, 3});
+
+        final Path output = temporaryFolder.newFolder("output").toPath();
+        final BatchCompressor decompressor = createBatchCompressor("decompress", "-o", output.toString(), input.toString());
+        Assert.assertFalse(decompressor.processFiles());
+        Assert.assertEquals(1, decompressor.getFiles());
+        Assert.assertEquals(1, decompressor.getFailures());
+    }
+
+    @Test
+    public void processFiles_Existing_Target_Test() throws Exception {
+        final Path input = temporaryFolder.newFolder("input").toPath();
+        final byte[] bytes = Constants.LOREM_IPSUM.getBytes(StandardCharsets.UTF_8);
+        Files.write(input.resolve("foo"), bytes);
+        Files.write(input.resolve("foo" + BatchCompressor.EXTENSION), new byte[]{1, 2, 3});
+
+        /* The damaged file fails, but the existing file that its result would have replaced is left untouched, even when the batch is forced. */
+        final BatchCompressor decompressor = createBatchCompressor("decompress", "--force", input.toString());
+        Assert.assertFalse(decompressor.processFiles());
+        Assert.assertEquals(1, decompressor.getFailures());
+        Assert.assertArrayEquals(bytes, Files.readAllBytes(input.resolve("foo")));
+
+        try (final Stream<Path> files = Files.list(input)) {
+            Assert.assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    public void processFiles_Force_Test() throws Exception {
+        final Path input = temporaryFolder.newFolder("input").toPath();
+        final Path compressed = input.resolve("a.txt" + BatchCompressor.EXTENSION);
+        Files.write(input.resolve("a.txt"), Constants.LOREM_IPSUM.getBytes(StandardCharsets.UTF_8));
+        Files.write(compressed, new byte[]{1, 2, 3});
+
+        /* The existing result is only replaced once the batch is forced to. */
+        final BatchCompressor compressor = createBatchCompressor("compress", input.toString());
+        Assert.assertFalse(compressor.processFiles());
+        Assert.assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(compressed));
+
+        Assert.assertTrue(createBatchCompressor("compress", "-f", input.toString()).processFiles());
+        Assert.assertTrue(Files.size(compressed) > 3);
+    }
+
+    @Test
+    public void processFiles_Damaged_Frame_Test() throws Exception {
+        final Path input = temporaryFolder.newFolder("input").toPath();
+        final Path compressed = input.resolve("a.txt" + BatchCompressor.EXTENSION);
+        Files.write(input.resolve("a.txt"), Constants.LOREM_IPSUM.getBytes(StandardCharsets.UTF_8));
+        Assert.assertTrue(createBatchCompressor("compress", input.toString()).processFiles());
+
+        /* A flipped bit within the encoded bits is caught by the checksum of its frame, after which the incomplete result is removed. */
+        final byte[] bytes = Files.readAllBytes(compressed);
+        bytes[bytes.length - 20] ^= 1;
+        Files.write(compressed, bytes);
+        Files.delete(input.resolve("a.txt"));
+
+        final BatchCompressor decompressor = createBatchCompressor("decompress", input.toString());
+        Assert.assertFalse(decompressor.processFiles());
+        Assert.assertEquals(1, decompressor.getFailures());
+        Assert.assertFalse(Files.exists(input.resolve("a.txt")));
+    }
+
+    @Test
+    public void processFiles_Duplicate_Paths_Test() throws Exception {
+        final Path input = temporaryFolder.newFolder("input").toPath();
+        final Path file = input.resolve("a.txt");
+        Files.write(file, Constants.LOREM_IPSUM.getBytes(StandardCharsets.UTF_8));
+
+        /* The same file is reached through its directory, its own path and a path that is spelled differently, but it should only be compressed once. */
+        final BatchCompressor compressor = createBatchCompressor("compress", input.toString(), file.toString(), input.resolve(".").resolve("a.txt").toString());
+        Assert.assertTrue(compressor.processFiles());
+        Assert.assertEquals(1, compressor.getFiles());
+        Assert.assertEquals(0, compressor.getFailures());
+    }
+
+    @Test
+    public void processFiles_Same_Target_Test() throws Exception {
+        final Path first = temporaryFolder.newFolder("first").toPath();
+        final Path second = temporaryFolder.newFolder("second").toPath();
+        final Path output = temporaryFolder.newFolder("output").toPath();
+        Files.write(first.resolve("a.txt"), Constants.LOREM_IPSUM.getBytes(StandardCharsets.UTF_8));
+        Files.write(second.resolve("a.txt"), "Nulla consequat massa quis enim.".getBytes(StandardCharsets.UTF_8));
+
+        /* Both files would be written to output/a.txt.huff, so the second one fails instead of racing the first one. */
+        final BatchCompressor compressor = createBatchCompressor("compress", "-o", output.toString(), first.toString(), second.toString());
+        Assert.assertFalse(compressor.processFiles());
+        Assert.assertEquals(1, compressor.getFiles());
+        Assert.assertEquals(1, compressor.getFailures());
+    }
+
+    @Test
+    public void process_Standard_Streams_Test() throws Exception {
+        final byte[] bytes = Constants.LOREM_IPSUM.getBytes(StandardCharsets.UTF_8);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        final ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+
+        Assert.assertTrue(createBatchCompressor("compress", "-").process(new ByteArrayInputStream(bytes), compressed));
+        Assert.assertTrue(createBatchCompressor("decompress", "-").process(new ByteArrayInputStream(compressed.toByteArray()), decompressed));
+        Assert.assertArrayEquals(bytes, decompressed.toByteArray());
+    }
+
+    @Test
+    public void process_Standard_Streams_Sampled_Test() throws Exception {
+        final byte[] bytes = (Constants.LOREM_IPSUM + "~").getBytes(StandardCharsets.UTF_8);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        final ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+
+        /* The code is built from the first bytes only, so the last byte does not occur within the sample. */
+        Assert.assertTrue(createBatchCompressor("compress", "-s", "16", "-").process(new ByteArrayInputStream(bytes), compressed));
+        Assert.assertTrue(createBatchCompressor("decompress", "-").process(new ByteArrayInputStream(compressed.toByteArray()), decompressed));
+        Assert.assertArrayEquals(bytes, decompressed.toByteArray());
+    }
+
+    @Test
+    public void run_Invalid_Arguments_Test() throws Exception {
+        Assert.assertEquals(2, BatchCompressor.run("compress"));
+    }
+
+    private static BatchCompressor createBatchCompressor(final String... args) {
+        return new BatchCompressor(BatchOptions.parse(args), new PrintStream(new ByteArrayOutputStream()));
+    }
+}
@@ -0,0 +1,55 @@
+package nl.fontys.core;
+
+import nl.fontys.algorithms.HuffmanOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+public class BatchOptionsTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_Unknown_Mode_Test() throws Exception {
+        BatchOptions.parse("shrink", "file.txt");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_No_Paths_Test() throws Exception {
+        BatchOptions.parse("compress", "-t", "4");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_Invalid_Threads_Test() throws Exception {
+        BatchOptions.parse("compress", "-t", "0", "file.txt");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_Oversized_Block_Size_Test() throws Exception {
+        BatchOptions.parse("compress", "-b", String.valueOf(HuffmanOutputStream.MAX_FRAME_SIZE + 1), "file.txt");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_Missing_Value_Test() throws Exception {
+        BatchOptions.parse("compress", "file.txt", "--sample-size");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_Standard_Streams_With_Paths_Test() throws Exception {
+        BatchOptions.parse("compress", "-", "file.txt");
+    }
+
+    @Test
+    public void parse_Correct_Test() throws Exception {
+        final BatchOptions options = BatchOptions.parse("decompress", "-o", "out", "a.huff", "--sample-size", "4096", "dir", "-t", "3", "--block-size", "1024", "-f");
+
+        Assert.assertFalse(options.isCompress());
+        Assert.assertEquals(Arrays.asList("a.huff", "dir"), options.getPaths());
+        Assert.assertEquals(Paths.get("out"), options.getOutputDirectory());
+        Assert.assertTrue(options.isForce());
+        Assert.assertEquals(1024, options.getBlockSize());
+        Assert.assertEquals(4096, options.getSampleSize());
+        Assert.assertEquals(3, options.getThreads());
+        Assert.assertFalse(options.isStandardStreams());
+    }
+}
@@ -0,0 +1,74 @@
+package nl.fontys.utilities;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+
+public class BitReaderTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_Null_Test() throws Exception {
+        new BitReader((long[]) null, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_Exceeds_Buffer_Test() throws Exception {
+        new BitReader(ByteBuffer.allocate(1), 0, 9);
+    }
+
+    @Test
+    public void read_Words_Test() throws Exception {
+        final Random random = new Random(7);
+        final long[] values = new long[1000];
+        final int[] lengths = new int[values.length];
+        final BitWriter bitWriter = new BitWriter(0);
+
+        for (int i = 0; i < values.length; i++) {
+            lengths[i] = random.nextInt(BitReader.MAX_PEEK_LENGTH + 1);
+            values[i] = random.nextLong() & ((1L << lengths[i]) - 1);
+            bitWriter.write(values[i], lengths[i]);
+        }
+
+        final byte[] bytes = bitWriter.toByteArray();
+        final long[] words = new long[(bytes.length + 7) / 8];
+        ByteBuffer.wrap(Arrays.copyOf(bytes, words.length * 8)).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(words);
+
+        /* The codes cross the boundaries of the words at every possible offset, which is where the two words have to be combined. */
+        final BitReader reader = new BitReader(words, bitWriter.getBitCount());
+        for (int i = 0; i < values.length; i++) {
+            Assert.assertEquals(values[i], reader.read(lengths[i]));
+        }
+        Assert.assertEquals(0, reader.getRemaining());
+    }
+
+    @Test
+    public void read_Buffer_Test() throws Exception {
+        final BitWriter bitWriter = new BitWriter(0);
+        for (int i = 0; i < 100; i++) {
+            bitWriter.write(i, 7);
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(bitWriter.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+
+        /* Starting halfway through the bits makes sure that the reader does not assume that it starts at a byte boundary. */
+        final BitReader reader = new BitReader(buffer, 7 * 50, bitWriter.getBitCount());
+        for (int i = 50; i < 100; i++) {
+            Assert.assertEquals(i, reader.read(7));
+        }
+        Assert.assertEquals(bitWriter.getBitCount(), reader.getPosition());
+    }
+
+    @Test
+    public void peek_Past_End_Test() throws Exception {
+        final BitReader reader = new BitReader(new long[]{-1L}, 64);
+        reader.skip(60);
+
+        /* Only 4 bits remain, every bit after them is read as a 0. */
+        Assert.assertEquals(0xFL, reader.peek(BitReader.MAX_PEEK_LENGTH));
+        Assert.assertEquals(4, reader.getRemaining());
+    }
+}
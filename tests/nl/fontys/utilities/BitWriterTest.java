@@ -0,0 +1,49 @@
+package nl.fontys.utilities;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class BitWriterTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_Negative_Capacity_Test() throws Exception {
+        new BitWriter(-1);
+    }
+
+    @Test
+    public void write_Correct_Test() throws Exception {
+        final BitWriter bitWriter = new BitWriter(0);
+
+        /* The least significant bit is written first, so these bits end up as 1, 01, 111 and 0. */
+        bitWriter.write(0b1, 1);
+        bitWriter.write(0b10, 2);
+        bitWriter.write(0b111, 3);
+        bitWriter.write(0b0, 1);
+
+        Assert.assertEquals(7, bitWriter.getBitCount());
+        Assert.assertArrayEquals(new byte[]{0b0111101}, bitWriter.toByteArray());
+    }
+
+    @Test
+    public void write_Long_Codes_Test() throws Exception {
+        final BitWriter bitWriter = new BitWriter(0);
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(64);
+
+        /* Writing 7 bits first makes sure that the accumulator has to be flushed halfway through the longer codes. */
+        bitWriter.write(0x7FL, 7);
+        for (int i = 0; i < 8; i++) {
+            bitWriter.write((1L << BitWriter.MAX_WRITE_LENGTH) - 1, BitWriter.MAX_WRITE_LENGTH);
+        }
+        bitWriter.writeTo(byteBuffer);
+
+        Assert.assertEquals(7 + 8 * BitWriter.MAX_WRITE_LENGTH, bitWriter.getBitCount());
+        Assert.assertEquals(58, byteBuffer.position());
+        for (int i = 0; i < 57; i++) {
+            Assert.assertEquals((byte) 0xFF, byteBuffer.get(i));
+        }
+        /* The last byte only holds the remaining 7 bits and is padded with a 0. */
+        Assert.assertEquals((byte) 0x7F, byteBuffer.get(57));
+    }
+}
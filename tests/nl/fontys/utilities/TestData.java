@@ -0,0 +1,49 @@
+package nl.fontys.utilities;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The input and helpers that are shared by the tests of the compressions and streams.
+ */
+public final class TestData {
+
+    private TestData() {
+    }
+
+    /**
+     * This method will repeat the Lorem Ipsum text the given amount of times.
+     *
+     * @param repetitions The amount of times that the text should be repeated.
+     * @return Returns the repeated text as UTF-8 bytes.
+     */
+    public static byte[] getLoremIpsumBytes(final int repetitions) {
+        final StringBuilder stringBuilder = new StringBuilder();
+
+        for (int i = 0; i < repetitions; i++) {
+            stringBuilder.append(Constants.LOREM_IPSUM);
+        }
+        return stringBuilder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * This method will read the given InputStream until its end, after which it will be closed.
+     *
+     * @param inputStream The InputStream that should be read.
+     * @return Returns every byte that has been read.
+     * @throws IOException Thrown when the InputStream could not be read.
+     */
+    public static byte[] readFully(final InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int read;
+
+        while ((read = inputStream.read(buffer)) != -1) {
+            bytes.write(buffer, 0, read);
+        }
+        inputStream.close();
+        return bytes.toByteArray();
+    }
+}